@@ -0,0 +1,46 @@
+package com.rathaur.nexus.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal {@code --key=value} command-line parsing shared by the load-test entry points.
+ */
+final class Args {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Args(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+    }
+
+    String string(String key, String fallback) {
+        return values.getOrDefault(key, fallback);
+    }
+
+    int integer(String key, int fallback) {
+        String v = values.get(key);
+        return v != null ? Integer.parseInt(v) : fallback;
+    }
+
+    double decimal(String key, double fallback) {
+        String v = values.get(key);
+        return v != null ? Double.parseDouble(v) : fallback;
+    }
+
+    Duration millis(String key, long fallback) {
+        String v = values.get(key);
+        return Duration.ofMillis(v != null ? Long.parseLong(v) : fallback);
+    }
+}
@@ -0,0 +1,252 @@
+package com.rathaur.nexus.loadtest;
+
+import com.rathaur.nexus.common.security.JwtUtils;
+import com.rathaur.nexus.common.utils.SecurityConstants;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds how much concurrent load a servlet stats-service sustains on platform threads versus
+ * virtual threads. Both instances run the same build against the same database and provider
+ * stand-ins, and differ only in {@code NEXUS_VIRTUAL_THREADS}:
+ * <pre>
+ * GITHUB_API_URL=http://localhost:9101 LEETCODE_API_URL=http://localhost:9102 java -jar stats-service.jar
+ * GITHUB_API_URL=http://localhost:9101 LEETCODE_API_URL=http://localhost:9102 \
+ *     NEXUS_VIRTUAL_THREADS=true SERVER_PORT=8083 java -jar stats-service.jar
+ * mvn -f loadtest/pom.xml exec:java -Dexec.mainClass=com.rathaur.nexus.loadtest.CapacityProbe \
+ *     -Dexec.args="--platform=http://localhost:8082 --virtual=http://localhost:8083"
+ * </pre>
+ *
+ * Run the stand-ins with some latency ({@code --latency-ms=300}) so requests actually hold a
+ * thread while they wait. Concurrency steps from {@code --start} (8), doubling up to {@code --max}
+ * (512); each step runs closed-loop for {@code --step-seconds} (20). A worker issues a sync with
+ * probability {@code --sync-share} (0.2, submit then poll until done), otherwise a profile read.
+ * A step meets the SLO when p99 stays under {@code --slo-ms} (2000) and fewer than 1% of
+ * operations fail or are rejected; capacity is the highest such step's completed operations/s.
+ */
+public final class CapacityProbe {
+
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final JwtUtils jwt = new JwtUtils();
+
+    private final Duration pollInterval;
+    private final long sloMs;
+
+    private CapacityProbe(Duration pollInterval, long sloMs) {
+        this.pollInterval = pollInterval;
+        this.sloMs = sloMs;
+    }
+
+    /** Outcome of one concurrency step against one instance. */
+    private record Step(int concurrency, long ok, long rejected, long errors, double seconds,
+                        long[] latenciesMs, long threadsMax) {
+
+        double throughput() {
+            return ok / seconds;
+        }
+
+        long p99() {
+            return latenciesMs.length == 0 ? 0 : SyncLoadDriver.percentile(latenciesMs, 99);
+        }
+
+        boolean meets(long sloMs) {
+            long total = ok + rejected + errors;
+            return total > 0 && p99() <= sloMs && (rejected + errors) <= total * MAX_ERROR_RATE;
+        }
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        int start = args.integer("start", 8);
+        int max = args.integer("max", 512);
+        Duration stepLength = Duration.ofSeconds(args.integer("step-seconds", 20));
+        int users = args.integer("users", 500);
+        double syncShare = args.decimal("sync-share", 0.2);
+
+        CapacityProbe probe = new CapacityProbe(args.millis("poll-ms", 100), args.integer("slo-ms", 2_000));
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        Map<String, List<Step>> results = new LinkedHashMap<>();
+        for (String mode : List.of("platform", "virtual")) {
+            String target = trim(args.string(mode, mode.equals("platform") ? "http://localhost:8082" : "http://localhost:8083"));
+            String prefix = "cap-" + runId + "-" + mode.charAt(0) + "-";
+            List<Step> steps = new ArrayList<>();
+            for (int concurrency = start; concurrency <= max; concurrency *= 2) {
+                Step step = probe.step(target, prefix, users, syncShare, concurrency, stepLength);
+                System.out.printf("NEXUS-CAPACITY: [%s] c=%d %.1f ops/s, p99 %d ms, %d rejected, %d failed, %d threads%n",
+                        mode, concurrency, step.throughput(), step.p99(), step.rejected(), step.errors(), step.threadsMax());
+                steps.add(step);
+            }
+            results.put(mode, steps);
+        }
+
+        probe.print(results);
+    }
+
+    private Step step(String target, String prefix, int users, double syncShare, int concurrency, Duration length) {
+        AtomicLong threadsMax = new AtomicLong(liveThreads(target));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> threadsMax.accumulateAndGet(liveThreads(target), Math::max),
+                0, 250, TimeUnit.MILLISECONDS);
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicInteger errorSamples = new AtomicInteger();
+        long deadline = System.nanoTime() + length.toNanos();
+        long begin = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long opStart = System.nanoTime();
+                        int status;
+                        try {
+                            status = operation(target, prefix, users, syncShare);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            if (errorSamples.getAndIncrement() < 5) {
+                                System.out.printf("NEXUS-CAPACITY: %s: %s%n", target, e);
+                            }
+                            status = -1;
+                        }
+                        if (status == 200) {
+                            latencies.add((System.nanoTime() - opStart) / 1_000_000);
+                        } else if (status == 429 || status == 503) {
+                            rejected.increment();
+                        } else {
+                            errors.increment();
+                        }
+                    }
+                });
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Step(concurrency, sorted.length, rejected.sum(), errors.sum(), seconds, sorted, threadsMax.get());
+    }
+
+    /** Runs one operation and answers 200 when it completed, otherwise the status that stopped it. */
+    private int operation(String target, String prefix, int users, double syncShare) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = prefix + random.nextInt(users);
+        if (random.nextDouble() < syncShare) {
+            return sync(target, username);
+        }
+        int status = send(target, "/api/v1/stats/" + username, null, HttpRequest.newBuilder().GET()).statusCode();
+        // Not yet synced is still a served request
+        return status == 404 ? 200 : status;
+    }
+
+    private int sync(String target, String username) throws Exception {
+        String token = jwt.generateToken(Map.of(
+                SecurityConstants.CLAIM_ROLES, List.of("ROLE_USER"),
+                SecurityConstants.CLAIM_TOKEN_TYPE, SecurityConstants.TOKEN_TYPE_ACCESS), username, 3_600_000);
+
+        HttpResponse<byte[]> submitted = send(target,
+                "/api/v1/stats/sync?github=gh-" + username + "&leetcode=lc-" + username, token,
+                HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.noBody()));
+        if (submitted.statusCode() != 202) return submitted.statusCode();
+
+        String jobId = mapper.readTree(submitted.body()).path("data").path("jobId").asString();
+        Instant deadline = Instant.now().plusSeconds(120);
+        while (Instant.now().isBefore(deadline)) {
+            Thread.sleep(pollInterval);
+            HttpResponse<byte[]> polled = send(target, "/api/v1/stats/sync/" + jobId, token, HttpRequest.newBuilder().GET());
+            if (polled.statusCode() != 200) continue;
+            String state = mapper.readTree(polled.body()).path("data").path("state").asString();
+            if ("COMPLETED".equals(state)) return 200;
+            if ("FAILED".equals(state)) return 500;
+        }
+        return 504;
+    }
+
+    private HttpResponse<byte[]> send(String target, String path, String token, HttpRequest.Builder request)
+            throws Exception {
+        request.uri(URI.create(target + path)).timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            request.header(SecurityConstants.AUTH_HEADER, SecurityConstants.BEARER + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private long liveThreads(String target) {
+        try {
+            HttpResponse<byte[]> response = send(target, "/actuator/metrics/jvm.threads.live", null,
+                    HttpRequest.newBuilder().GET());
+            JsonNode measurements = mapper.readTree(response.body()).path("measurements");
+            return measurements.isEmpty() ? 0 : measurements.get(0).path("value").asLong();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private void print(Map<String, List<Step>> results) {
+        System.out.println();
+        System.out.printf("%-12s", "concurrency");
+        results.keySet().forEach(mode -> System.out.printf("%36s", mode + " (ops/s, p99 ms, rejected)"));
+        System.out.println();
+
+        int rows = results.values().stream().mapToInt(List::size).max().orElse(0);
+        for (int i = 0; i < rows; i++) {
+            int row = i;
+            System.out.printf("%-12d", results.values().iterator().next().get(row).concurrency());
+            results.values().forEach(steps -> {
+                Step s = steps.get(row);
+                System.out.printf("%36s", "%.1f / %d / %d%s".formatted(
+                        s.throughput(), s.p99(), s.rejected() + s.errors(), s.meets(sloMs) ? "" : " !"));
+            });
+            System.out.println();
+        }
+
+        System.out.println();
+        results.forEach((mode, steps) -> {
+            Step best = steps.stream().filter(s -> s.meets(sloMs)).reduce((a, b) -> b).orElse(null);
+            if (best == null) {
+                System.out.printf("%-10s no step met p99 <= %d ms%n", mode, sloMs);
+            } else {
+                System.out.printf("%-10s capacity %.1f ops/s at concurrency %d (p99 %d ms, %d server threads)%n",
+                        mode, best.throughput(), best.concurrency(), best.p99(), best.threadsMax());
+            }
+        });
+    }
+
+    private static String trim(String target) {
+        return target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+    }
+}
@@ -0,0 +1,114 @@
+package com.rathaur.nexus.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Base for the provider stand-ins: applies latency, error and throttle injection, then lets the
+ * subclass answer the GraphQL request. Requests run on virtual threads, so injected latency
+ * costs no platform threads and thousands of concurrent calls are fine.
+ */
+abstract class FaultInjectingHandler implements HttpHandler {
+
+    protected final ObjectMapper mapper;
+    protected final FaultSettings faults;
+
+    final LongAdder served = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder throttled = new LongAdder();
+
+    FaultInjectingHandler(ObjectMapper mapper, FaultSettings faults) {
+        this.mapper = mapper;
+        this.faults = faults;
+    }
+
+    /**
+     * @return the response document for a well-formed request
+     */
+    protected abstract byte[] answer(JsonNode request);
+
+    /** Extra headers on successful responses, e.g. quota accounting. */
+    protected void decorate(HttpExchange exchange, JsonNode request) {
+    }
+
+    /** Quota exhaustion on top of the random throttle rate; none by default. */
+    protected boolean overQuota() {
+        return false;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().equals("/graphql")) {
+                send(exchange, 404, "{\"message\":\"Not Found\"}");
+                return;
+            }
+
+            JsonNode request;
+            try (InputStream in = exchange.getRequestBody()) {
+                request = mapper.readTree(in);
+            } catch (JacksonException e) {
+                send(exchange, 400, "{\"message\":\"Problems parsing JSON\"}");
+                return;
+            }
+
+            sleepInjectedLatency();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (overQuota() || random.nextDouble() < faults.throttleRate()) {
+                throttled.increment();
+                long seconds = Math.max(1, faults.retryAfter().toSeconds());
+                exchange.getResponseHeaders().add("Retry-After", Long.toString(seconds));
+                send(exchange, 429, "{\"message\":\"API rate limit exceeded\"}");
+                return;
+            }
+            if (random.nextDouble() < faults.errorRate()) {
+                failed.increment();
+                send(exchange, 502, "{\"message\":\"Server Error\"}");
+                return;
+            }
+
+            byte[] body = answer(request);
+            decorate(exchange, request);
+            served.increment();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sleepInjectedLatency() {
+        long base = faults.latency().toMillis();
+        long spread = faults.jitter().toMillis();
+        long delay = spread > 0 ? base + ThreadLocalRandom.current().nextLong(-spread, spread + 1) : base;
+        if (delay <= 0) return;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
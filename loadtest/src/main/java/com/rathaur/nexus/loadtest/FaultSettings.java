@@ -0,0 +1,32 @@
+package com.rathaur.nexus.loadtest;
+
+import java.time.Duration;
+
+/**
+ * What the stand-in server injects into every provider response.
+ *
+ * @param latency      base response delay
+ * @param jitter       uniform +/- spread around {@code latency}
+ * @param errorRate    fraction of requests answered with 502
+ * @param throttleRate fraction of requests answered with 429 and Retry-After
+ * @param retryAfter   Retry-After sent with injected 429s
+ * @param hourlyQuota  GitHub quota advertised through X-RateLimit-* headers; exhausting it
+ *                     yields 429s until the hour rolls over, like the real API
+ */
+record FaultSettings(Duration latency,
+                     Duration jitter,
+                     double errorRate,
+                     double throttleRate,
+                     Duration retryAfter,
+                     long hourlyQuota) {
+
+    static FaultSettings from(Args args) {
+        return new FaultSettings(
+                args.millis("latency-ms", 150),
+                args.millis("jitter-ms", 50),
+                args.decimal("error-rate", 0.0),
+                args.decimal("throttle-rate", 0.0),
+                args.millis("retry-after-ms", 2_000),
+                args.integer("github-quota", 1_000_000));
+    }
+}
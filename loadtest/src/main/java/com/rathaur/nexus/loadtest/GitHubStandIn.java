@@ -0,0 +1,216 @@
+package com.rathaur.nexus.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Answers the GitHub GraphQL queries sent by stats-service: the single {@code user(login:)}
+ * query and the aliased {@code u0..uN} batch. Every selected field of the NexusUserFields
+ * fragment is present, so payload size and decode cost match production. Values are derived
+ * from the login, so the same user always gets the same profile. Logins starting with
+ * {@code missing-} resolve to null with a NOT_FOUND error on their alias.
+ */
+final class GitHubStandIn extends FaultInjectingHandler {
+
+    private static final String[][] LANGUAGES = {
+            {"Java", "#b07219"}, {"TypeScript", "#3178c6"}, {"Go", "#00ADD8"}, {"Python", "#3572A5"},
+            {"Rust", "#dea584"}, {"Kotlin", "#A97BFF"}, {"C++", "#f34b7d"}, {"JavaScript", "#f1e05a"}
+    };
+    private static final String[] LOCATIONS = {
+            "Bengaluru, India", "Berlin, Germany", "San Francisco, CA", "London, UK", "Toronto, Canada", "Singapore"
+    };
+
+    private final Object quotaLock = new Object();
+    private long quotaWindowStart = currentHour();
+    private long quotaUsed;
+
+    GitHubStandIn(ObjectMapper mapper, FaultSettings faults) {
+        super(mapper, faults);
+    }
+
+    @Override
+    protected byte[] answer(JsonNode request) {
+        JsonNode variables = request.path("variables");
+        LocalDate from = dateVariable(variables, "fromDate");
+        LocalDate to = dateVariable(variables, "toDate");
+
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode data = root.putObject("data");
+        ArrayNode errors = mapper.createArrayNode();
+
+        Map<String, String> logins = aliases(variables);
+        for (Map.Entry<String, String> e : logins.entrySet()) {
+            String alias = e.getKey();
+            String login = e.getValue();
+            if (login.startsWith("missing-")) {
+                data.putNull(alias);
+                ObjectNode error = errors.addObject();
+                error.put("type", "NOT_FOUND");
+                error.putArray("path").add(alias);
+                error.put("message", "Could not resolve to a User with the login of '" + login + "'.");
+            } else {
+                writeUser(data.putObject(alias), login, from, to);
+            }
+        }
+
+        // Roughly what GitHub charges for this selection: one point per 25 users
+        int cost = 1 + logins.size() / 25;
+        data.putObject("rateLimit").put("cost", cost);
+        chargeQuota(cost);
+
+        if (!errors.isEmpty()) {
+            root.set("errors", errors);
+        }
+        return mapper.writeValueAsBytes(root);
+    }
+
+    @Override
+    protected void decorate(HttpExchange exchange, JsonNode request) {
+        synchronized (quotaLock) {
+            exchange.getResponseHeaders().add("X-RateLimit-Limit", Long.toString(faults.hourlyQuota()));
+            exchange.getResponseHeaders().add("X-RateLimit-Remaining",
+                    Long.toString(Math.max(0, faults.hourlyQuota() - quotaUsed)));
+            exchange.getResponseHeaders().add("X-RateLimit-Reset", Long.toString(quotaWindowStart + 3600));
+        }
+    }
+
+    @Override
+    protected boolean overQuota() {
+        synchronized (quotaLock) {
+            rollQuotaWindow();
+            return quotaUsed >= faults.hourlyQuota();
+        }
+    }
+
+    private void chargeQuota(int cost) {
+        synchronized (quotaLock) {
+            rollQuotaWindow();
+            quotaUsed += cost;
+        }
+    }
+
+    private void rollQuotaWindow() {
+        long hour = currentHour();
+        if (hour != quotaWindowStart) {
+            quotaWindowStart = hour;
+            quotaUsed = 0;
+        }
+    }
+
+    private static long currentHour() {
+        long now = Instant.now().getEpochSecond();
+        return now - now % 3600;
+    }
+
+    /** alias -> login: "user" for the single query, u0..uN for the batch. */
+    private static Map<String, String> aliases(JsonNode variables) {
+        if (variables.has("username")) {
+            return Map.of("user", variables.path("username").asString());
+        }
+        Map<String, String> logins = new LinkedHashMap<>();
+        for (int i = 0; variables.has("u" + i); i++) {
+            logins.put("u" + i, variables.path("u" + i).asString());
+        }
+        return logins;
+    }
+
+    private static LocalDate dateVariable(JsonNode variables, String name) {
+        String value = variables.path(name).asString(null);
+        if (value == null) {
+            return name.equals("toDate") ? LocalDate.now(ZoneOffset.UTC) : LocalDate.now(ZoneOffset.UTC).minusDays(7);
+        }
+        return OffsetDateTime.parse(value).toLocalDate();
+    }
+
+    private void writeUser(ObjectNode user, String login, LocalDate from, LocalDate to) {
+        Random random = new Random(login.hashCode());
+
+        user.put("name", "Load User " + login);
+        user.put("bio", "Synthetic profile for load testing");
+        user.put("company", "@nexus");
+        user.put("location", LOCATIONS[random.nextInt(LOCATIONS.length)]);
+        user.put("avatarUrl", "https://avatars.githubusercontent.com/u/" + Math.abs(login.hashCode()) + "?v=4");
+        user.put("websiteUrl", "https://" + login + ".example.dev");
+
+        ArrayNode social = user.putObject("socialAccounts").putArray("nodes");
+        social.addObject().put("provider", "LINKEDIN").put("url", "https://linkedin.com/in/" + login);
+        social.addObject().put("provider", "TWITTER").put("url", "https://twitter.com/" + login);
+
+        user.putObject("followers").put("totalCount", random.nextInt(2_000));
+        user.putObject("following").put("totalCount", random.nextInt(300));
+        user.putObject("allRepos").put("totalCount", 1 + random.nextInt(120));
+
+        writeContributions(user.putObject("contributionsCollection"), random, from, to);
+
+        ArrayNode recent = user.putObject("recentRepos").putArray("nodes");
+        for (int i = 0; i < 7; i++) {
+            ObjectNode repo = recent.addObject();
+            repo.put("name", login + "-repo-" + i);
+            repo.put("stargazerCount", random.nextInt(500));
+            repo.put("pushedAt", to.minusDays(i).atStartOfDay().toInstant(ZoneOffset.UTC).toString());
+            writeLanguage(repo, random);
+            ObjectNode commit = repo.putObject("defaultBranchRef").putObject("target")
+                    .putObject("history").putArray("nodes").addObject();
+            commit.put("message", "Update " + login + "-repo-" + i);
+            commit.put("committedDate", to.minusDays(i).atStartOfDay().toInstant(ZoneOffset.UTC).toString());
+        }
+
+        ArrayNode pinned = user.putObject("pinnedItems").putArray("nodes");
+        for (int i = 0; i < 6; i++) {
+            ObjectNode repo = pinned.addObject();
+            repo.put("name", login + "-pinned-" + i);
+            repo.put("description", "Pinned project " + i);
+            repo.put("stargazerCount", random.nextInt(1_000));
+            repo.put("forkCount", random.nextInt(100));
+            writeLanguage(repo, random);
+        }
+    }
+
+    private static void writeLanguage(ObjectNode repo, Random random) {
+        String[] language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+        repo.putObject("primaryLanguage").put("name", language[0]).put("color", language[1]);
+    }
+
+    /** Calendar weeks start on Sunday, as on GitHub. */
+    private static void writeContributions(ObjectNode collection, Random random, LocalDate from, LocalDate to) {
+        List<Integer> counts = new ArrayList<>();
+        int total = 0;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            int count = random.nextInt(4) == 0 ? 0 : random.nextInt(15);
+            counts.add(count);
+            total += count;
+        }
+
+        collection.put("totalCommitContributions", total * 2 / 3);
+        collection.put("totalPullRequestReviewContributions", total / 10);
+        collection.put("totalIssueContributions", total / 20);
+
+        ObjectNode calendar = collection.putObject("contributionCalendar");
+        calendar.put("totalContributions", total);
+        ArrayNode weeks = calendar.putArray("weeks");
+
+        ArrayNode week = null;
+        LocalDate day = from;
+        for (int count : counts) {
+            if (week == null || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                week = weeks.addObject().putArray("contributionDays");
+            }
+            week.addObject().put("contributionCount", count).put("date", day.toString());
+            day = day.plusDays(1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.rathaur.nexus.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.Random;
+
+/**
+ * Answers the LeetCode {@code getUserProfile} query. Values are derived from the username;
+ * usernames starting with {@code missing-} get {@code matchedUser: null}, like unknown users
+ * on leetcode.com.
+ */
+final class LeetCodeStandIn extends FaultInjectingHandler {
+
+    LeetCodeStandIn(ObjectMapper mapper, FaultSettings faults) {
+        super(mapper, faults);
+    }
+
+    @Override
+    protected byte[] answer(JsonNode request) {
+        String username = request.path("variables").path("username").asString("");
+
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode data = root.putObject("data");
+        if (username.isEmpty() || username.startsWith("missing-")) {
+            data.putNull("matchedUser");
+            return mapper.writeValueAsBytes(root);
+        }
+
+        Random random = new Random(username.hashCode());
+        int easy = random.nextInt(400);
+        int medium = random.nextInt(600);
+        int hard = random.nextInt(150);
+
+        ObjectNode user = data.putObject("matchedUser");
+        user.putObject("profile").put("ranking", 1 + random.nextInt(3_000_000));
+        ArrayNode solved = user.putObject("submitStats").putArray("acSubmissionNum");
+        addDifficulty(solved, "All", easy + medium + hard);
+        addDifficulty(solved, "Easy", easy);
+        addDifficulty(solved, "Medium", medium);
+        addDifficulty(solved, "Hard", hard);
+        return mapper.writeValueAsBytes(root);
+    }
+
+    private static void addDifficulty(ArrayNode solved, String difficulty, int count) {
+        solved.addObject().put("difficulty", difficulty).put("count", count);
+    }
+}
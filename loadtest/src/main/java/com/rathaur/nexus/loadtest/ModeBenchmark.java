@@ -0,0 +1,258 @@
+package com.rathaur.nexus.loadtest;
+
+import com.rathaur.nexus.common.security.JwtUtils;
+import com.rathaur.nexus.common.utils.SecurityConstants;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs the same workload against a blocking (servlet/JPA) and a reactive (Netty/R2DBC)
+ * stats-service and prints the results side by side: requests/s, latency percentiles and the
+ * server's live JVM thread count, sampled from /actuator/metrics while the workload runs.
+ * <p>
+ * Start both instances against the same database and the provider stand-ins, e.g.
+ * <pre>
+ * GITHUB_API_URL=http://localhost:9101 LEETCODE_API_URL=http://localhost:9102 java -jar stats-service.jar
+ * GITHUB_API_URL=http://localhost:9101 LEETCODE_API_URL=http://localhost:9102 \
+ *     SPRING_PROFILES_ACTIVE=reactive STATS_REACTIVE_PORT=8083 java -jar stats-service.jar
+ * mvn -f loadtest/pom.xml exec:java -Dexec.mainClass=com.rathaur.nexus.loadtest.ModeBenchmark \
+ *     -Dexec.args="--blocking=http://localhost:8082 --reactive=http://localhost:8083 --concurrency=256"
+ * </pre>
+ *
+ * Each run seeds {@code --users} (200) users with one sync, then issues {@code --requests} (5000)
+ * operations at {@code --concurrency} (64) after {@code --warmup} (500) unmeasured ones. An operation
+ * is a sync with probability {@code --sync-share} (0.1), otherwise a profile read (80%) or the
+ * top-10 leaderboard. The servlet sync answers 202 and is polled every {@code --poll-ms} (50)
+ * until done; the reactive one answers when done. Latency is client-observed in both modes.
+ */
+public final class ModeBenchmark {
+
+    private static final int MAX_ERROR_SAMPLES = 5;
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final JwtUtils jwt = new JwtUtils();
+
+    private final Duration pollInterval;
+
+    private ModeBenchmark(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /** Outcome of one mode's measured phase. */
+    private record Report(String mode, long ok, long errors, double seconds, long[] latenciesMs,
+                          long threadsBefore, long threadsMax) {
+
+        double throughput() {
+            return ok / seconds;
+        }
+
+        long p(double percentile) {
+            return latenciesMs.length == 0 ? 0 : SyncLoadDriver.percentile(latenciesMs, percentile);
+        }
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        int requests = args.integer("requests", 5_000);
+        int concurrency = args.integer("concurrency", 64);
+        int warmup = args.integer("warmup", 500);
+        int users = args.integer("users", 200);
+        double syncShare = args.decimal("sync-share", 0.1);
+
+        ModeBenchmark bench = new ModeBenchmark(args.millis("poll-ms", 50));
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        List<Report> reports = new ArrayList<>();
+        for (String mode : List.of("blocking", "reactive")) {
+            String target = trim(args.string(mode, mode.equals("blocking") ? "http://localhost:8082" : "http://localhost:8083"));
+            // Separate users per mode, so neither run reads rows the other one wrote
+            String prefix = "bench-" + runId + "-" + mode.charAt(0) + "-";
+
+            System.out.printf("NEXUS-BENCH: [%s] seeding %d users at %s%n", mode, users, target);
+            bench.run(target, users, concurrency, i -> bench.sync(target, prefix + i), null);
+
+            System.out.printf("NEXUS-BENCH: [%s] warmup %d operations%n", mode, warmup);
+            bench.run(target, warmup, concurrency, i -> bench.operation(target, prefix, users, syncShare), null);
+
+            System.out.printf("NEXUS-BENCH: [%s] measuring %d operations at concurrency %d%n", mode, requests, concurrency);
+            reports.add(bench.measure(mode, target, requests, concurrency,
+                    () -> bench.operation(target, prefix, users, syncShare)));
+        }
+
+        print(reports);
+    }
+
+    private Report measure(String mode, String target, int requests, int concurrency, Operation op) {
+        long threadsBefore = liveThreads(target);
+        AtomicLong threadsMax = new AtomicLong(threadsBefore);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> threadsMax.accumulateAndGet(liveThreads(target), Math::max),
+                0, 250, TimeUnit.MILLISECONDS);
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        try {
+            run(target, requests, concurrency, i -> op.call(), new Recorder(latencies, errors));
+        } finally {
+            sampler.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Report(mode, sorted.length, errors.sum(), seconds, sorted, threadsBefore, threadsMax.get());
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        boolean call() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface IndexedOperation {
+        boolean call(int i) throws Exception;
+    }
+
+    private record Recorder(ConcurrentLinkedQueue<Long> latencies, LongAdder errors) {
+    }
+
+    private void run(String target, int count, int concurrency, IndexedOperation op, Recorder recorder) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errorSamples = new AtomicInteger();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < count) {
+                        long begin = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = op.call(i);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            if (errorSamples.getAndIncrement() < MAX_ERROR_SAMPLES) {
+                                System.out.printf("NEXUS-BENCH: %s: %s%n", target, e);
+                            }
+                            ok = false;
+                        }
+                        if (recorder == null) continue;
+                        if (ok) {
+                            recorder.latencies().add((System.nanoTime() - begin) / 1_000_000);
+                        } else {
+                            recorder.errors().increment();
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private boolean operation(String target, String prefix, int users, double syncShare) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = prefix + random.nextInt(users);
+        if (random.nextDouble() < syncShare) {
+            return sync(target, username);
+        }
+        String path = random.nextInt(10) < 8 ? "/api/v1/stats/" + username : "/api/v1/stats/leaderboard?limit=10";
+        return send(target, path, null, HttpRequest.newBuilder().GET()).statusCode() == 200;
+    }
+
+    /** Sync one user to completion: 200 from the reactive stack, or 202 plus polling from the servlet one. */
+    private boolean sync(String target, String username) throws Exception {
+        String token = jwt.generateToken(Map.of(
+                SecurityConstants.CLAIM_ROLES, List.of("ROLE_USER"),
+                SecurityConstants.CLAIM_TOKEN_TYPE, SecurityConstants.TOKEN_TYPE_ACCESS), username, 3_600_000);
+
+        HttpResponse<byte[]> submitted = send(target,
+                "/api/v1/stats/sync?github=gh-" + username + "&leetcode=lc-" + username, token,
+                HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.noBody()));
+        if (submitted.statusCode() == 200) return true;
+        if (submitted.statusCode() != 202) return false;
+
+        String jobId = mapper.readTree(submitted.body()).path("data").path("jobId").asString();
+        Instant deadline = Instant.now().plusSeconds(120);
+        while (Instant.now().isBefore(deadline)) {
+            Thread.sleep(pollInterval);
+            HttpResponse<byte[]> polled = send(target, "/api/v1/stats/sync/" + jobId, token, HttpRequest.newBuilder().GET());
+            if (polled.statusCode() != 200) continue;
+            String state = mapper.readTree(polled.body()).path("data").path("state").asString();
+            if ("COMPLETED".equals(state)) return true;
+            if ("FAILED".equals(state)) return false;
+        }
+        return false;
+    }
+
+    private HttpResponse<byte[]> send(String target, String path, String token, HttpRequest.Builder request)
+            throws Exception {
+        request.uri(URI.create(target + path)).timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            request.header(SecurityConstants.AUTH_HEADER, SecurityConstants.BEARER + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private long liveThreads(String target) {
+        try {
+            HttpResponse<byte[]> response = send(target, "/actuator/metrics/jvm.threads.live", null,
+                    HttpRequest.newBuilder().GET());
+            JsonNode measurements = mapper.readTree(response.body()).path("measurements");
+            return measurements.isEmpty() ? 0 : measurements.get(0).path("value").asLong();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static void print(List<Report> reports) {
+        System.out.println();
+        System.out.printf("%-22s", "");
+        reports.forEach(r -> System.out.printf("%14s", r.mode()));
+        System.out.println();
+        row(reports, "ok / errors", r -> r.ok() + " / " + r.errors());
+        row(reports, "requests/s", r -> "%.1f".formatted(r.throughput()));
+        row(reports, "latency p50 ms", r -> Long.toString(r.p(50)));
+        row(reports, "latency p90 ms", r -> Long.toString(r.p(90)));
+        row(reports, "latency p99 ms", r -> Long.toString(r.p(99)));
+        row(reports, "server threads idle", r -> Long.toString(r.threadsBefore()));
+        row(reports, "server threads max", r -> Long.toString(r.threadsMax()));
+    }
+
+    private static void row(List<Report> reports, String label, Function<Report, String> value) {
+        System.out.printf("%-22s", label);
+        reports.forEach(r -> System.out.printf("%14s", value.apply(r)));
+        System.out.println();
+    }
+
+    private static String trim(String target) {
+        return target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+    }
+}
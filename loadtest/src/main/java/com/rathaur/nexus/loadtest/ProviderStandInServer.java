@@ -0,0 +1,94 @@
+package com.rathaur.nexus.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the GitHub and LeetCode GraphQL APIs, so the sync pipeline can be load
+ * tested offline. Start it, then run stats-service with
+ * {@code GITHUB_API_URL=http://localhost:9101 LEETCODE_API_URL=http://localhost:9102}.
+ *
+ * <pre>
+ * mvn -f loadtest/pom.xml exec:java -Dexec.args="--latency-ms=150 --jitter-ms=50 --error-rate=0.01 --throttle-rate=0.005"
+ * </pre>
+ *
+ * Options: {@code --github-port} (9101), {@code --leetcode-port} (9102), {@code --latency-ms} (150),
+ * {@code --jitter-ms} (50), {@code --error-rate} (0), {@code --throttle-rate} (0),
+ * {@code --retry-after-ms} (2000), {@code --github-quota} points per hour (1000000; 5000 is the real limit).
+ */
+public final class ProviderStandInServer implements AutoCloseable {
+
+    private final HttpServer github;
+    private final HttpServer leetcode;
+    private final ExecutorService requestThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final GitHubStandIn githubHandler;
+    private final LeetCodeStandIn leetcodeHandler;
+
+    private ProviderStandInServer(int githubPort, int leetcodePort, FaultSettings faults) throws IOException {
+        ObjectMapper mapper = JsonMapper.builder().build();
+        this.githubHandler = new GitHubStandIn(mapper, faults);
+        this.leetcodeHandler = new LeetCodeStandIn(mapper, faults);
+
+        this.github = HttpServer.create(new InetSocketAddress(githubPort), 1024);
+        github.createContext("/", githubHandler);
+        github.setExecutor(requestThreads);
+
+        this.leetcode = HttpServer.create(new InetSocketAddress(leetcodePort), 1024);
+        leetcode.createContext("/", leetcodeHandler);
+        leetcode.setExecutor(requestThreads);
+    }
+
+    public static ProviderStandInServer start(int githubPort, int leetcodePort, FaultSettings faults) throws IOException {
+        ProviderStandInServer server = new ProviderStandInServer(githubPort, leetcodePort, faults);
+        server.github.start();
+        server.leetcode.start();
+        return server;
+    }
+
+    public int githubPort() {
+        return github.getAddress().getPort();
+    }
+
+    public int leetcodePort() {
+        return leetcode.getAddress().getPort();
+    }
+
+    String summary() {
+        return "github ok=%d 5xx=%d 429=%d | leetcode ok=%d 5xx=%d 429=%d".formatted(
+                githubHandler.served.sum(), githubHandler.failed.sum(), githubHandler.throttled.sum(),
+                leetcodeHandler.served.sum(), leetcodeHandler.failed.sum(), leetcodeHandler.throttled.sum());
+    }
+
+    @Override
+    public void close() {
+        github.stop(0);
+        leetcode.stop(0);
+        requestThreads.shutdownNow();
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        FaultSettings faults = FaultSettings.from(args);
+        ProviderStandInServer server = start(args.integer("github-port", 9101), args.integer("leetcode-port", 9102), faults);
+
+        System.out.printf("NEXUS-STANDIN: GitHub on :%d, LeetCode on :%d (%s)%n",
+                server.githubPort(), server.leetcodePort(), faults);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> System.out.println("NEXUS-STANDIN: " + server.summary()),
+                10, 10, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            reporter.shutdownNow();
+            System.out.println("NEXUS-STANDIN: final " + server.summary());
+            server.close();
+        }));
+    }
+}
@@ -0,0 +1,189 @@
+package com.rathaur.nexus.loadtest;
+
+import com.rathaur.nexus.common.security.JwtUtils;
+import com.rathaur.nexus.common.utils.SecurityConstants;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Drives POST /api/v1/stats/sync against a running stats-service and reports sync throughput
+ * and latency. Each sync is submitted with an access token minted for its user, then its job is
+ * polled until COMPLETED or FAILED. Latency is the job's own submittedAt..finishedAt, so queue
+ * time is included and poll granularity is not. Against the {@code reactive} profile the sync
+ * answers 200 once it is done and latency is measured by the client instead.
+ *
+ * <pre>
+ * mvn -f loadtest/pom.xml exec:java -Dexec.mainClass=com.rathaur.nexus.loadtest.SyncLoadDriver \
+ *     -Dexec.args="--target=http://localhost:8082 --syncs=2000 --concurrency=64"
+ * </pre>
+ *
+ * Options: {@code --target} (http://localhost:8082), {@code --syncs} (1000), {@code --concurrency} (32),
+ * {@code --warmup} syncs excluded from the report (100), {@code --users} distinct users, 0 for one per
+ * sync (0), {@code --poll-ms} (100), {@code --timeout-ms} per sync (120000).
+ * With {@code --users} below {@code --syncs}, repeated users hit the coalescing and min-resync
+ * shortcuts instead of the providers, which measures a different path.
+ */
+public final class SyncLoadDriver {
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final JwtUtils jwt = new JwtUtils();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    private final String target;
+    private final Duration pollInterval;
+    private final Duration timeout;
+
+    private final ConcurrentLinkedQueue<Long> latenciesMs = new ConcurrentLinkedQueue<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private SyncLoadDriver(String target, Duration pollInterval, Duration timeout) {
+        this.target = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        this.pollInterval = pollInterval;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        int syncs = args.integer("syncs", 1_000);
+        int concurrency = args.integer("concurrency", 32);
+        int warmup = args.integer("warmup", 100);
+        int users = args.integer("users", 0);
+
+        SyncLoadDriver driver = new SyncLoadDriver(args.string("target", "http://localhost:8082"),
+                args.millis("poll-ms", 100), args.millis("timeout-ms", 120_000));
+
+        // Distinct users per run, so re-running does not land inside the min-resync window
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        System.out.printf("NEXUS-LOAD: warmup %d syncs%n", warmup);
+        driver.run(warmup, concurrency, i -> "warm-" + runId + "-" + i);
+        driver.reset();
+
+        System.out.printf("NEXUS-LOAD: measuring %d syncs at concurrency %d%n", syncs, concurrency);
+        long start = System.nanoTime();
+        driver.run(syncs, concurrency, i -> "load-" + runId + "-" + (users > 0 ? i % users : i));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        driver.report(seconds);
+    }
+
+    private void run(int syncs, int concurrency, IntFunction<String> userFor) {
+        AtomicInteger next = new AtomicInteger();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < syncs) {
+                        syncOnce(userFor.apply(i));
+                    }
+                });
+            }
+        }
+    }
+
+    private void syncOnce(String username) {
+        String token = tokens.computeIfAbsent(username, u -> jwt.generateToken(Map.of(
+                SecurityConstants.CLAIM_ROLES, List.of("ROLE_USER"),
+                SecurityConstants.CLAIM_TOKEN_TYPE, SecurityConstants.TOKEN_TYPE_ACCESS), u, 3_600_000));
+        try {
+            long begin = System.nanoTime();
+            HttpResponse<byte[]> submitted = http.send(request(token,
+                            "/api/v1/stats/sync?github=gh-" + username + "&leetcode=lc-" + username)
+                            .POST(HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (submitted.statusCode() == 429) {
+                rejected.increment();
+                return;
+            }
+            if (submitted.statusCode() == 200) {
+                // Reactive profile: the sync ran inline and is already persisted
+                latenciesMs.add((System.nanoTime() - begin) / 1_000_000);
+                completed.increment();
+                return;
+            }
+            if (submitted.statusCode() != 202) {
+                errors.increment();
+                return;
+            }
+
+            String jobId = mapper.readTree(submitted.body()).path("data").path("jobId").asString();
+            Instant deadline = Instant.now().plus(timeout);
+            while (Instant.now().isBefore(deadline)) {
+                Thread.sleep(pollInterval);
+                HttpResponse<byte[]> polled = http.send(request(token, "/api/v1/stats/sync/" + jobId).GET().build(),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                if (polled.statusCode() != 200) continue;
+
+                JsonNode job = mapper.readTree(polled.body()).path("data");
+                String state = job.path("state").asString();
+                if ("COMPLETED".equals(state) || "FAILED".equals(state)) {
+                    Instant submittedAt = Instant.parse(job.path("submittedAt").asString());
+                    Instant finishedAt = Instant.parse(job.path("finishedAt").asString());
+                    latenciesMs.add(Duration.between(submittedAt, finishedAt).toMillis());
+                    ("COMPLETED".equals(state) ? completed : failed).increment();
+                    return;
+                }
+            }
+            errors.increment(); // timed out
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            errors.increment();
+        }
+    }
+
+    private HttpRequest.Builder request(String token, String path) {
+        return HttpRequest.newBuilder(URI.create(target + path))
+                .timeout(Duration.ofSeconds(30))
+                .header(SecurityConstants.AUTH_HEADER, SecurityConstants.BEARER + token);
+    }
+
+    private void reset() {
+        latenciesMs.clear();
+        completed.reset();
+        failed.reset();
+        rejected.reset();
+        errors.reset();
+    }
+
+    private void report(double seconds) {
+        long[] sorted = latenciesMs.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("NEXUS-LOAD: %d completed, %d failed, %d rejected (429), %d errors in %.1fs%n",
+                completed.sum(), failed.sum(), rejected.sum(), errors.sum(), seconds);
+        System.out.printf("NEXUS-LOAD: throughput %.1f syncs/s%n", completed.sum() / seconds);
+        if (sorted.length > 0) {
+            System.out.printf("NEXUS-LOAD: latency ms p50=%d p90=%d p99=%d max=%d%n",
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[sorted.length - 1]);
+        }
+    }
+
+    /** Nearest-rank percentile of an ascending array. */
+    static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
@@ -0,0 +1,16 @@
+package com.rathaur.nexus.statsservice.client;
+
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
+
+import java.util.Map;
+
+/**
+ * Result of a batched GitHub GraphQL fetch, split back out per handle.
+ * Each handle appears in exactly one of the two maps.
+ *
+ * @param users  handle -> decoded user, as returned by {@link GitHubClient#fetchUserStats(String)}
+ * @param errors handle -> error message reported for that alias
+ */
+public record GitHubBatchResult(Map<String, GitHubUserSnapshot> users,
+                                Map<String, String> errors) {
+}
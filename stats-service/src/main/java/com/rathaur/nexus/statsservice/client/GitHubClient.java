@@ -1,13 +1,17 @@
 package com.rathaur.nexus.statsservice.client;
 
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
 import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -16,21 +20,53 @@ import java.util.*;
 @Component
 public class GitHubClient {
 
+    private static final Set<String> SINGLE_ALIAS = Set.of("user");
+
     private final WebClient webClient;
+    private final ProviderRateLimiter rateLimiter;
+    private final ProviderGuard guard;
+    private final ProviderResponseDecoder decoder;
 
     @Value("${github.api.token}")
     private String githubToken;
 
-    public GitHubClient(WebClient.Builder builder) {
-        this.webClient = builder
-                .baseUrl("https://api.github.com")
+    public GitHubClient(WebClient.Builder builder,
+                        @Qualifier("githubConnector") ClientHttpConnector connector,
+                        @Qualifier("githubRateLimiter") ProviderRateLimiter rateLimiter,
+                        @Qualifier("githubGuard") ProviderGuard guard,
+                        ProviderResponseDecoder decoder,
+                        @Value("${nexus.providers.github.base-url:https://api.github.com}") String baseUrl) {
+        this.rateLimiter = rateLimiter;
+        this.guard = guard;
+        this.decoder = decoder;
+        this.webClient = builder.clone()
+                .clientConnector(connector)
+                .baseUrl(baseUrl)
                 .defaultHeader("Accept", "application/json")
+                .filter(rateLimiter.responseObserver())
                 .build();
     }
 
-    public Map<String, Object> fetchUserStats(String githubUsername) {
+    public GitHubUserSnapshot fetchUserStats(String githubUsername) {
         log.info("NEXUS-SYNC: [BLOCKING] Starting GitHub fetch for: {}", githubUsername);
+        return fetchUserStatsAsync(githubUsername).block(); // FORCING BLOCKING BEHAVIOR
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchUserStats(String)}.
+     * Nothing is sent until the returned Mono is subscribed, so callers can compose it
+     * with other providers.
+     */
+    public Mono<GitHubUserSnapshot> fetchUserStatsAsync(String githubUsername) {
+        return fetchUserStatsAsync(githubUsername, null);
+    }
 
+    /**
+     * @param timeout deadline for the whole fetch, rate-limit permit wait included; a permit that
+     *                would be due later fails fast with ExternalProviderThrottledException.
+     *                {@code null} means no deadline.
+     */
+    public Mono<GitHubUserSnapshot> fetchUserStatsAsync(String githubUsername, Duration timeout) {
         // 1. Manual Date Calculation
         Instant now = Instant.now();
         String toDate = now.toString();
@@ -48,89 +84,180 @@ public class GitHubClient {
         body.put("query", query);
         body.put("variables", variables);
 
-        // 3. Blocking Execution
-        try {
-            Map<String, Object> response = webClient.post()
-                    .uri("/graphql")
-                    .header("Authorization", "Bearer " + githubToken)
-                    .bodyValue(body)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::isError, res -> {
-                        log.error("GITHUB-API-ERROR: Status Code {}", res.statusCode());
-                        return res.createException();
-                    })
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block(); // FORCING BLOCKING BEHAVIOR
-
-            if (response == null || !response.containsKey("data")) {
-                throw new RuntimeException("Empty response from GitHub");
-            }
+        // 3. Deferred Execution (queues for a rate-limit permit first)
+        return exchange(body, 1, timeout)
+                .map(bytes -> {
+                    ProviderResponseDecoder.GitHubResponse response = decoder.decodeGitHub(bytes, SINGLE_ALIAS);
+                    rateLimiter.recordCost(response.cost(), 1);
+
+                    GitHubUserSnapshot user = response.usersByAlias().get("user");
+                    if (user == null) {
+                        String reason = response.errorsByAlias().getOrDefault("user", response.documentError());
+                        throw new StatsDomainExceptions.DataParsingException(
+                                "User node not found in GitHub response" + (reason != null ? ": " + reason : ""));
+                    }
+
+                    log.info("NEXUS-SYNC: Successfully retrieved data for {}", githubUsername);
+                    return user;
+                })
+                .doOnError(e -> log.error("NEXUS-SYNC: CRITICAL FAILURE in GitHub sync: {}", e.getMessage(), e));
+    }
+
+    /**
+     * Fetches many users in ONE GraphQL round trip using aliased user(login:) selections.
+     * GitHub resolves each alias independently, so a missing or failing user only yields an
+     * error for its own alias; the rest of the batch is still returned.
+     *
+     * @param timeout deadline for the permit wait and the round trip together, as for
+     *                {@link #fetchUserStatsAsync(String, Duration)}
+     */
+    public Mono<GitHubBatchResult> fetchUsersBatchAsync(List<String> githubUsernames, Duration timeout) {
+        if (githubUsernames.isEmpty()) {
+            return Mono.just(new GitHubBatchResult(Map.of(), Map.of()));
+        }
+        log.info("NEXUS-SYNC: Starting batched GitHub fetch for {} users", githubUsernames.size());
+
+        Instant now = Instant.now();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("fromDate", now.minus(7, ChronoUnit.DAYS).toString());
+        variables.put("toDate", now.toString());
+        for (int i = 0; i < githubUsernames.size(); i++) {
+            variables.put("u" + i, githubUsernames.get(i));
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("query", getBatchQuery(githubUsernames.size()));
+        body.put("variables", variables);
+
+        return exchange(body, githubUsernames.size(), timeout)
+                .map(bytes -> splitBatchResponse(githubUsernames, bytes))
+                .doOnError(e -> log.error("NEXUS-SYNC: Batched GitHub fetch failed: {}", e.getMessage(), e));
+    }
+
+    /**
+     * Sends one GraphQL document after acquiring permits for {@code units} users, all within {@code timeout}.
+     * The body is returned undecoded so the streaming decoder can pick out only what it needs.
+     */
+    private Mono<byte[]> exchange(Map<String, Object> body, int units, Duration timeout) {
+        Mono<byte[]> call = Mono.defer(() -> webClient.post()
+                .uri("/graphql")
+                .header("Authorization", "Bearer " + githubToken)
+                .bodyValue(body)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, res -> {
+                    log.error("GITHUB-API-ERROR: Status Code {}", res.statusCode());
+                    if (res.statusCode().value() == 429) {
+                        return Mono.error(new StatsDomainExceptions.ExternalProviderThrottledException("GitHub throttled"));
+                    }
+                    return res.createException();
+                })
+                .bodyToMono(byte[].class));
 
-            Map<String, Object> data = (Map<String, Object>) response.get("data");
-            Map<String, Object> userNode = (Map<String, Object>) data.get("user");
+        return guard.protect(Mono.defer(() -> rateLimiter.acquire(units, timeout)), call, timeout)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response from GitHub")));
+    }
+
+    private GitHubBatchResult splitBatchResponse(List<String> handles, byte[] body) {
+        Set<String> aliases = new HashSet<>();
+        for (int i = 0; i < handles.size(); i++) {
+            aliases.add("u" + i);
+        }
 
-            if (userNode == null) {
-                throw new RuntimeException("User node not found in GitHub response");
+        ProviderResponseDecoder.GitHubResponse response = decoder.decodeGitHub(body, aliases);
+        rateLimiter.recordCost(response.cost(), handles.size());
+
+        Map<String, GitHubUserSnapshot> users = new HashMap<>();
+        Map<String, String> failed = new HashMap<>();
+        for (int i = 0; i < handles.size(); i++) {
+            String alias = "u" + i;
+            String handle = handles.get(i);
+            GitHubUserSnapshot user = response.usersByAlias().get(alias);
+
+            if (user != null) {
+                users.put(handle, user);
+            } else {
+                String reason = response.errorsByAlias().getOrDefault(alias,
+                        response.documentError() != null ? response.documentError() : "User node not found in GitHub response");
+                failed.put(handle, reason);
             }
+        }
 
-            log.info("NEXUS-SYNC: Successfully retrieved data for {}", githubUsername);
-            return Map.of("user", userNode);
+        log.info("NEXUS-SYNC: Batched GitHub fetch returned {} users, {} errors", users.size(), failed.size());
+        return new GitHubBatchResult(users, failed);
+    }
 
-        } catch (Exception e) {
-            log.error("NEXUS-SYNC: CRITICAL FAILURE in GitHub sync: {}", e.getMessage(), e);
-            throw e; // This will now show the REAL stack trace in your console
+    private String getBatchQuery(int size) {
+        StringBuilder params = new StringBuilder("$fromDate: DateTime!, $toDate: DateTime!");
+        StringBuilder selections = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            params.append(", $u").append(i).append(": String!");
+            selections.append("  u").append(i).append(": user(login: $u").append(i).append(") { ...NexusUserFields }\n");
         }
+        return "query(" + params + ") {\n" + selections + "  rateLimit { cost }\n}\n" + USER_FIELDS_FRAGMENT;
     }
 
     private String getQuery() {
         return """
         query($username: String!, $fromDate: DateTime!, $toDate: DateTime!) {
-          user(login: $username) {
-            name bio company location avatarUrl websiteUrl
-            socialAccounts(first: 5) { nodes { provider url } }
-            followers { totalCount }
-            following { totalCount }
-        
-            # --- ALIAS: allRepos to get the total 16 ---
-            allRepos: repositories(ownerAffiliations: OWNER) {
-              totalCount
-            }
+          user(login: $username) { ...NexusUserFields }
+          rateLimit { cost }
+        }
+        """ + USER_FIELDS_FRAGMENT;
+    }
 
-            contributionsCollection(from: $fromDate, to: $toDate) {
-              totalCommitContributions
-              totalPullRequestReviewContributions
-              totalIssueContributions
-              contributionCalendar {
-                totalContributions
-                weeks { contributionDays { contributionCount date } }
-              }
+    /**
+     * Field selection shared by the single-user and batched queries.
+     */
+    private static final String USER_FIELDS_FRAGMENT = """
+        fragment NexusUserFields on User {
+          name bio company location avatarUrl websiteUrl
+          socialAccounts(first: 5) { nodes { provider url } }
+          followers { totalCount }
+          following { totalCount }
+      
+          # --- ALIAS: allRepos to get the total 16 ---
+          allRepos: repositories(ownerAffiliations: OWNER) {
+            totalCount
+          }
+
+          # --- Scoring window ($fromDate..$toDate, the last 7 days) ---
+          contributionsCollection(from: $fromDate, to: $toDate) {
+            totalCommitContributions
+            totalPullRequestReviewContributions
+            totalIssueContributions
+            contributionCalendar { totalContributions }
+          }
+
+          # --- ALIAS: calendar for the day series; no range means the past year ---
+          calendar: contributionsCollection {
+            contributionCalendar {
+              weeks { contributionDays { contributionCount date } }
             }
+          }
 
-            # --- ALIAS: recentRepos for the nodes list ---
-            recentRepos: repositories(first: 7, ownerAffiliations: OWNER, orderBy: {field: PUSHED_AT, direction: DESC}) {
-              nodes {
-                name stargazerCount pushedAt
-                primaryLanguage { name color }
-                defaultBranchRef {
-                  target {
-                    ... on Commit {
-                      history(first: 1) { nodes { message committedDate } }
-                    }
+          # --- ALIAS: recentRepos for the nodes list ---
+          recentRepos: repositories(first: 7, ownerAffiliations: OWNER, orderBy: {field: PUSHED_AT, direction: DESC}) {
+            nodes {
+              name stargazerCount pushedAt
+              primaryLanguage { name color }
+              defaultBranchRef {
+                target {
+                  ... on Commit {
+                    history(first: 1) { nodes { message committedDate } }
                   }
                 }
               }
             }
-            
-            pinnedItems(first: 6, types: REPOSITORY) {
-              nodes {
-                ... on Repository {
-                  name description stargazerCount forkCount
-                  primaryLanguage { name color }
-                }
+          }
+          
+          pinnedItems(first: 6, types: REPOSITORY) {
+            nodes {
+              ... on Repository {
+                name description stargazerCount forkCount
+                primaryLanguage { name color }
               }
             }
           }
         }
         """;
-    }
-}
\ No newline at end of file
+}
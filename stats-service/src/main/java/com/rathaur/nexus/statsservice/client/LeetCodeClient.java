@@ -1,13 +1,17 @@
 package com.rathaur.nexus.statsservice.client;
 
+import com.rathaur.nexus.statsservice.client.model.LeetCodeUserSnapshot;
 import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -17,18 +21,7 @@ import java.util.Map;
 @Component
 public class LeetCodeClient {
 
-    private final WebClient webClient;
-
-    public LeetCodeClient(WebClient.Builder builder) {
-        this.webClient = builder
-                .baseUrl("https://leetcode.com")
-                .defaultHeader("Content-Type", "application/json")
-                .defaultHeader("Referer", "https://leetcode.com")
-                .build();
-    }
-
-    public Map<String, Object> fetchUserStats(String leetcodeUsername) {
-        String query = """
+    private static final String USER_PROFILE_QUERY = """
             query getUserProfile($username: String!) {
               matchedUser(username: $username) {
                 profile {
@@ -44,39 +37,68 @@ public class LeetCodeClient {
             }
             """;
 
-        log.info("LEETCODE-CLIENT: [SYNC] Preparing query for {}", leetcodeUsername);
+    private final WebClient webClient;
+    private final ProviderRateLimiter rateLimiter;
+    private final ProviderGuard guard;
+    private final ProviderResponseDecoder decoder;
 
-        try {
-            // Using .block() to make the reactive call synchronous for debugging
-            Map<String, Object> response = webClient.post()
-                    .uri("/graphql")
-                    .bodyValue(Map.of(
-                            "query", query,
-                            "variables", Map.of("username", leetcodeUsername)
-                    ))
-                    .retrieve()
-                    .onStatus(status -> status.value() == 429, res ->
-                            res.createException().flatMap(e -> Mono.error(new StatsDomainExceptions.ExternalProviderThrottledException("Throttled"))))
-                    .onStatus(HttpStatusCode::isError, res ->
-                            res.createException().flatMap(e -> Mono.error(new StatsDomainExceptions.SyncServiceException("API Error"))))
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block(); // <--- BLOCKING HERE
+    public LeetCodeClient(WebClient.Builder builder,
+                          @Qualifier("leetcodeConnector") ClientHttpConnector connector,
+                          @Qualifier("leetcodeRateLimiter") ProviderRateLimiter rateLimiter,
+                          @Qualifier("leetcodeGuard") ProviderGuard guard,
+                          ProviderResponseDecoder decoder,
+                          @Value("${nexus.providers.leetcode.base-url:https://leetcode.com}") String baseUrl) {
+        this.rateLimiter = rateLimiter;
+        this.guard = guard;
+        this.decoder = decoder;
+        this.webClient = builder.clone()
+                .clientConnector(connector)
+                .baseUrl(baseUrl)
+                .defaultHeader("Content-Type", "application/json")
+                .defaultHeader("Referer", baseUrl)
+                .filter(rateLimiter.responseObserver())
+                .build();
+    }
 
-            if (response == null || response.get("data") == null) {
-                throw new StatsDomainExceptions.DataParsingException("LeetCode returned empty data");
-            }
+    public LeetCodeUserSnapshot fetchUserStats(String leetcodeUsername) {
+        log.info("LEETCODE-CLIENT: [SYNC] Preparing query for {}", leetcodeUsername);
+        return fetchUserStatsAsync(leetcodeUsername).block(); // <--- BLOCKING HERE
+    }
 
-            Map<String, Object> data = (Map<String, Object>) response.get("data");
-            if (data.get("matchedUser") == null) {
-                throw new StatsDomainExceptions.DataParsingException("LeetCode user not found: " + leetcodeUsername);
-            }
+    /**
+     * Non-blocking variant of {@link #fetchUserStats(String)}.
+     * The request is only sent once the returned Mono is subscribed.
+     */
+    public Mono<LeetCodeUserSnapshot> fetchUserStatsAsync(String leetcodeUsername) {
+        return fetchUserStatsAsync(leetcodeUsername, null);
+    }
 
-            log.info("LEETCODE-CLIENT: Data fetched successfully for {}", leetcodeUsername);
-            return data;
+    /**
+     * @param timeout deadline for the whole fetch, rate-limit permit wait (including 429 backoff)
+     *                included; a permit that would be due later fails fast with
+     *                ExternalProviderThrottledException. {@code null} means no deadline.
+     */
+    public Mono<LeetCodeUserSnapshot> fetchUserStatsAsync(String leetcodeUsername, Duration timeout) {
+        Mono<byte[]> call = Mono.defer(() -> webClient.post()
+                .uri("/graphql")
+                .bodyValue(Map.of(
+                        "query", USER_PROFILE_QUERY,
+                        "variables", Map.of("username", leetcodeUsername)
+                ))
+                .retrieve()
+                .onStatus(status -> status.value() == 429, res ->
+                        res.createException().flatMap(e -> Mono.error(new StatsDomainExceptions.ExternalProviderThrottledException("Throttled"))))
+                .onStatus(HttpStatusCode::isError, res ->
+                        res.createException().flatMap(e -> Mono.error(new StatsDomainExceptions.SyncServiceException("API Error"))))
+                .bodyToMono(byte[].class));
 
-        } catch (Exception e) {
-            log.error("LEETCODE-CLIENT: Error during fetch: {}", e.getMessage(), e);
-            throw e;
-        }
+        return guard.protect(Mono.defer(() -> rateLimiter.acquire(1, timeout)), call, timeout)
+                .switchIfEmpty(Mono.error(() -> new StatsDomainExceptions.DataParsingException("LeetCode returned empty data")))
+                .map(bytes -> {
+                    LeetCodeUserSnapshot user = decoder.decodeLeetCode(bytes, leetcodeUsername);
+                    log.info("LEETCODE-CLIENT: Data fetched successfully for {}", leetcodeUsername);
+                    return user;
+                })
+                .doOnError(e -> log.error("LEETCODE-CLIENT: Error during fetch: {}", e.getMessage(), e));
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.rathaur.nexus.statsservice.client;
+
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Per-provider circuit breaker and bulkhead around outbound HTTP calls.
+ * <ul>
+ *   <li>The breaker measures only the HTTP exchange, so time queued for a rate-limit permit never
+ *       counts as a slow call. An open breaker is checked before the permit is taken, so rejected
+ *       calls fail immediately without consuming a token.</li>
+ *   <li>The bulkhead wraps only the HTTP exchange. When the provider already has
+ *       {@code max-concurrent-calls} requests open, a call waits for a slot for up to the
+ *       bulkhead's {@code maxWaitDuration} (and never past its own deadline), then fails. The
+ *       exchange is not started until the call holds a slot.</li>
+ * </ul>
+ * Both rejections surface as {@link StatsDomainExceptions.ProviderUnavailableException} (HTTP 503).
+ *
+ * @author Tanuj Singh Rathaur
+ */
+public class ProviderGuard {
+
+    // The Reactor bulkhead operator only tries for a slot, so a bounded wait is polled
+    private static final Duration SLOT_POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final String provider;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ProviderGuard(String provider, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.provider = provider;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * @param permit rate-limit permit acquisition, subscribed before the exchange
+     * @param call   the HTTP exchange itself
+     */
+    public <T> Mono<T> protect(Mono<?> permit, Mono<T> call) {
+        return guarded(permit, call, this::maxSlotWait);
+    }
+
+    /**
+     * Like {@link #protect(Mono, Mono)}, with one deadline over the permit wait, the bulkhead wait
+     * and the exchange together: the permit is expected to fail fast when it would exceed the
+     * deadline ({@link ProviderRateLimiter#acquire(int, Duration)}), the slot wait is cut to what
+     * the permit left of it, and the exchange times out after whatever remains. {@code null}
+     * means no deadline.
+     */
+    public <T> Mono<T> protect(Mono<?> permit, Mono<T> call, Duration deadline) {
+        if (deadline == null) {
+            return protect(permit, call);
+        }
+        return Mono.defer(() -> {
+            long expiresAt = System.nanoTime() + deadline.toNanos();
+            return guarded(permit,
+                    Mono.defer(() -> call.timeout(Duration.ofNanos(Math.max(1, expiresAt - System.nanoTime())))),
+                    () -> min(maxSlotWait(), Duration.ofNanos(Math.max(0, expiresAt - System.nanoTime()))));
+        });
+    }
+
+    private <T> Mono<T> guarded(Mono<?> permit, Mono<T> call, Supplier<Duration> slotWait) {
+        return Mono.defer(() -> isOpen()
+                        ? Mono.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker))
+                        : permit)
+                .then(Mono.defer(() -> call
+                        .transformDeferred(BulkheadOperator.of(bulkhead))
+                        // A full bulkhead rejects on subscribe, before the exchange starts, so retrying is safe
+                        .retryWhen(waitForSlot(slotWait.get()))
+                        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))))
+                .onErrorMap(CallNotPermittedException.class, e -> new StatsDomainExceptions.ProviderUnavailableException(
+                        provider + " is temporarily unavailable (circuit open)"))
+                .onErrorMap(BulkheadFullException.class, e -> new StatsDomainExceptions.ProviderUnavailableException(
+                        provider + " has too many calls in flight"));
+    }
+
+    private static Retry waitForSlot(Duration maxWait) {
+        return Retry.fixedDelay(maxWait.toMillis() / SLOT_POLL_INTERVAL.toMillis(), SLOT_POLL_INTERVAL)
+                .filter(BulkheadFullException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private Duration maxSlotWait() {
+        return bulkhead.getBulkheadConfig().getMaxWaitDuration();
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private boolean isOpen() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead bulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,268 @@
+package com.rathaur.nexus.statsservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Token-bucket limiter for one external provider.
+ * <p>
+ * Callers never fail on an empty bucket: {@link #acquire(int)} reserves the permits (the bucket
+ * may go negative) and returns a Mono that completes once the reservation is due, so callers
+ * queue in arrival order. A caller with a deadline ({@link #acquire(int, Duration)}) is rejected
+ * up front instead when its turn would come too late. The bucket adapts to the provider:
+ * <ul>
+ *   <li>GitHub: the refill rate is re-derived from {@code X-RateLimit-Remaining} /
+ *       {@code X-RateLimit-Reset} so the remaining quota is spread evenly until reset, and the
+ *       permits charged per request follow the observed GraphQL cost.</li>
+ *   <li>LeetCode (no quota headers): a 429 pauses the bucket with exponential backoff and jitter;
+ *       the next successful response resets the backoff.</li>
+ * </ul>
+ * State is exported as Micrometer gauges tagged with the provider name.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+public class ProviderRateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String provider;
+    private final double capacity;
+    private final double configuredRefillPerSecond;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    // Monotonic time for the bucket, wall time for the provider's reset timestamps
+    private final LongSupplier nanoTime;
+    private final Clock clock;
+
+    private double tokens;
+    private double refillPerSecond;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private int consecutiveThrottles;
+    private long reportedRemaining = -1;
+    private double costPerUnit = 1.0;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter throttled;
+    private final Counter rejected;
+
+    public ProviderRateLimiter(String provider, int requestsPerMinute, int burst,
+                               Duration baseBackoff, Duration maxBackoff, MeterRegistry meterRegistry) {
+        this(provider, requestsPerMinute, burst, baseBackoff, maxBackoff, meterRegistry, System::nanoTime, Clock.systemUTC());
+    }
+
+    ProviderRateLimiter(String provider, int requestsPerMinute, int burst, Duration baseBackoff, Duration maxBackoff,
+                        MeterRegistry meterRegistry, LongSupplier nanoTime, Clock clock) {
+        this.provider = provider;
+        this.capacity = Math.max(1, burst);
+        this.configuredRefillPerSecond = Math.max(1, requestsPerMinute) / 60.0;
+        this.refillPerSecond = configuredRefillPerSecond;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.nanoTime = nanoTime;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoTime.getAsLong();
+
+        Gauge.builder("nexus.ratelimit.tokens", this, l -> l.snapshot(ProviderRateLimiter::availableTokens))
+                .tag("provider", provider).description("Permits currently available").register(meterRegistry);
+        Gauge.builder("nexus.ratelimit.refill.rate", this, l -> l.snapshot(x -> x.refillPerSecond))
+                .tag("provider", provider).baseUnit("permits/s").register(meterRegistry);
+        Gauge.builder("nexus.ratelimit.waiting", waiting, AtomicInteger::get)
+                .tag("provider", provider).description("Callers queued for a permit").register(meterRegistry);
+        Gauge.builder("nexus.ratelimit.paused", this, l -> l.snapshot(ProviderRateLimiter::pausedSeconds))
+                .tag("provider", provider).baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("nexus.ratelimit.remaining", this, l -> l.snapshot(x -> x.reportedRemaining))
+                .tag("provider", provider).description("Quota remaining as reported by the provider (-1 if unknown)")
+                .register(meterRegistry);
+        this.throttled = Counter.builder("nexus.ratelimit.throttled")
+                .tag("provider", provider).description("Responses rejected by the provider with 429/403")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("nexus.ratelimit.rejected")
+                .tag("provider", provider).description("Calls failed fast because their permit was due after their deadline")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves permits for {@code units} logical calls (e.g. users in a GraphQL batch), scaled by
+     * the observed cost per unit. Completes immediately when the bucket has capacity, otherwise
+     * after the caller's turn comes up.
+     */
+    public Mono<Void> acquire(int units) {
+        return acquire(units, null);
+    }
+
+    /**
+     * Like {@link #acquire(int)}, but never waits longer than {@code maxWait}: when the permit
+     * would only be due later (queue, 429 backoff or quota reset pause), nothing is reserved and
+     * the Mono fails right away with {@link StatsDomainExceptions.ExternalProviderThrottledException}.
+     * {@code null} waits as long as needed.
+     */
+    public Mono<Void> acquire(int units, Duration maxWait) {
+        long waitNanos = reserve(units, maxWait != null ? maxWait.toNanos() : Long.MAX_VALUE);
+        if (waitNanos < 0) {
+            rejected.increment();
+            log.debug("NEXUS-RATELIMIT: [{}] next permit is more than {} away, rejecting", provider, maxWait);
+            return Mono.error(new StatsDomainExceptions.ExternalProviderThrottledException(
+                    provider + " is rate limited; no permit within " + maxWait));
+        }
+        if (waitNanos == 0) {
+            return Mono.empty();
+        }
+        waiting.incrementAndGet();
+        log.debug("NEXUS-RATELIMIT: [{}] queued for {} ms", provider, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        return Mono.delay(Duration.ofNanos(waitNanos))
+                .doFinally(signal -> waiting.decrementAndGet())
+                .then();
+    }
+
+    /**
+     * Response hook: adapts the bucket from the provider's quota headers and throttling responses.
+     */
+    public ExchangeFilterFunction responseObserver() {
+        return ExchangeFilterFunction.ofResponseProcessor(response -> {
+            onResponse(response.statusCode(), response.headers().asHttpHeaders());
+            return Mono.just(response);
+        });
+    }
+
+    /**
+     * Feeds back the GraphQL {@code rateLimit.cost} of a request covering {@code units} calls.
+     */
+    public synchronized void recordCost(int cost, int units) {
+        if (cost <= 0 || units <= 0) return;
+        // Smooth the estimate so one expensive batch does not swing the next reservation
+        costPerUnit = 0.8 * costPerUnit + 0.2 * ((double) cost / units);
+    }
+
+    /**
+     * @return nanoseconds until the reserved permits are due, or -1 (nothing reserved) when that
+     *         is more than {@code maxWaitNanos}
+     */
+    synchronized long reserve(int units, long maxWaitNanos) {
+        long now = nanoTime.getAsLong();
+        refill(now);
+
+        double permits = Math.max(1.0, units * costPerUnit);
+        tokens -= permits;
+
+        long pauseNanos = Math.max(0, pausedUntilNanos - now);
+        long deficitNanos = tokens >= 0 ? 0 : (long) (-tokens / refillPerSecond * NANOS_PER_SECOND);
+        long waitNanos = pauseNanos + deficitNanos;
+        if (waitNanos > maxWaitNanos) {
+            tokens += permits;
+            return -1;
+        }
+        return waitNanos;
+    }
+
+    synchronized void onResponse(HttpStatusCode status, HttpHeaders headers) {
+        long now = nanoTime.getAsLong();
+        refill(now);
+
+        if (status.value() == 429 || (status.value() == 403 && headers.getFirst("Retry-After") != null)) {
+            throttled.increment();
+            consecutiveThrottles++;
+            long pauseNanos = retryAfterNanos(headers);
+            if (pauseNanos <= 0) {
+                pauseNanos = backoffNanos(consecutiveThrottles);
+            }
+            pausedUntilNanos = Math.max(pausedUntilNanos, now + pauseNanos);
+            tokens = Math.min(tokens, 0);
+            log.warn("NEXUS-RATELIMIT: [{}] throttled ({}), pausing {} ms", provider, status.value(),
+                    TimeUnit.NANOSECONDS.toMillis(pauseNanos));
+            return;
+        }
+
+        if (status.is2xxSuccessful()) {
+            consecutiveThrottles = 0;
+        }
+        adaptFromQuotaHeaders(headers, now);
+    }
+
+    private void adaptFromQuotaHeaders(HttpHeaders headers, long now) {
+        String remainingHeader = headers.getFirst("X-RateLimit-Remaining");
+        String resetHeader = headers.getFirst("X-RateLimit-Reset");
+        if (remainingHeader == null || resetHeader == null) return;
+
+        try {
+            long remaining = Long.parseLong(remainingHeader.trim());
+            long resetEpochSeconds = Long.parseLong(resetHeader.trim());
+            long secondsUntilReset = Math.max(1, resetEpochSeconds - clock.millis() / 1000);
+            reportedRemaining = remaining;
+
+            if (remaining <= 0) {
+                pausedUntilNanos = Math.max(pausedUntilNanos, now + secondsUntilReset * NANOS_PER_SECOND);
+                tokens = Math.min(tokens, 0);
+                log.warn("NEXUS-RATELIMIT: [{}] quota exhausted, pausing {}s until reset", provider, secondsUntilReset);
+                return;
+            }
+
+            // Spread what is left evenly over the window, never faster than configured
+            refillPerSecond = Math.min(configuredRefillPerSecond, (double) remaining / secondsUntilReset);
+            refillPerSecond = Math.max(refillPerSecond, 1.0 / secondsUntilReset);
+            tokens = Math.min(tokens, remaining);
+        } catch (NumberFormatException e) {
+            log.debug("NEXUS-RATELIMIT: [{}] unparseable quota headers: {} / {}", provider, remainingHeader, resetHeader);
+        }
+    }
+
+    private long retryAfterNanos(HttpHeaders headers) {
+        String retryAfter = headers.getFirst("Retry-After");
+        if (retryAfter == null) return 0;
+        try {
+            return Long.parseLong(retryAfter.trim()) * NANOS_PER_SECOND;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private long backoffNanos(int attempt) {
+        long base = baseBackoff.toNanos() << Math.min(attempt - 1, 16);
+        long capped = Math.min(base, maxBackoff.toNanos());
+        // Full jitter in [50%, 150%) so parallel callers do not retry in lockstep
+        double jitter = 0.5 + ThreadLocalRandom.current().nextDouble();
+        return (long) (capped * jitter);
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerSecond / NANOS_PER_SECOND);
+            lastRefillNanos = now;
+        }
+    }
+
+    private double availableTokens() {
+        refill(nanoTime.getAsLong());
+        return tokens;
+    }
+
+    private double pausedSeconds() {
+        return Math.max(0, pausedUntilNanos - nanoTime.getAsLong()) / (double) NANOS_PER_SECOND;
+    }
+
+    private synchronized double snapshot(ToDoubleFunction<ProviderRateLimiter> reader) {
+        return reader.applyAsDouble(this);
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
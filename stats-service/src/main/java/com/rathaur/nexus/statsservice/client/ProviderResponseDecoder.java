@@ -0,0 +1,395 @@
+package com.rathaur.nexus.statsservice.client;
+
+import com.rathaur.nexus.statsservice.client.model.ContributionDay;
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
+import com.rathaur.nexus.statsservice.client.model.LeetCodeUserSnapshot;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming decoder for provider GraphQL responses.
+ * <p>
+ * Walks the raw bytes with a Jackson {@link JsonParser} and keeps only the handful of numbers
+ * scoring and the quick summary need, plus the contribution calendar's day cells; everything
+ * else (repo history, pinned items, social accounts) is skipped without being materialized. The full payload is
+ * only built as a Map when {@code nexus.sync.keep-raw-telemetry=true}.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Component
+public class ProviderResponseDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${nexus.sync.keep-raw-telemetry:false}")
+    private boolean keepRawTelemetry;
+
+    public ProviderResponseDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decoded GitHub envelope. Users and errors are keyed by the alias they were selected under
+     * ("user" for the single query, "u0".."uN" for batches).
+     */
+    public record GitHubResponse(Map<String, GitHubUserSnapshot> usersByAlias,
+                                 Map<String, String> errorsByAlias,
+                                 String documentError,
+                                 int cost) {
+    }
+
+    public GitHubResponse decodeGitHub(byte[] body, Set<String> aliases) {
+        Map<String, GitHubUserSnapshot> users = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        String documentError = null;
+        int cost = 0;
+
+        try (JsonParser p = objectMapper.createParser(body)) {
+            expect(p.nextToken(), JsonToken.START_OBJECT);
+            while (p.nextToken() != JsonToken.END_OBJECT) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+
+                if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (p.nextToken() != JsonToken.END_OBJECT) {
+                        String alias = p.currentName();
+                        JsonToken node = p.nextToken();
+                        if (aliases.contains(alias) && node == JsonToken.START_OBJECT) {
+                            users.put(alias, readGitHubUser(p));
+                        } else if ("rateLimit".equals(alias) && node == JsonToken.START_OBJECT) {
+                            cost = readIntField(p, "cost");
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                } else if ("errors".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        GraphQlError error = readError(p);
+                        if (error.alias() != null) {
+                            errors.putIfAbsent(error.alias(), error.message());
+                        } else if (documentError == null) {
+                            documentError = error.message();
+                        }
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new StatsDomainExceptions.DataParsingException("Malformed GitHub response: " + e.getMessage());
+        }
+
+        if (keepRawTelemetry && !users.isEmpty()) {
+            users = attachRawTelemetry(body, users);
+        }
+        return new GitHubResponse(users, errors, documentError, cost);
+    }
+
+    public LeetCodeUserSnapshot decodeLeetCode(byte[] body, String leetcodeUsername) {
+        Integer ranking = null;
+        int total = 0, easy = 0, medium = 0, hard = 0;
+        boolean matched = false;
+
+        try (JsonParser p = objectMapper.createParser(body)) {
+            expect(p.nextToken(), JsonToken.START_OBJECT);
+            while (p.nextToken() != JsonToken.END_OBJECT) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if (!"data".equals(field) || value != JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    continue;
+                }
+                while (p.nextToken() != JsonToken.END_OBJECT) {
+                    String dataField = p.currentName();
+                    JsonToken node = p.nextToken();
+                    if (!"matchedUser".equals(dataField) || node != JsonToken.START_OBJECT) {
+                        p.skipChildren();
+                        continue;
+                    }
+                    matched = true;
+                    while (p.nextToken() != JsonToken.END_OBJECT) {
+                        String userField = p.currentName();
+                        JsonToken userValue = p.nextToken();
+                        if ("profile".equals(userField) && userValue == JsonToken.START_OBJECT) {
+                            ranking = readIntField(p, "ranking");
+                        } else if ("submitStats".equals(userField) && userValue == JsonToken.START_OBJECT) {
+                            while (p.nextToken() != JsonToken.END_OBJECT) {
+                                String statsField = p.currentName();
+                                JsonToken statsValue = p.nextToken();
+                                if (!"acSubmissionNum".equals(statsField) || statsValue != JsonToken.START_ARRAY) {
+                                    p.skipChildren();
+                                    continue;
+                                }
+                                while (p.nextToken() == JsonToken.START_OBJECT) {
+                                    String difficulty = null;
+                                    int count = 0;
+                                    while (p.nextToken() != JsonToken.END_OBJECT) {
+                                        String entryField = p.currentName();
+                                        p.nextToken();
+                                        if ("difficulty".equals(entryField)) difficulty = p.getValueAsString();
+                                        else if ("count".equals(entryField)) count = p.getValueAsInt();
+                                        else p.skipChildren();
+                                    }
+                                    if ("All".equals(difficulty)) total = count;
+                                    else if ("Easy".equals(difficulty)) easy = count;
+                                    else if ("Medium".equals(difficulty)) medium = count;
+                                    else if ("Hard".equals(difficulty)) hard = count;
+                                }
+                            }
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new StatsDomainExceptions.DataParsingException("Malformed LeetCode response: " + e.getMessage());
+        }
+
+        if (!matched) {
+            throw new StatsDomainExceptions.DataParsingException("LeetCode user not found: " + leetcodeUsername);
+        }
+
+        Map<String, Object> raw = null;
+        if (keepRawTelemetry) {
+            Map<String, Object> tree = readTree(body);
+            raw = (Map<String, Object>) tree.get("data");
+        }
+        return new LeetCodeUserSnapshot(ranking, total, easy, medium, hard, raw);
+    }
+
+    private GitHubUserSnapshot readGitHubUser(JsonParser p) {
+        int totalRepos = 0;
+        String location = null;
+        RecentRepos recent = RecentRepos.EMPTY;
+        Contributions contributions = Contributions.EMPTY;
+        Contributions calendar = Contributions.EMPTY;
+
+        while (p.nextToken() != JsonToken.END_OBJECT) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("location".equals(field) && value == JsonToken.VALUE_STRING) {
+                location = p.getValueAsString();
+                continue;
+            }
+            if (value != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "allRepos" -> totalRepos = readIntField(p, "totalCount");
+                case "recentRepos" -> recent = readRecentRepos(p);
+                case "contributionsCollection" -> contributions = readContributions(p);
+                case "calendar" -> calendar = readContributions(p);
+                default -> p.skipChildren();
+            }
+        }
+        // The scoring window only reports its total; the day cells come from the year-long calendar alias
+        return new GitHubUserSnapshot(totalRepos, recent.stars(), contributions.total(), calendar.days(),
+                location, recent.languages(), null);
+    }
+
+    private record RecentRepos(int stars, List<String> languages) {
+        static final RecentRepos EMPTY = new RecentRepos(0, List.of());
+    }
+
+    /**
+     * recentRepos { nodes [ { stargazerCount, primaryLanguage { name } ... } ] }
+     * -> sum of stars, and distinct primary languages, most frequent first.
+     */
+    private RecentRepos readRecentRepos(JsonParser p) {
+        int stars = 0;
+        Map<String, Integer> languageCounts = new LinkedHashMap<>();
+        while (p.nextToken() != JsonToken.END_OBJECT) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (!"nodes".equals(field) || value != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                continue;
+            }
+            JsonToken node;
+            while ((node = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (node != JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    continue;
+                }
+                while (p.nextToken() != JsonToken.END_OBJECT) {
+                    String repoField = p.currentName();
+                    JsonToken repoValue = p.nextToken();
+                    if ("stargazerCount".equals(repoField) && repoValue.isNumeric()) {
+                        stars += p.getValueAsInt();
+                    } else if ("primaryLanguage".equals(repoField) && repoValue == JsonToken.START_OBJECT) {
+                        String language = readStringField(p, "name");
+                        if (language != null) languageCounts.merge(language, 1, Integer::sum);
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            }
+        }
+
+        // Stable sort keeps the most recently pushed language first among equal counts
+        List<String> languages = new ArrayList<>(languageCounts.keySet());
+        languages.sort(Comparator.comparing(languageCounts::get).reversed());
+        return new RecentRepos(stars, languages);
+    }
+
+    private record Contributions(int total, List<ContributionDay> days) {
+        static final Contributions EMPTY = new Contributions(0, List.of());
+    }
+
+    /** contributionsCollection { contributionCalendar { totalContributions?, weeks? [...] } } */
+    private Contributions readContributions(JsonParser p) {
+        Contributions result = Contributions.EMPTY;
+        while (p.nextToken() != JsonToken.END_OBJECT) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("contributionCalendar".equals(field) && value == JsonToken.START_OBJECT) {
+                result = readCalendar(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    /** contributionCalendar { totalContributions, weeks [ { contributionDays [ { contributionCount, date } ] } ] } */
+    private Contributions readCalendar(JsonParser p) {
+        int total = 0;
+        List<ContributionDay> days = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_OBJECT) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("totalContributions".equals(field) && value.isNumeric()) {
+                total = p.getValueAsInt();
+            } else if ("weeks".equals(field) && value == JsonToken.START_ARRAY) {
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    readWeek(p, days);
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new Contributions(total, days);
+    }
+
+    private void readWeek(JsonParser p, List<ContributionDay> into) {
+        while (p.nextToken() != JsonToken.END_OBJECT) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (!"contributionDays".equals(field) || value != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                String date = null;
+                int count = 0;
+                while (p.nextToken() != JsonToken.END_OBJECT) {
+                    String dayField = p.currentName();
+                    JsonToken dayValue = p.nextToken();
+                    if ("date".equals(dayField) && dayValue == JsonToken.VALUE_STRING) {
+                        date = p.getValueAsString();
+                    } else if ("contributionCount".equals(dayField) && dayValue.isNumeric()) {
+                        count = p.getValueAsInt();
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                if (date != null) {
+                    into.add(new ContributionDay(LocalDate.parse(date), count));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads one numeric field from the current object and skips the rest of it.
+     * Leaves the parser on the object's END_OBJECT.
+     */
+    private int readIntField(JsonParser p, String name) {
+        int result = 0;
+        while (p.nextToken() != JsonToken.END_OBJECT) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (name.equals(field) && value.isNumeric()) {
+                result = p.getValueAsInt();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private record GraphQlError(String alias, String message) {}
+
+    /** Like {@link #readIntField} for a string value; null when absent. */
+    private String readStringField(JsonParser p, String name) {
+        String result = null;
+        while (p.nextToken() != JsonToken.END_OBJECT) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (name.equals(field) && value == JsonToken.VALUE_STRING) {
+                result = p.getValueAsString();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private GraphQlError readError(JsonParser p) {
+        String alias = null;
+        String message = "Unknown provider error";
+        while (p.nextToken() != JsonToken.END_OBJECT) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("message".equals(field)) {
+                message = p.getValueAsString();
+            } else if ("path".equals(field) && value == JsonToken.START_ARRAY) {
+                JsonToken segment;
+                while ((segment = p.nextToken()) != JsonToken.END_ARRAY) {
+                    if (alias == null && segment == JsonToken.VALUE_STRING) alias = p.getValueAsString();
+                    else p.skipChildren();
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new GraphQlError(alias, message);
+    }
+
+    private Map<String, GitHubUserSnapshot> attachRawTelemetry(byte[] body, Map<String, GitHubUserSnapshot> users) {
+        Map<String, Object> tree = readTree(body);
+        Map<String, Object> data = (Map<String, Object>) tree.get("data");
+        Map<String, GitHubUserSnapshot> withRaw = new HashMap<>();
+        users.forEach((alias, s) -> withRaw.put(alias, new GitHubUserSnapshot(
+                s.totalRepos(), s.recentStars(), s.totalContributions(), s.contributionDays(), s.location(), s.languages(),
+                Map.of("user", data.get(alias)))));
+        return withRaw;
+    }
+
+    private Map<String, Object> readTree(byte[] body) {
+        return objectMapper.readValue(body, Map.class);
+    }
+
+    private void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new StatsDomainExceptions.DataParsingException("Unexpected token " + actual + ", expected " + expected);
+        }
+    }
+}
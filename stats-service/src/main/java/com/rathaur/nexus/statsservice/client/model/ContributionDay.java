@@ -0,0 +1,9 @@
+package com.rathaur.nexus.statsservice.client.model;
+
+import java.time.LocalDate;
+
+/**
+ * One cell of the GitHub contribution calendar.
+ */
+public record ContributionDay(LocalDate day, int count) {
+}
@@ -0,0 +1,26 @@
+package com.rathaur.nexus.statsservice.client.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The slice of a GitHub user node that scoring, segments and the quick summary actually use.
+ *
+ * @param totalRepos         allRepos.totalCount
+ * @param recentStars        sum of stargazerCount over recentRepos.nodes
+ * @param totalContributions contributionsCollection.contributionCalendar.totalContributions over the
+ *                           scoring window (the last 7 days)
+ * @param contributionDays   calendar.contributionCalendar.weeks[].contributionDays[] flattened, oldest
+ *                           first: every day of the past year, including days without contributions
+ * @param location           free-text profile location, may be null
+ * @param languages          distinct recentRepos.nodes[].primaryLanguage.name, most frequent first
+ * @param rawTelemetry       full {"user": {...}} payload, only present when raw telemetry is kept
+ */
+public record GitHubUserSnapshot(int totalRepos,
+                                 int recentStars,
+                                 int totalContributions,
+                                 List<ContributionDay> contributionDays,
+                                 String location,
+                                 List<String> languages,
+                                 Map<String, Object> rawTelemetry) {
+}
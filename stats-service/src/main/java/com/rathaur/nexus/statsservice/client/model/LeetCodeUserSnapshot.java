@@ -0,0 +1,17 @@
+package com.rathaur.nexus.statsservice.client.model;
+
+import java.util.Map;
+
+/**
+ * The slice of a LeetCode matchedUser node that scoring and the quick summary use.
+ * Solved counts are keyed by difficulty name, not by array position.
+ *
+ * @param rawMetrics full "data" payload, only present when raw telemetry is kept
+ */
+public record LeetCodeUserSnapshot(Integer ranking,
+                                   int totalSolved,
+                                   int easySolved,
+                                   int mediumSolved,
+                                   int hardSolved,
+                                   Map<String, Object> rawMetrics) {
+}
@@ -0,0 +1,83 @@
+package com.rathaur.nexus.statsservice.config;
+
+import com.rathaur.nexus.statsservice.client.ProviderGuard;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * One circuit breaker and one bulkhead per external provider, so a GitHub outage can only
+ * exhaust GitHub's share of the sync capacity. Settings live under nexus.resilience.&lt;provider&gt;.*;
+ * state is exported as resilience4j.circuitbreaker.* / resilience4j.bulkhead.* metrics and via
+ * the /actuator/providers endpoint.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Configuration
+public class ProviderResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry providerCircuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry providerBulkheadRegistry(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public ProviderGuard githubGuard(CircuitBreakerRegistry breakers, BulkheadRegistry bulkheads, Environment env) {
+        return guard("github", 10, breakers, bulkheads, env);
+    }
+
+    @Bean
+    public ProviderGuard leetcodeGuard(CircuitBreakerRegistry breakers, BulkheadRegistry bulkheads, Environment env) {
+        return guard("leetcode", 5, breakers, bulkheads, env);
+    }
+
+    private ProviderGuard guard(String provider, int defaultConcurrency, CircuitBreakerRegistry breakers,
+                                BulkheadRegistry bulkheads, Environment env) {
+        String prefix = "nexus.resilience." + provider + ".";
+
+        CircuitBreakerConfig breakerConfig = CircuitBreakerConfig.custom()
+                .slidingWindowSize(env.getProperty(prefix + "sliding-window-size", Integer.class, 20))
+                .minimumNumberOfCalls(env.getProperty(prefix + "minimum-calls", Integer.class, 10))
+                .failureRateThreshold(env.getProperty(prefix + "failure-rate-threshold", Float.class, 50f))
+                .slowCallDurationThreshold(env.getProperty(prefix + "slow-call-threshold", Duration.class, Duration.ofSeconds(10)))
+                .slowCallRateThreshold(env.getProperty(prefix + "slow-call-rate-threshold", Float.class, 80f))
+                .waitDurationInOpenState(env.getProperty(prefix + "wait-in-open-state", Duration.class, Duration.ofSeconds(30)))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // Throttling is the rate limiter's job and a full bulkhead is back-pressure, not provider failure
+                .ignoreExceptions(StatsDomainExceptions.ExternalProviderThrottledException.class, BulkheadFullException.class)
+                .build();
+
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(env.getProperty(prefix + "max-concurrent-calls", Integer.class, defaultConcurrency))
+                // Short enough to fit inside the per-call deadlines; ProviderGuard caps it at what is left of them
+                .maxWaitDuration(env.getProperty(prefix + "max-wait", Duration.class, Duration.ofSeconds(2)))
+                .build();
+
+        CircuitBreaker breaker = breakers.circuitBreaker(provider, breakerConfig);
+        Bulkhead bulkhead = bulkheads.bulkhead(provider, bulkheadConfig);
+        return new ProviderGuard(provider, breaker, bulkhead);
+    }
+}
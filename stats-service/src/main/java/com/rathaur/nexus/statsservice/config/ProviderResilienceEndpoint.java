@@ -0,0 +1,45 @@
+package com.rathaur.nexus.statsservice.config;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * GET /actuator/providers: circuit breaker state and bulkhead headroom per external provider.
+ */
+@Component
+@Endpoint(id = "providers")
+@RequiredArgsConstructor
+public class ProviderResilienceEndpoint {
+
+    private final CircuitBreakerRegistry breakers;
+    private final BulkheadRegistry bulkheads;
+
+    public record ProviderState(String circuitState, float failureRate, float slowCallRate,
+                                long notPermittedCalls, int availableConcurrentCalls, int maxConcurrentCalls) {
+    }
+
+    @ReadOperation
+    public Map<String, ProviderState> providers() {
+        Map<String, ProviderState> states = new TreeMap<>();
+        for (CircuitBreaker breaker : breakers.getAllCircuitBreakers()) {
+            CircuitBreaker.Metrics m = breaker.getMetrics();
+            var bulkhead = bulkheads.find(breaker.getName());
+            states.put(breaker.getName(), new ProviderState(
+                    breaker.getState().name(),
+                    m.getFailureRate(),
+                    m.getSlowCallRate(),
+                    m.getNumberOfNotPermittedCalls(),
+                    bulkhead.map(b -> b.getMetrics().getAvailableConcurrentCalls()).orElse(-1),
+                    bulkhead.map(b -> b.getMetrics().getMaxAllowedConcurrentCalls()).orElse(-1)));
+        }
+        return states;
+    }
+}
@@ -0,0 +1,39 @@
+package com.rathaur.nexus.statsservice.config;
+
+import com.rathaur.nexus.statsservice.client.ProviderRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * One shared token bucket per external provider. Every client call (user sync, background
+ * refresh, batch) draws from the same bucket so the combined traffic stays inside the quota.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Configuration
+public class RateLimiterConfig {
+
+    @Bean
+    public ProviderRateLimiter githubRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${nexus.ratelimit.github.requests-per-minute:80}") int requestsPerMinute,
+            @Value("${nexus.ratelimit.github.burst:20}") int burst,
+            @Value("${nexus.ratelimit.github.base-backoff:5s}") Duration baseBackoff,
+            @Value("${nexus.ratelimit.github.max-backoff:15m}") Duration maxBackoff) {
+        return new ProviderRateLimiter("github", requestsPerMinute, burst, baseBackoff, maxBackoff, meterRegistry);
+    }
+
+    @Bean
+    public ProviderRateLimiter leetcodeRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${nexus.ratelimit.leetcode.requests-per-minute:30}") int requestsPerMinute,
+            @Value("${nexus.ratelimit.leetcode.burst:5}") int burst,
+            @Value("${nexus.ratelimit.leetcode.base-backoff:2s}") Duration baseBackoff,
+            @Value("${nexus.ratelimit.leetcode.max-backoff:5m}") Duration maxBackoff) {
+        return new ProviderRateLimiter("leetcode", requestsPerMinute, burst, baseBackoff, maxBackoff, meterRegistry);
+    }
+}
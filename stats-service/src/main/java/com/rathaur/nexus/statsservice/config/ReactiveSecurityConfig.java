@@ -0,0 +1,108 @@
+package com.rathaur.nexus.statsservice.config;
+
+import com.rathaur.nexus.common.security.JwtUtils;
+import com.rathaur.nexus.common.utils.SecurityConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux counterpart of {@link SecurityConfig} for the {@code reactive} profile: same public
+ * routes, same stateless bearer-token authentication, expressed as a {@link SecurityWebFilterChain}.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain reactiveSecurityFilterChain(ServerHttpSecurity http, JwtUtils jwtUtils) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        // 1. PUBLIC: Leaderboard and viewing specific user stats
+                        .pathMatchers(HttpMethod.GET, "/api/v1/stats/leaderboard/**").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/v1/stats/{username}").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/v1/stats/{username}/history").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/v1/stats/{username}/percentile").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/v1/stats/{username}/contributions/**").permitAll()
+
+                        // 2. PUBLIC: Actuator
+                        .pathMatchers("/actuator/**").permitAll()
+
+                        // 3. SECURE: everything else, including sync and "me"
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(new JwtWebFilter(jwtUtils), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Reactive twin of the servlet JwtAuthenticationFilter. An invalid token leaves the exchange
+     * unauthenticated, so protected routes answer 401 and public ones are still served.
+     */
+    @Slf4j
+    static final class JwtWebFilter implements WebFilter {
+
+        private final JwtUtils jwtUtils;
+
+        JwtWebFilter(JwtUtils jwtUtils) {
+            this.jwtUtils = jwtUtils;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(SecurityConstants.AUTH_HEADER);
+            if (authHeader == null || !authHeader.startsWith(SecurityConstants.BEARER)) {
+                return chain.filter(exchange);
+            }
+
+            Claims claims;
+            try {
+                claims = jwtUtils.parseAndValidate(authHeader.substring(SecurityConstants.BEARER.length()));
+            } catch (JwtException | IllegalArgumentException e) {
+                log.error("NEXUS-SECURITY: JWT validation failed: {}", e.getMessage());
+                return chain.filter(exchange);
+            }
+
+            String username = claims.getSubject();
+            if (username == null || !SecurityConstants.TOKEN_TYPE_ACCESS.equals(claims.get(SecurityConstants.CLAIM_TOKEN_TYPE))) {
+                return chain.filter(exchange);
+            }
+
+            @SuppressWarnings("unchecked")
+            List<String> roles = (List<String>) claims.get(SecurityConstants.CLAIM_ROLES);
+            var authorities = (roles == null ? List.<String>of() : roles).stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
+
+            var authToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
+            return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+        }
+    }
+}
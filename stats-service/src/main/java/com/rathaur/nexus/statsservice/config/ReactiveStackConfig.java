@@ -0,0 +1,62 @@
+package com.rathaur.nexus.statsservice.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.time.Duration;
+
+/**
+ * R2DBC wiring for the opt-in {@code reactive} profile (see application-reactive.properties).
+ * The request path and the user sync run on Netty against this pool; scheduled and batch work
+ * (refresher, ranking, rescore, bulk writes) keeps using JPA/JDBC on its own threads.
+ * <p>
+ * The R2DBC transaction manager is deliberately not a bean: JPA's transaction manager is only
+ * auto-configured while no other {@code TransactionManager} exists, and {@code @Transactional}
+ * must keep resolving to it. Reactive code uses the {@link TransactionalOperator} instead.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveStackConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool r2dbcConnectionFactory(
+            @Value("${nexus.reactive.r2dbc-url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${nexus.reactive.pool.max-size:20}") int maxSize,
+            @Value("${nexus.reactive.pool.max-idle-time:10m}") Duration maxIdleTime) {
+        ConnectionFactory driver = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(driver)
+                .name("nexus-r2dbc")
+                .initialSize(Math.min(4, maxSize))
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactions(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
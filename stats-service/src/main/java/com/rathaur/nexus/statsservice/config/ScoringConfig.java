@@ -0,0 +1,9 @@
+package com.rathaur.nexus.statsservice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ScoringProperties.class)
+public class ScoringConfig {
+}
@@ -0,0 +1,39 @@
+package com.rathaur.nexus.statsservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Versioned score weights, e.g.
+ * <pre>
+ * nexus.scoring.active-version=v2
+ * nexus.scoring.versions.v2.stars=12
+ * </pre>
+ * Old versions stay configured so scores written under them remain explainable.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@ConfigurationProperties(prefix = "nexus.scoring")
+public record ScoringProperties(
+        @DefaultValue("v1") String activeVersion,
+        Map<String, Weights> versions
+) {
+
+    public ScoringProperties {
+        // v1 is the original hard-coded formula; always available as a fallback
+        versions = versions == null ? Map.of("v1", Weights.V1) : versions;
+    }
+
+    public record Weights(
+            @DefaultValue("25") double repos,
+            @DefaultValue("10") double stars,
+            @DefaultValue("5") double commits,
+            @DefaultValue("2") double easy,
+            @DefaultValue("15") double medium,
+            @DefaultValue("50") double hard
+    ) {
+        public static final Weights V1 = new Weights(25, 10, 5, 2, 15, 50);
+    }
+}
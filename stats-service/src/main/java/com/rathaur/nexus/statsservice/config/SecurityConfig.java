@@ -3,6 +3,7 @@ package com.rathaur.nexus.statsservice.config;
 import com.rathaur.nexus.common.security.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,6 +13,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
@@ -29,8 +31,11 @@ public class SecurityConfig {
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         // 1. PUBLIC: Leaderboard and viewing specific user stats
-                        .requestMatchers(HttpMethod.GET, "/api/v1/stats/leaderboard").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/stats/leaderboard/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/stats/{username}").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/stats/{username}/history").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/stats/{username}/percentile").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/stats/{username}/contributions/**").permitAll()
 
                         // 2. PUBLIC: Swagger & Actuator
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/actuator/**").permitAll()
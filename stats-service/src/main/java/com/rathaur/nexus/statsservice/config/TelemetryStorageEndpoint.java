@@ -0,0 +1,41 @@
+package com.rathaur.nexus.statsservice.config;
+
+import com.rathaur.nexus.statsservice.repository.TelemetryStorageRepository;
+import com.rathaur.nexus.statsservice.repository.TelemetryStorageRepository.PayloadStorage;
+import com.rathaur.nexus.statsservice.service.TelemetryStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/telemetrystorage: bytes per user spent on raw provider payloads, split into the
+ * jsonb and compressed columns. Compare a run before switching nexus.storage.compress-telemetry
+ * on with one after the refresher has re-synced everyone (or read both averages from a mixed table).
+ */
+@Component
+@Endpoint(id = "telemetrystorage")
+@RequiredArgsConstructor
+public class TelemetryStorageEndpoint {
+
+    private final TelemetryStorageRepository repository;
+    private final TelemetryStorage storage;
+
+    public record StorageReport(boolean compressing, long users, long payloadBytesPerUser,
+                                long tableBytesPerUser, List<PayloadStorage> tables) {
+    }
+
+    @ReadOperation
+    public StorageReport report() {
+        long users = repository.countUsers();
+        List<PayloadStorage> tables = List.of(repository.github(), repository.leetcode());
+        long payload = tables.stream().mapToLong(PayloadStorage::payloadBytes).sum();
+        long total = tables.stream().mapToLong(PayloadStorage::tableBytes).sum();
+        return new StorageReport(storage.compressed(), users,
+                users > 0 ? payload / users : 0,
+                users > 0 ? total / users : 0,
+                tables);
+    }
+}
@@ -1,10 +1,26 @@
 package com.rathaur.nexus.statsservice.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 /**
+ * Outbound HTTP for the provider clients: one named Reactor Netty connection pool and connector
+ * per provider, so a slow GitHub cannot starve LeetCode of connections. Settings live under
+ * nexus.http.&lt;provider&gt;.*; pool occupancy and acquire latency are exported as
+ * reactor.netty.connection.provider.* metrics, exchange timings as reactor.netty.http.client.*
+ * (both through the Micrometer global registry, which Boot joins by default).
+ *
  * @author Tanuj Singh Rathaur
  * @date 1/23/2026
  */
@@ -15,4 +31,59 @@ public class WebClientConfig {
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
-}
\ No newline at end of file
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider githubConnectionPool(Environment env) {
+        return pool("github", 20, 100, env);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider leetcodeConnectionPool(Environment env) {
+        return pool("leetcode", 10, 50, env);
+    }
+
+    @Bean
+    public ClientHttpConnector githubConnector(@Qualifier("githubConnectionPool") ConnectionProvider pool, Environment env) {
+        return connector("github", pool, Duration.ofSeconds(30), env);
+    }
+
+    @Bean
+    public ClientHttpConnector leetcodeConnector(@Qualifier("leetcodeConnectionPool") ConnectionProvider pool, Environment env) {
+        return connector("leetcode", pool, Duration.ofSeconds(15), env);
+    }
+
+    private ConnectionProvider pool(String provider, int defaultMaxConnections, int defaultPendingAcquire,
+                                    Environment env) {
+        String prefix = "nexus.http." + provider + ".";
+        Duration maxIdle = env.getProperty(prefix + "max-idle-time", Duration.class, Duration.ofSeconds(30));
+
+        return ConnectionProvider.builder("nexus-" + provider)
+                .maxConnections(env.getProperty(prefix + "max-connections", Integer.class, defaultMaxConnections))
+                .pendingAcquireMaxCount(env.getProperty(prefix + "pending-acquire-max-count", Integer.class, defaultPendingAcquire))
+                .pendingAcquireTimeout(env.getProperty(prefix + "pending-acquire-timeout", Duration.class, Duration.ofSeconds(5)))
+                // Providers close idle keep-alives on their side; evict ours first instead of writing into a dead socket
+                .maxIdleTime(maxIdle)
+                .maxLifeTime(env.getProperty(prefix + "max-life-time", Duration.class, Duration.ofMinutes(5)))
+                .evictInBackground(maxIdle)
+                .metrics(true)
+                .build();
+    }
+
+    private ClientHttpConnector connector(String provider, ConnectionProvider pool, Duration defaultResponseTimeout,
+                                          Environment env) {
+        String prefix = "nexus.http." + provider + ".";
+        Duration connectTimeout = env.getProperty(prefix + "connect-timeout", Duration.class, Duration.ofSeconds(5));
+        Duration responseTimeout = env.getProperty(prefix + "response-timeout", Duration.class, defaultResponseTimeout);
+
+        HttpClient client = HttpClient.create(pool)
+                // H2 is negotiated over TLS (ALPN); plain-http targets such as the loadtest stand-ins stay on HTTP/1.1
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                // Per-request read timeout, armed after the request is written; idle pooled sockets are left alone
+                .responseTimeout(responseTimeout)
+                // Providers are called on a single GraphQL path, so the uri tag stays low-cardinality
+                .metrics(true, uri -> uri);
+        return new ReactorClientHttpConnector(client);
+    }
+}
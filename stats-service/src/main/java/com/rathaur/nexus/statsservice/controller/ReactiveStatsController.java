@@ -0,0 +1,213 @@
+package com.rathaur.nexus.statsservice.controller;
+
+import com.rathaur.nexus.common.dto.ApiResponse;
+import com.rathaur.nexus.statsservice.dto.ContributionHeatmap;
+import com.rathaur.nexus.statsservice.dto.ContributionSeries;
+import com.rathaur.nexus.statsservice.dto.ContributionStreak;
+import com.rathaur.nexus.statsservice.dto.LeaderboardEntry;
+import com.rathaur.nexus.statsservice.dto.LeaderboardPage;
+import com.rathaur.nexus.statsservice.dto.RankHistoryView;
+import com.rathaur.nexus.statsservice.dto.RescoreProgress;
+import com.rathaur.nexus.statsservice.dto.ScorePercentile;
+import com.rathaur.nexus.statsservice.dto.SyncResult;
+import com.rathaur.nexus.statsservice.dto.UserStatsView;
+import com.rathaur.nexus.statsservice.repository.ReactiveStatsRepository;
+import com.rathaur.nexus.statsservice.service.BulkRescoreService;
+import com.rathaur.nexus.statsservice.service.ContributionService;
+import com.rathaur.nexus.statsservice.service.LeaderboardIndex;
+import com.rathaur.nexus.statsservice.service.LeaderboardQueryService;
+import com.rathaur.nexus.statsservice.service.LeaderboardSegmentService;
+import com.rathaur.nexus.statsservice.service.RankHistoryService;
+import com.rathaur.nexus.statsservice.service.ReactiveSyncService;
+import com.rathaur.nexus.statsservice.service.ScorePercentileService;
+import io.micrometer.tracing.Tracer;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * The stats API on Netty, for the {@code reactive} profile. Same paths, payloads and status
+ * codes as {@link StatsController}, with two differences:
+ * <ul>
+ *   <li>POST /sync runs the sync inline on {@link ReactiveSyncService} and answers 200 with the
+ *   {@link SyncResult} once it is persisted; no job queue or worker thread is involved, so
+ *   GET /sync/{jobId} does not exist here.</li>
+ *   <li>Profiles are read over R2DBC. Endpoints backed by JPA services (history, percentile,
+ *   contributions, leaderboard pages, rescore) are bridged onto the bounded elastic scheduler so they never
+ *   block an event-loop thread.</li>
+ * </ul>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/stats")
+@RequiredArgsConstructor
+@Profile("reactive")
+public class ReactiveStatsController {
+
+    private final ReactiveSyncService syncService;
+    private final ReactiveStatsRepository statsRepository;
+    private final LeaderboardIndex leaderboardIndex;
+    private final LeaderboardQueryService leaderboardQueryService;
+    private final LeaderboardSegmentService leaderboardSegmentService;
+    private final BulkRescoreService bulkRescoreService;
+    private final RankHistoryService rankHistoryService;
+    private final ContributionService contributionService;
+    private final ScorePercentileService scorePercentileService;
+    private final Tracer tracer;
+
+    /**
+     * SECURE SYNC: Syncs ONLY the logged-in user, end to end without blocking.
+     */
+    @PostMapping("/sync")
+    @PreAuthorize("hasAnyAuthority('ROLE_USER', 'ROLE_ADMIN')")
+    public Mono<ResponseEntity<ApiResponse<SyncResult>>> syncMe(
+            Authentication auth,
+            @RequestParam(required = false) String github,
+            @RequestParam(required = false) String leetcode) {
+        String currentUsername = auth.getName();
+        log.info("Secure reactive sync requested for user: {}", currentUsername);
+
+        return syncService.sync(currentUsername, github, leetcode)
+                .map(result -> ResponseEntity.ok(ApiResponse.ok("Sync finished for " + currentUsername, result, getTraceId())));
+    }
+
+    @GetMapping("/me")
+    @PreAuthorize("hasAnyAuthority('ROLE_USER', 'ROLE_ADMIN')")
+    public Mono<ResponseEntity<ApiResponse<UserStatsView>>> getMyStats(
+            Authentication auth,
+            @RequestParam(required = false) String include) {
+        return statsRepository.findView(auth.getName(), "telemetry".equalsIgnoreCase(include))
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Stats record not found for user: " + auth.getName())))
+                .map(stats -> ResponseEntity.ok(ApiResponse.ok("My stats retrieved", stats, getTraceId())));
+    }
+
+    @GetMapping("/{username}")
+    public Mono<ResponseEntity<ApiResponse<UserStatsView>>> getPublicStats(
+            @PathVariable String username,
+            @RequestParam(required = false) String include) {
+        return statsRepository.findView(username, "telemetry".equalsIgnoreCase(include))
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Profile stats not found for: " + username)))
+                .map(stats -> ResponseEntity.ok(ApiResponse.ok("Profile stats retrieved", stats, getTraceId())));
+    }
+
+    @GetMapping("/{username}/history")
+    public Mono<ResponseEntity<ApiResponse<RankHistoryView>>> getRankHistory(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "90") int days) {
+        return blocking(() -> rankHistoryService.history(username, days))
+                .map(history -> ResponseEntity.ok(ApiResponse.ok("Rank history retrieved", history, getTraceId())));
+    }
+
+    @GetMapping("/{username}/percentile")
+    public Mono<ResponseEntity<ApiResponse<ScorePercentile>>> getPercentile(@PathVariable String username) {
+        // In-memory unless the user is missing from the leaderboard index, which falls back to JPA
+        return blocking(() -> scorePercentileService.percentile(username))
+                .map(percentile -> ResponseEntity.ok(ApiResponse.ok("Score percentile retrieved", percentile, getTraceId())));
+    }
+
+    @GetMapping("/{username}/contributions/streak")
+    public Mono<ResponseEntity<ApiResponse<ContributionStreak>>> getContributionStreak(@PathVariable String username) {
+        return blocking(() -> contributionService.streak(username))
+                .map(streak -> ResponseEntity.ok(ApiResponse.ok("Contribution streak retrieved", streak, getTraceId())));
+    }
+
+    @GetMapping("/{username}/contributions/rolling")
+    public Mono<ResponseEntity<ApiResponse<ContributionSeries>>> getRollingContributions(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "7") int window,
+            @RequestParam(defaultValue = "90") int days) {
+        return blocking(() -> contributionService.rolling(username, window, days))
+                .map(series -> ResponseEntity.ok(ApiResponse.ok("Rolling contributions retrieved", series, getTraceId())));
+    }
+
+    @GetMapping("/{username}/contributions/heatmap")
+    public Mono<ResponseEntity<ApiResponse<ContributionHeatmap>>> getContributionHeatmap(
+            @PathVariable String username,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return blocking(() -> contributionService.heatmap(username, from, to))
+                .map(heatmap -> ResponseEntity.ok(ApiResponse.ok("Contribution heatmap retrieved", heatmap, getTraceId())));
+    }
+
+    /**
+     * LEADERBOARD: The in-memory index answers on the calling thread; Postgres fallbacks are bridged.
+     */
+    @GetMapping("/leaderboard")
+    public Mono<ResponseEntity<ApiResponse<List<LeaderboardEntry>>>> getLeaderboard(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String segment) {
+        int n = Math.max(1, Math.min(limit, 100));
+
+        if (segment != null && !segment.isBlank()) {
+            return blocking(() -> leaderboardSegmentService.top(segment, n))
+                    .map(top -> ResponseEntity.ok(ApiResponse.ok("Segment leaderboard fetched", top, getTraceId())));
+        }
+
+        Mono<List<LeaderboardEntry>> topUsers = leaderboardIndex.isReady()
+                ? Mono.fromSupplier(() -> leaderboardIndex.top(n))
+                : blocking(() -> leaderboardQueryService.page(null, n).entries());
+        return topUsers.map(top -> ResponseEntity.ok(ApiResponse.ok("Leaderboard fetched", top, getTraceId())));
+    }
+
+    @GetMapping("/leaderboard/page")
+    public Mono<ResponseEntity<ApiResponse<LeaderboardPage>>> getLeaderboardPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return blocking(() -> leaderboardQueryService.page(cursor, size))
+                .map(page -> ResponseEntity.ok(ApiResponse.ok("Leaderboard page fetched", page, getTraceId())));
+    }
+
+    @GetMapping("/leaderboard/around/{username}")
+    public Mono<ResponseEntity<ApiResponse<List<LeaderboardEntry>>>> getLeaderboardAround(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "5") int radius) {
+        return blocking(() -> leaderboardQueryService.around(username, radius))
+                .map(window -> ResponseEntity.ok(ApiResponse.ok("Leaderboard window fetched", window, getTraceId())));
+    }
+
+    @GetMapping("/leaderboard/ranks")
+    public Mono<ResponseEntity<ApiResponse<List<LeaderboardEntry>>>> getLeaderboardRanks(
+            @RequestParam int from,
+            @RequestParam int to) {
+        return blocking(() -> leaderboardQueryService.rankRange(from, to))
+                .map(entries -> ResponseEntity.ok(ApiResponse.ok("Leaderboard ranks fetched", entries, getTraceId())));
+    }
+
+    @PostMapping("/admin/rescore")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Mono<ResponseEntity<ApiResponse<RescoreProgress>>> startRescore() {
+        return blocking(bulkRescoreService::start)
+                .map(progress -> ResponseEntity.accepted()
+                        .header("Location", "/api/v1/stats/admin/rescore")
+                        .body(ApiResponse.ok("Re-score to " + progress.targetVersion() + " started", progress, getTraceId())));
+    }
+
+    @GetMapping("/admin/rescore")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Mono<ResponseEntity<ApiResponse<RescoreProgress>>> getRescoreProgress() {
+        return blocking(() -> bulkRescoreService.progress()
+                        .orElseThrow(() -> new EntityNotFoundException("No re-score has run since startup")))
+                .map(progress -> ResponseEntity.ok(ApiResponse.ok("Re-score progress", progress, getTraceId())));
+    }
+
+    // JPA-backed services must never run on a Netty event-loop thread
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private String getTraceId() {
+        return (tracer.currentSpan() != null) ? tracer.currentSpan().context().traceId() : "N/A";
+    }
+}
@@ -1,64 +1,111 @@
 package com.rathaur.nexus.statsservice.controller;
 
 import com.rathaur.nexus.common.dto.ApiResponse;
-import com.rathaur.nexus.statsservice.entity.UserStats;
+import com.rathaur.nexus.statsservice.dto.ContributionHeatmap;
+import com.rathaur.nexus.statsservice.dto.ContributionSeries;
+import com.rathaur.nexus.statsservice.dto.ContributionStreak;
+import com.rathaur.nexus.statsservice.dto.LeaderboardEntry;
+import com.rathaur.nexus.statsservice.dto.LeaderboardPage;
+import com.rathaur.nexus.statsservice.dto.RankHistoryView;
+import com.rathaur.nexus.statsservice.dto.ScorePercentile;
+import com.rathaur.nexus.statsservice.dto.RescoreProgress;
+import com.rathaur.nexus.statsservice.dto.SyncJobStatus;
 import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
-import com.rathaur.nexus.statsservice.service.StatsSyncService;
+import com.rathaur.nexus.statsservice.service.BulkRescoreService;
+import com.rathaur.nexus.statsservice.service.ContributionService;
+import com.rathaur.nexus.statsservice.service.LeaderboardIndex;
+import com.rathaur.nexus.statsservice.service.LeaderboardQueryService;
+import com.rathaur.nexus.statsservice.service.LeaderboardSegmentService;
+import com.rathaur.nexus.statsservice.service.RankHistoryService;
+import com.rathaur.nexus.statsservice.service.ScorePercentileService;
+import com.rathaur.nexus.statsservice.service.SyncJobService;
+import com.rathaur.nexus.statsservice.service.UserStatsViewCache;
 import io.micrometer.observation.annotation.Observed;
 import io.micrometer.tracing.Tracer;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Controller focusing on the "Service-to-Service" logic for the Nexus Platform.
+ * Servlet stack only; the {@code reactive} profile serves the same API from {@link ReactiveStatsController}.
  */
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/stats")
 @RequiredArgsConstructor
 @Observed(name = "stats.controller")
+@Profile("!reactive")
 public class StatsController {
 
-    private final StatsSyncService statsSyncService;
+    private final SyncJobService syncJobService;
+    private final LeaderboardIndex leaderboardIndex;
+    private final LeaderboardQueryService leaderboardQueryService;
+    private final LeaderboardSegmentService leaderboardSegmentService;
     private final UserStatsRepository userStatsRepository;
+    private final UserStatsViewCache userStatsViewCache;
+    private final BulkRescoreService bulkRescoreService;
+    private final RankHistoryService rankHistoryService;
+    private final ContributionService contributionService;
+    private final ScorePercentileService scorePercentileService;
     private final Tracer tracer;
 
     /**
      * SECURE SYNC: Syncs ONLY the logged-in user.
      * No username in URL - pulled from JWT 'sub' (Authentication.getName())
+     * The sync runs on the background job pool; poll GET /sync/{jobId} for the outcome.
      */
     @PostMapping("/sync")
     @PreAuthorize("hasAnyAuthority('ROLE_USER', 'ROLE_ADMIN')")
-    public ResponseEntity<ApiResponse<String>> syncMe(
+    public ResponseEntity<ApiResponse<SyncJobStatus>> syncMe(
             Authentication auth,
             @RequestParam(required = false) String github,
             @RequestParam(required = false) String leetcode) {
 
         String currentUsername = auth.getName();
-        log.info("Secure sync started for user: {}", currentUsername);
+        log.info("Secure sync requested for user: {}", currentUsername);
 
-        // Delegate to service
-        statsSyncService.fullStatsSync(currentUsername, github, leetcode);
+        // Queue the job; rejected with 429 when the queue is full
+        SyncJobStatus job = syncJobService.submit(currentUsername, github, leetcode);
 
-        return ResponseEntity.accepted().body(
-                ApiResponse.ok("Sync initiated for " + currentUsername, null, getTraceId())
-        );
+        return ResponseEntity.accepted()
+                .header("Location", "/api/v1/stats/sync/" + job.jobId())
+                .body(ApiResponse.ok("Sync initiated for " + currentUsername, job, getTraceId()));
+    }
+
+    /**
+     * JOB STATUS: Poll a sync job submitted by the logged-in user.
+     */
+    @GetMapping("/sync/{jobId}")
+    @PreAuthorize("hasAnyAuthority('ROLE_USER', 'ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<SyncJobStatus>> getSyncJob(Authentication auth, @PathVariable String jobId) {
+        SyncJobStatus job = syncJobService.findJob(jobId, auth.getName())
+                .orElseThrow(() -> new EntityNotFoundException("Sync job not found: " + jobId));
+
+        return ResponseEntity.ok(ApiResponse.ok("Sync job status", job, getTraceId()));
     }
 
     /**
      * ME DATA: Returns the stats for the currently authenticated user.
+     * Served from the user stats cache as pre-serialized JSON; ?include=telemetry adds the raw
+     * provider payloads and bypasses the cache.
      */
     @GetMapping("/me")
     @PreAuthorize("hasAnyAuthority('ROLE_USER', 'ROLE_ADMIN')")
-    public ResponseEntity<ApiResponse<UserStats>> getMyStats(Authentication auth) {
-        UserStats stats = userStatsRepository.findByUsername(auth.getName())
+    public ResponseEntity<ApiResponse<Object>> getMyStats(
+            Authentication auth,
+            @RequestParam(required = false) String include) {
+        Object stats = loadView(auth.getName(), include)
                 .orElseThrow(() -> new EntityNotFoundException("Stats record not found for user: " + auth.getName()));
 
         return ResponseEntity.ok(ApiResponse.ok("My stats retrieved", stats, getTraceId()));
@@ -68,19 +115,152 @@ public class StatsController {
      * PUBLIC VIEW: Anyone can view a profile by username.
      */
     @GetMapping("/{username}")
-    public ResponseEntity<ApiResponse<UserStats>> getPublicStats(@PathVariable String username) {
-        UserStats stats = userStatsRepository.findByUsername(username)
+    public ResponseEntity<ApiResponse<Object>> getPublicStats(
+            @PathVariable String username,
+            @RequestParam(required = false) String include) {
+        Object stats = loadView(username, include)
                 .orElseThrow(() -> new EntityNotFoundException("Profile stats not found for: " + username));
 
         return ResponseEntity.ok(ApiResponse.ok("Profile stats retrieved", stats, getTraceId()));
     }
 
+    /**
+     * RANK HISTORY: Rank and score change points over the last {@code days} days (max 365).
+     */
+    @GetMapping("/{username}/history")
+    public ResponseEntity<ApiResponse<RankHistoryView>> getRankHistory(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "90") int days) {
+        RankHistoryView history = rankHistoryService.history(username, days);
+        return ResponseEntity.ok(ApiResponse.ok("Rank history retrieved", history, getTraceId()));
+    }
+
+    /**
+     * PERCENTILE: "Top X%" standing from the score sketch, without ranking or counting users.
+     * Accurate to the users within ~2% of this score; see {@link ScorePercentile}.
+     */
+    @GetMapping("/{username}/percentile")
+    public ResponseEntity<ApiResponse<ScorePercentile>> getPercentile(@PathVariable String username) {
+        ScorePercentile percentile = scorePercentileService.percentile(username);
+        return ResponseEntity.ok(ApiResponse.ok("Score percentile retrieved", percentile, getTraceId()));
+    }
+
+    /**
+     * CONTRIBUTION STREAK: Current and longest run of consecutive days with contributions.
+     */
+    @GetMapping("/{username}/contributions/streak")
+    public ResponseEntity<ApiResponse<ContributionStreak>> getContributionStreak(@PathVariable String username) {
+        ContributionStreak streak = contributionService.streak(username);
+        return ResponseEntity.ok(ApiResponse.ok("Contribution streak retrieved", streak, getTraceId()));
+    }
+
+    /**
+     * ROLLING ACTIVITY: Trailing {@code window}-day totals for each of the last {@code days} days.
+     */
+    @GetMapping("/{username}/contributions/rolling")
+    public ResponseEntity<ApiResponse<ContributionSeries>> getRollingContributions(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "7") int window,
+            @RequestParam(defaultValue = "90") int days) {
+        ContributionSeries series = contributionService.rolling(username, window, days);
+        return ResponseEntity.ok(ApiResponse.ok("Rolling contributions retrieved", series, getTraceId()));
+    }
+
+    /**
+     * HEATMAP: Daily counts with 0-4 intensity levels; defaults to the last 365 days.
+     */
+    @GetMapping("/{username}/contributions/heatmap")
+    public ResponseEntity<ApiResponse<ContributionHeatmap>> getContributionHeatmap(
+            @PathVariable String username,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ContributionHeatmap heatmap = contributionService.heatmap(username, from, to);
+        return ResponseEntity.ok(ApiResponse.ok("Contribution heatmap retrieved", heatmap, getTraceId()));
+    }
+
+    /**
+     * LEADERBOARD: Served from the in-memory index; falls back to Postgres only until the
+     * index has finished its initial load. With ?segment=lang:Java or ?segment=loc:India the
+     * board is read from the materialized segment table instead.
+     */
     @GetMapping("/leaderboard")
-    public ResponseEntity<ApiResponse<List<UserStats>>> getLeaderboard() {
-        List<UserStats> topUsers = userStatsRepository.findTop10ByOrderByNexusScoreDesc();
+    public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getLeaderboard(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String segment) {
+        int n = Math.max(1, Math.min(limit, 100));
+
+        if (segment != null && !segment.isBlank()) {
+            List<LeaderboardEntry> segmentTop = leaderboardSegmentService.top(segment, n);
+            return ResponseEntity.ok(ApiResponse.ok("Segment leaderboard fetched", segmentTop, getTraceId()));
+        }
+
+        List<LeaderboardEntry> topUsers = leaderboardIndex.isReady()
+                ? leaderboardIndex.top(n)
+                : leaderboardQueryService.page(null, n).entries();
         return ResponseEntity.ok(ApiResponse.ok("Leaderboard fetched", topUsers, getTraceId()));
     }
 
+    /**
+     * LEADERBOARD PAGES: Keyset pagination for deep scrolling. Omit cursor for the first page.
+     */
+    @GetMapping("/leaderboard/page")
+    public ResponseEntity<ApiResponse<LeaderboardPage>> getLeaderboardPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        LeaderboardPage page = leaderboardQueryService.page(cursor, size);
+        return ResponseEntity.ok(ApiResponse.ok("Leaderboard page fetched", page, getTraceId()));
+    }
+
+    /**
+     * AROUND ME: The user plus {@code radius} neighbours above and below.
+     */
+    @GetMapping("/leaderboard/around/{username}")
+    public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getLeaderboardAround(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "5") int radius) {
+        List<LeaderboardEntry> window = leaderboardQueryService.around(username, radius);
+        return ResponseEntity.ok(ApiResponse.ok("Leaderboard window fetched", window, getTraceId()));
+    }
+
+    /**
+     * RANK RANGE: e.g. ?from=1000&to=1050, inclusive.
+     */
+    @GetMapping("/leaderboard/ranks")
+    public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getLeaderboardRanks(
+            @RequestParam int from,
+            @RequestParam int to) {
+        List<LeaderboardEntry> entries = leaderboardQueryService.rankRange(from, to);
+        return ResponseEntity.ok(ApiResponse.ok("Leaderboard ranks fetched", entries, getTraceId()));
+    }
+
+    /**
+     * ADMIN: Re-score every user with the active scoring model. Poll GET /admin/rescore for progress.
+     */
+    @PostMapping("/admin/rescore")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<RescoreProgress>> startRescore() {
+        RescoreProgress progress = bulkRescoreService.start();
+        return ResponseEntity.accepted()
+                .header("Location", "/api/v1/stats/admin/rescore")
+                .body(ApiResponse.ok("Re-score to " + progress.targetVersion() + " started", progress, getTraceId()));
+    }
+
+    @GetMapping("/admin/rescore")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<RescoreProgress>> getRescoreProgress() {
+        RescoreProgress progress = bulkRescoreService.progress()
+                .orElseThrow(() -> new EntityNotFoundException("No re-score has run since startup"));
+        return ResponseEntity.ok(ApiResponse.ok("Re-score progress", progress, getTraceId()));
+    }
+
+    // Either a cached RawValue or, with include=telemetry, a freshly loaded UserStatsView
+    private Optional<?> loadView(String username, String include) {
+        if ("telemetry".equalsIgnoreCase(include)) {
+            return userStatsRepository.findViewWithTelemetry(username);
+        }
+        return userStatsViewCache.get(username);
+    }
+
     private String getTraceId() {
         return (tracer.currentSpan() != null) ? tracer.currentSpan().context().traceId() : "N/A";
     }
@@ -0,0 +1,20 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Calendar-style activity grid. {@code level} is 0 for no contributions and 1-4 by quartile of
+ * the user's active days within the range, the same buckets GitHub's calendar uses.
+ */
+public record ContributionHeatmap(
+        String username,
+        LocalDate from,
+        LocalDate to,
+        long total,
+        List<Cell> days
+) {
+
+    public record Cell(LocalDate day, int count, int level) {
+    }
+}
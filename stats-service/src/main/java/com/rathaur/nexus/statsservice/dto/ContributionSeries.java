@@ -0,0 +1,19 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Trailing {@code windowDays}-day contribution totals, one point per stored day in the range.
+ */
+public record ContributionSeries(
+        String username,
+        LocalDate from,
+        LocalDate to,
+        int windowDays,
+        List<Point> points
+) {
+
+    public record Point(LocalDate day, long total) {
+    }
+}
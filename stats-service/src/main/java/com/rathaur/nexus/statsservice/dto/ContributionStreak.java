@@ -0,0 +1,16 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Consecutive active days. The current streak is still alive if the last active day is today or
+ * yesterday, since today's contributions may simply not have happened yet. Only days stored from
+ * a synced calendar count as active, so a streak never spans days that were never synced.
+ */
+public record ContributionStreak(
+        String username,
+        int currentStreak,
+        int longestStreak,
+        LocalDate lastActiveDay
+) {
+}
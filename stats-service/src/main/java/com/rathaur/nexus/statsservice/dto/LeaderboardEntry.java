@@ -0,0 +1,7 @@
+package com.rathaur.nexus.statsservice.dto;
+
+/**
+ * One leaderboard row. Rank uses competition ranking (ties share a rank), like SQL RANK().
+ */
+public record LeaderboardEntry(int rank, String username, double nexusScore) {
+}
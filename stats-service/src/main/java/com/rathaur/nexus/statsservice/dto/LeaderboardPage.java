@@ -0,0 +1,13 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One keyset page of the leaderboard. Pass nextCursor back as ?cursor= to continue;
+ * it is absent on the last page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LeaderboardPage(List<LeaderboardEntry> entries, String nextCursor) {
+}
@@ -0,0 +1,20 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A user's rank/score series over a window. Points are change points: each value holds until
+ * the next point. {@code rankChange} is positive when the user climbed (rank number went down).
+ */
+public record RankHistoryView(
+        String username,
+        Instant since,
+        List<Point> points,
+        Integer rankChange,
+        Double scoreChange
+) {
+
+    public record Point(Instant recordedAt, Integer globalRank, double nexusScore) {
+    }
+}
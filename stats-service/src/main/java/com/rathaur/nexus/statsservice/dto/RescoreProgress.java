@@ -0,0 +1,30 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of a bulk re-score run. {@code total} is the number of users not yet on the target
+ * version when the run started; {@code conflicts} counts users skipped because a sync wrote
+ * them concurrently (that sync already used the active model).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RescoreProgress(
+        String targetVersion,
+        State state,
+        long total,
+        long processed,
+        long changed,
+        long conflicts,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+
+    public enum State {RUNNING, COMPLETED, FAILED}
+
+    public double percentComplete() {
+        return total == 0 ? 100.0 : Math.min(100.0, processed * 100.0 / total);
+    }
+}
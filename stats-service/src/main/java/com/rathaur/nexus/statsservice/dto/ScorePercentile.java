@@ -0,0 +1,26 @@
+package com.rathaur.nexus.statsservice.dto;
+
+/**
+ * Where a user's score sits among all Nexus users, estimated from the score sketch; drives the
+ * "top X% of Nexus developers" badge.
+ * <p>
+ * Error bound: users in other sketch buckets are counted exactly, so {@code estimatedRank} is off
+ * by at most {@code rankError}, half the users whose score lies in the same bucket, i.e. within
+ * about ±2% of this user's score (bucket width 2 x {@code relativeAccuracy}). Changes made on other
+ * instances show up after their next checkpoint (nexus.percentile.checkpoint-interval).
+ *
+ * @param estimatedRank 1-based position from the top, midpoint of the user's bucket
+ * @param topPercent    share of users ranked at or above this user, in percent (the badge value)
+ * @param percentile    share of users ranked below this user, in percent
+ */
+public record ScorePercentile(
+        String username,
+        double nexusScore,
+        long population,
+        long estimatedRank,
+        long rankError,
+        double topPercent,
+        double percentile,
+        double relativeAccuracy
+) {
+}
@@ -0,0 +1,29 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Public view of a background sync job, returned by the sync and job-status endpoints.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncJobStatus(String jobId,
+                            String username,
+                            State state,
+                            Instant submittedAt,
+                            Instant startedAt,
+                            Instant finishedAt,
+                            SyncResult result,
+                            String error) {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+}
@@ -0,0 +1,16 @@
+package com.rathaur.nexus.statsservice.dto;
+
+/**
+ * One user's entry in a bulk sync: the Nexus username and the provider handles to fetch.
+ * A null or blank handle skips that provider.
+ */
+public record SyncRequest(String username, String githubHandle, String leetcodeHandle) {
+
+    public boolean hasGithub() {
+        return githubHandle != null && !githubHandle.isBlank();
+    }
+
+    public boolean hasLeetCode() {
+        return leetcodeHandle != null && !leetcodeHandle.isBlank();
+    }
+}
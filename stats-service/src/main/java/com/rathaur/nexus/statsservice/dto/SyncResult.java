@@ -0,0 +1,57 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a single user sync, reported per provider so a failing
+ * provider does not hide the result of the other one.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+public record SyncResult(String username,
+                         ProviderOutcome github,
+                         ProviderOutcome leetcode,
+                         Instant completedAt) {
+
+    /**
+     * True when every provider the sync was asked for was fetched and written. Only complete
+     * syncs advance last_sync_all; a failed or timed-out provider leaves the user stale.
+     */
+    public boolean complete() {
+        return github.clean() && leetcode.clean();
+    }
+
+    public enum ProviderStatus {
+        SYNCED, SKIPPED, FAILED, TIMED_OUT,
+        /** Not attempted: the provider's rate limit would not allow the call before the deadline. */
+        THROTTLED
+    }
+
+    public record ProviderOutcome(ProviderStatus status, String error) {
+
+        /** Synced, or skipped because the request had no handle for this provider. */
+        public boolean clean() {
+            return status == ProviderStatus.SYNCED || status == ProviderStatus.SKIPPED;
+        }
+
+        public static ProviderOutcome synced() {
+            return new ProviderOutcome(ProviderStatus.SYNCED, null);
+        }
+
+        public static ProviderOutcome skipped() {
+            return new ProviderOutcome(ProviderStatus.SKIPPED, null);
+        }
+
+        public static ProviderOutcome failed(String error) {
+            return new ProviderOutcome(ProviderStatus.FAILED, error);
+        }
+
+        public static ProviderOutcome timedOut() {
+            return new ProviderOutcome(ProviderStatus.TIMED_OUT, "Provider did not respond in time");
+        }
+
+        public static ProviderOutcome throttled(String error) {
+            return new ProviderOutcome(ProviderStatus.THROTTLED, error);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.rathaur.nexus.statsservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rathaur.nexus.statsservice.entity.CompressedJson;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Read model for /me and /{username}. Loaded by one LEFT JOIN query straight into this record
+ * (see UserStatsRepository#findView), so no entity, lazy relation or session is involved.
+ * The JSONB blobs (telemetry, advancedMetrics) are only selected when explicitly requested, and
+ * compressed ones are only inflated then.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserStatsView(
+        String username,
+        double nexusScore,
+        Integer globalRank,
+        String scoreVersion,
+        Map<String, Object> quickSummary,
+        Instant lastSyncAll,
+        GitHub github,
+        LeetCode leetcode
+) {
+
+    public record GitHub(int publicRepos, int totalStars, int totalCommitsYearly, Instant lastSynced,
+                         Map<String, Object> telemetry) {
+    }
+
+    public record LeetCode(Integer globalRanking, Integer totalSolved, Integer easySolved,
+                           Integer mediumSolved, Integer hardSolved, Instant lastSynced,
+                           Map<String, Object> advancedMetrics) {
+    }
+
+    /**
+     * Flat constructor for the JPQL constructor expression. A null provider key means the
+     * LEFT JOIN found no row for that provider. Each payload comes from its jsonb column or, when
+     * stored compressed, its packed column; only the latter is inflated here.
+     */
+    public UserStatsView(String username, Double nexusScore, Integer globalRank, String scoreVersion,
+                         Map<String, Object> quickSummary, Instant lastSyncAll,
+                         String githubKey, Integer publicRepos, Integer totalStars, Integer totalCommitsYearly,
+                         Instant githubSynced, Map<String, Object> telemetry, CompressedJson telemetryPacked,
+                         String leetcodeKey, Integer globalRanking, Integer totalSolved, Integer easySolved,
+                         Integer mediumSolved, Integer hardSolved, Instant leetcodeSynced,
+                         Map<String, Object> advancedMetrics, CompressedJson advancedMetricsPacked) {
+        this(username, nexusScore != null ? nexusScore : 0.0, globalRank, scoreVersion, quickSummary, lastSyncAll,
+                githubKey == null ? null : new GitHub(orZero(publicRepos), orZero(totalStars),
+                        orZero(totalCommitsYearly), githubSynced, payload(telemetry, telemetryPacked)),
+                leetcodeKey == null ? null : new LeetCode(globalRanking, totalSolved, easySolved,
+                        mediumSolved, hardSolved, leetcodeSynced, payload(advancedMetrics, advancedMetricsPacked)));
+    }
+
+    /**
+     * Flat constructor without the JSONB columns, for the default (telemetry-free) query.
+     */
+    public UserStatsView(String username, Double nexusScore, Integer globalRank, String scoreVersion,
+                         Map<String, Object> quickSummary, Instant lastSyncAll,
+                         String githubKey, Integer publicRepos, Integer totalStars, Integer totalCommitsYearly,
+                         Instant githubSynced,
+                         String leetcodeKey, Integer globalRanking, Integer totalSolved, Integer easySolved,
+                         Integer mediumSolved, Integer hardSolved, Instant leetcodeSynced) {
+        this(username, nexusScore, globalRank, scoreVersion, quickSummary, lastSyncAll,
+                githubKey, publicRepos, totalStars, totalCommitsYearly, githubSynced, null, null,
+                leetcodeKey, globalRanking, totalSolved, easySolved, mediumSolved, hardSolved, leetcodeSynced,
+                null, null);
+    }
+
+    private static Map<String, Object> payload(Map<String, Object> json, CompressedJson packed) {
+        if (json != null) return json;
+        return packed != null ? packed.toMap() : null;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.rathaur.nexus.statsservice.entity;
+
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A JSON document kept deflate-compressed, as stored in the {@code *_packed} bytea columns.
+ * Loading a row only carries the compressed bytes; they are inflated when {@link #toMap()} is
+ * called, which only the raw telemetry reads do.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+public final class CompressedJson {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+
+    private final byte[] bytes;
+
+    private CompressedJson(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /** Wraps bytes read from the database; null stays null. */
+    public static CompressedJson wrap(byte[] stored) {
+        return stored != null ? new CompressedJson(stored) : null;
+    }
+
+    public static CompressedJson deflate(byte[] json) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)) {
+            stream.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return new CompressedJson(out.toByteArray());
+    }
+
+    /** The compressed form, as written to the column. */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public byte[] inflate() {
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt compressed JSON (" + bytes.length + " bytes)", e);
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        return MAPPER.readValue(inflate(), MAP);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CompressedJson other && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedJson[" + bytes.length + " bytes]";
+    }
+}
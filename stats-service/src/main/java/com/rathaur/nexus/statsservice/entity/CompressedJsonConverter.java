@@ -0,0 +1,25 @@
+package com.rathaur.nexus.statsservice.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Maps {@link CompressedJson} to a bytea column as-is: compression happens when the value is
+ * built and inflation when it is read, never inside Hibernate's load or flush.
+ * Immutable, so dirty checking compares bytes instead of copying them.
+ */
+@Immutable
+@Converter
+public class CompressedJsonConverter implements AttributeConverter<CompressedJson, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(CompressedJson attribute) {
+        return attribute != null ? attribute.bytes() : null;
+    }
+
+    @Override
+    public CompressedJson convertToEntityAttribute(byte[] dbData) {
+        return CompressedJson.wrap(dbData);
+    }
+}
@@ -0,0 +1,44 @@
+package com.rathaur.nexus.statsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Narrow daily contribution series extracted from the GitHub contribution calendar on each sync.
+ * The primary key (username, day) clusters a user's history, so streak, rolling and heatmap
+ * queries are single range scans regardless of how many years are stored.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "contribution_day")
+@IdClass(ContributionDayRecord.Key.class)
+public class ContributionDayRecord {
+
+    @Id
+    @Column(name = "username", length = 100, nullable = false)
+    private String username;
+
+    @Id
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "contribution_count", nullable = false)
+    private int contributionCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String username;
+        private LocalDate day;
+    }
+}
@@ -43,6 +43,11 @@ public class GitHubStats {
     @Column(name = "telemetry", columnDefinition = "jsonb")
     private Map<String, Object> telemetry;
 
+    /** Same payload, deflated; used instead of {@link #telemetry} when nexus.storage.compress-telemetry=true. */
+    @Convert(converter = CompressedJsonConverter.class)
+    @Column(name = "telemetry_packed", columnDefinition = "bytea")
+    private CompressedJson telemetryPacked;
+
     @Column(name = "last_synced")
     private Instant lastSynced;
 
@@ -0,0 +1,44 @@
+package com.rathaur.nexus.statsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Membership of a user in a segment leaderboard ("lang:java", "loc:india") with a copy of their
+ * score, so a segment board is one range scan on (segment, nexus_score) instead of a JSONB scan.
+ * Memberships are replaced on every GitHub sync; the score copy follows every score change.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+// Schema and indexes are owned by the Flyway migrations (db/migration/V1__baseline.sql)
+@Table(name = "leaderboard_segment")
+@IdClass(LeaderboardSegment.Key.class)
+public class LeaderboardSegment {
+
+    @Id
+    @Column(name = "segment", length = 120, nullable = false)
+    private String segment;
+
+    @Id
+    @Column(name = "username", length = 100, nullable = false)
+    private String username;
+
+    @Column(name = "nexus_score", nullable = false)
+    private Double nexusScore;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String segment;
+        private String username;
+    }
+}
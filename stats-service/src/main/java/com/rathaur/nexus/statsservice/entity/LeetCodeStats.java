@@ -40,6 +40,11 @@ public class LeetCodeStats {
     @Column(name = "advanced_metrics", columnDefinition = "jsonb")
     private Map<String, Object> advancedMetrics;
 
+    /** Same payload, deflated; used instead of {@link #advancedMetrics} when nexus.storage.compress-telemetry=true. */
+    @Convert(converter = CompressedJsonConverter.class)
+    @Column(name = "advanced_metrics_packed", columnDefinition = "bytea")
+    private CompressedJson advancedMetricsPacked;
+
     @Column(name = "last_synced")
     private Instant lastSynced;
 
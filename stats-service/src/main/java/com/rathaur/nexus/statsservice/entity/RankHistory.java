@@ -0,0 +1,47 @@
+package com.rathaur.nexus.statsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One point of a user's rank/score series. Append-only and written only when a ranking pass
+ * changed the user's rank or score, so a user whose standing is flat costs no rows.
+ * The primary key (username, recorded_at) is also the index the history endpoint scans.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "rank_history")
+@IdClass(RankHistory.Key.class)
+public class RankHistory {
+
+    @Id
+    @Column(name = "username", length = 100, nullable = false)
+    private String username;
+
+    @Id
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    @Column(name = "global_rank")
+    private Integer globalRank;
+
+    @Column(name = "nexus_score", nullable = false)
+    private Double nexusScore;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String username;
+        private Instant recordedAt;
+    }
+}
@@ -0,0 +1,46 @@
+package com.rathaur.nexus.statsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Append-only record of a Nexus score change, written in the same transaction as the score.
+ * The ranking engine consumes and prunes it to re-rank only the affected score band.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "score_change_log")
+public class ScoreChangeLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "username", length = 100, nullable = false)
+    private String username;
+
+    // Null when the user had no score before (new master record)
+    @Column(name = "old_score")
+    private Double oldScore;
+
+    @Column(name = "new_score", nullable = false)
+    private Double newScore;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @PrePersist
+    void onCreate() {
+        if (this.changedAt == null) this.changedAt = Instant.now();
+    }
+}
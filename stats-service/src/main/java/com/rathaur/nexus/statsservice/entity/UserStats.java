@@ -20,6 +20,7 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// Schema and indexes are owned by the Flyway migrations (db/migration, starting at V1__baseline.sql)
 @Table(name = "user_stats")
 public class UserStats {
 
@@ -35,10 +36,25 @@ public class UserStats {
 
     private Integer globalRank;
 
+    // Scoring model version nexus_score was computed with (see nexus.scoring.*)
+    @Column(name = "score_version", length = 32)
+    private String scoreVersion;
+
+    // Provider handles from the last sync, so background refreshes can re-sync without user input
+    @Column(name = "github_handle", length = 100)
+    private String githubHandle;
+
+    @Column(name = "leetcode_handle", length = 100)
+    private String leetcodeHandle;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "quick_summary", columnDefinition = "jsonb")
     private Map<String, Object> quickSummary;
 
+    // Generated by Postgres from quick_summary ->> 'current_status' (V2 migration); read-only here
+    @Column(name = "current_status", insertable = false, updatable = false)
+    private String currentStatus;
+
     @OneToOne(mappedBy = "userStats", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private GitHubStats githubStats;
 
@@ -51,6 +67,13 @@ public class UserStats {
     @Column(name = "last_sync_all")
     private Instant lastSyncAll;
 
+    // Background refresh backoff (V6 migration): failed refreshes in a row, and when to retry
+    @Column(name = "refresh_failures", nullable = false)
+    private int refreshFailures;
+
+    @Column(name = "refresh_retry_at")
+    private Instant refreshRetryAt;
+
     @PrePersist
     void onCreate() {
         this.createdAt = Instant.now();
@@ -0,0 +1,12 @@
+package com.rathaur.nexus.statsservice.event;
+
+/**
+ * Published by {@code StatsPersistenceService} when a user's Nexus score is recalculated to a
+ * different value. Listeners that mirror scores outside the database should react after commit.
+ *
+ * Also published when a master row is created, as a change from {@code null} to 0.
+ *
+ * @param oldScore score before the recalculation, {@code null} for a user that had none
+ */
+public record NexusScoreChangedEvent(String username, Double oldScore, double newScore) {
+}
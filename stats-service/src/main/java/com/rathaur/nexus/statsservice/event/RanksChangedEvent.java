@@ -0,0 +1,9 @@
+package com.rathaur.nexus.statsservice.event;
+
+import java.util.List;
+
+/**
+ * Published after a ranking pass has committed, with every user whose global rank moved.
+ */
+public record RanksChangedEvent(List<String> usernames) {
+}
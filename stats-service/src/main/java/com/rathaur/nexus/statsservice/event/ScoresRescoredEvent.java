@@ -0,0 +1,8 @@
+package com.rathaur.nexus.statsservice.event;
+
+/**
+ * Published after a bulk re-score finishes. Individual score events are not published for bulk
+ * writes, so listeners holding score-derived state should rebuild from the database.
+ */
+public record ScoresRescoredEvent(String version, long changed) {
+}
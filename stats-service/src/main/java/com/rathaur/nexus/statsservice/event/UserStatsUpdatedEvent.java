@@ -0,0 +1,7 @@
+package com.rathaur.nexus.statsservice.event;
+
+/**
+ * Published inside the transaction that wrote a user's stats; listen AFTER_COMMIT.
+ */
+public record UserStatsUpdatedEvent(String username) {
+}
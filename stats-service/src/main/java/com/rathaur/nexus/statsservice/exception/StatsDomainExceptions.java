@@ -36,4 +36,49 @@ public class StatsDomainExceptions {
             super(message);
         }
     }
+
+    /**
+     * Thrown when the background sync queue is full and a new job cannot be accepted.
+     */
+    public static class SyncQueueFullException extends RuntimeException {
+        public SyncQueueFullException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when a leaderboard cursor or rank range cannot be used.
+     */
+    public static class InvalidLeaderboardQueryException extends RuntimeException {
+        public InvalidLeaderboardQueryException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when a contribution range or rolling window cannot be served.
+     */
+    public static class InvalidContributionQueryException extends RuntimeException {
+        public InvalidContributionQueryException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when a bulk re-score is requested while another one is still running.
+     */
+    public static class RescoreInProgressException extends RuntimeException {
+        public RescoreInProgressException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when a provider's circuit breaker is open or its bulkhead is full.
+     */
+    public static class ProviderUnavailableException extends RuntimeException {
+        public ProviderUnavailableException(String message) {
+            super(message);
+        }
+    }
 }
\ No newline at end of file
@@ -53,4 +53,41 @@ public class StatsExceptionHandler extends BaseExceptionHandler {
                 .body(ApiResponse.fail("External API Limit Reached", error, getTraceId()));
     }
 
+    @ExceptionHandler(StatsDomainExceptions.SyncQueueFullException.class)
+    public ResponseEntity<ApiResponse<Void>> handleQueueFull(StatsDomainExceptions.SyncQueueFullException ex) {
+        ApiError error = new ApiError("SYNC_QUEUE_FULL", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "30")
+                .body(ApiResponse.fail("Sync Capacity Exhausted", error, getTraceId()));
+    }
+
+    @ExceptionHandler(StatsDomainExceptions.InvalidLeaderboardQueryException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBadLeaderboardQuery(StatsDomainExceptions.InvalidLeaderboardQueryException ex) {
+        ApiError error = new ApiError("INVALID_LEADERBOARD_QUERY", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.fail("Invalid Leaderboard Query", error, getTraceId()));
+    }
+
+    @ExceptionHandler(StatsDomainExceptions.InvalidContributionQueryException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBadContributionQuery(StatsDomainExceptions.InvalidContributionQueryException ex) {
+        ApiError error = new ApiError("INVALID_CONTRIBUTION_QUERY", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.fail("Invalid Contribution Query", error, getTraceId()));
+    }
+
+    @ExceptionHandler(StatsDomainExceptions.RescoreInProgressException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRescoreInProgress(StatsDomainExceptions.RescoreInProgressException ex) {
+        ApiError error = new ApiError("RESCORE_IN_PROGRESS", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.fail("Re-score Already Running", error, getTraceId()));
+    }
+
+    @ExceptionHandler(StatsDomainExceptions.ProviderUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleProviderUnavailable(StatsDomainExceptions.ProviderUnavailableException ex) {
+        ApiError error = new ApiError("PROVIDER_UNAVAILABLE", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body(ApiResponse.fail("External Provider Unavailable", error, getTraceId()));
+    }
+
 }
\ No newline at end of file
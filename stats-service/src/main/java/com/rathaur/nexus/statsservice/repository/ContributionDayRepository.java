@@ -0,0 +1,81 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.entity.ContributionDayRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Range reads over the contribution_day series. Writes go through {@link ContributionUpsertRepository}.
+ */
+public interface ContributionDayRepository extends JpaRepository<ContributionDayRecord, ContributionDayRecord.Key> {
+
+    interface DayCount {
+        LocalDate getDay();
+        Integer getContributionCount();
+    }
+
+    interface DayTotal {
+        LocalDate getDay();
+        Long getTotal();
+    }
+
+    @Query(value = """
+        SELECT day, contribution_count AS contributionCount
+        FROM contribution_day
+        WHERE username = :username AND day BETWEEN :fromDay AND :toDay
+        ORDER BY day
+        """, nativeQuery = true)
+    List<DayCount> findRange(String username, LocalDate fromDay, LocalDate toDay);
+
+    /**
+     * Active days walking backwards from {@code upTo}; the caller stops reading at the first gap.
+     */
+    @Query(value = """
+        SELECT day, contribution_count AS contributionCount
+        FROM contribution_day
+        WHERE username = :username AND day <= :upTo AND contribution_count > 0
+        ORDER BY day DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<DayCount> findActiveDaysBackwards(String username, LocalDate upTo, int limit);
+
+    /**
+     * Longest run of consecutive active days (gaps and islands: day minus row number is constant
+     * within a run).
+     */
+    @Query(value = """
+        SELECT COALESCE(MAX(run_length), 0) FROM (
+            SELECT COUNT(*) AS run_length
+            FROM (
+                SELECT day - CAST(ROW_NUMBER() OVER (ORDER BY day) AS integer) AS island
+                FROM contribution_day
+                WHERE username = :username AND contribution_count > 0
+            ) days
+            GROUP BY island
+        ) runs
+        """, nativeQuery = true)
+    int findLongestStreak(String username);
+
+    /**
+     * Trailing {@code windowDays}-day sum for every stored day in [fromDay, toDay]. Reads
+     * windowDays - 1 extra days before fromDay so the first values are complete.
+     */
+    @Query(value = """
+        SELECT day, total FROM (
+            SELECT day,
+                   SUM(contribution_count) OVER (
+                       ORDER BY day
+                       RANGE BETWEEN make_interval(days => :windowDays - 1) PRECEDING AND CURRENT ROW
+                   ) AS total
+            FROM contribution_day
+            WHERE username = :username
+              AND day BETWEEN CAST(:fromDay AS date) - (:windowDays - 1) AND :toDay
+        ) rolling
+        WHERE day >= :fromDay
+        ORDER BY day
+        """, nativeQuery = true)
+    List<DayTotal> findRollingSums(String username, LocalDate fromDay, LocalDate toDay, int windowDays);
+}
@@ -0,0 +1,50 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.client.model.ContributionDay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a synced contribution calendar into contribution_day as one JDBC batch.
+ * Each sync brings the past year of days (GitHub's default calendar range, zero days included),
+ * so consecutive syncs overlap almost entirely; days whose count did not change are skipped by
+ * the WHERE clause and cost no new row versions. Older days are kept, so history grows past a
+ * year for users who keep syncing; a user not synced for over a year has a hole with no rows.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContributionUpsertRepository {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO contribution_day (username, day, contribution_count)
+        VALUES (?, ?, ?)
+        ON CONFLICT (username, day) DO UPDATE SET contribution_count = EXCLUDED.contribution_count
+        WHERE contribution_day.contribution_count <> EXCLUDED.contribution_count
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    public void upsert(String username, List<ContributionDay> days) {
+        upsertAll(Map.of(username, days));
+    }
+
+    /** Calendars of many users as a single batch, for the bulk sync pipeline. */
+    public void upsertAll(Map<String, List<ContributionDay>> daysByUser) {
+        List<Map.Entry<String, ContributionDay>> rows = new ArrayList<>();
+        daysByUser.forEach((username, days) -> days.forEach(d -> rows.add(Map.entry(username, d))));
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.getKey());
+            ps.setDate(2, Date.valueOf(row.getValue().day()));
+            ps.setInt(3, row.getValue().count());
+        });
+    }
+}
@@ -13,12 +13,18 @@ public interface GitHubStatsRepository extends JpaRepository<GitHubStats, String
 
     Optional<GitHubStats> findByUsername(String username);
 
+    /** SQL of {@link #findJavaExperts()}, shared with QueryPlanRegressionTest so the plan checked is the one served. */
+    String JAVA_EXPERTS_SQL = """
+        SELECT g.* FROM leaderboard_segment s
+        JOIN github_stats g ON g.username = s.username
+        WHERE s.segment = 'lang:java'
+        ORDER BY s.nexus_score DESC, s.username
+        """;
+
     /**
-     * FUTURISTIC QUERY:
-     * Digs inside the 'telemetry' JSON blob to find users whose top language is Java.
-     * This proves you don't need a column for everything!
+     * Users whose recent repos include Java, best score first.
+     * Served by the lang:java segment index instead of scanning telemetry JSON.
      */
-    @Query(value = "SELECT * FROM github_stats g WHERE g.telemetry -> 'top_languages' ->> 0 LIKE '%Java%'",
-            nativeQuery = true)
+    @Query(value = JAVA_EXPERTS_SQL, nativeQuery = true)
     List<GitHubStats> findJavaExperts();
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.entity.LeaderboardSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LeaderboardSegmentRepository extends JpaRepository<LeaderboardSegment, LeaderboardSegment.Key> {
+
+    interface SegmentRow {
+        String getUsername();
+        Double getNexusScore();
+    }
+
+    /**
+     * Top of one segment board. Index-only scan on idx_segment_score.
+     */
+    @Query(value = """
+        SELECT username, nexus_score AS nexusScore
+        FROM leaderboard_segment
+        WHERE segment = :segment
+        ORDER BY nexus_score DESC, username
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<SegmentRow> findTopBySegment(String segment, int limit);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM leaderboard_segment
+        WHERE username = :username AND segment NOT IN (:keep)
+        """, nativeQuery = true)
+    int deleteOtherSegments(String username, Collection<String> keep);
+
+    @Modifying
+    @Query(value = "DELETE FROM leaderboard_segment WHERE username = :username", nativeQuery = true)
+    int deleteAllSegments(String username);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO leaderboard_segment (segment, username, nexus_score)
+        VALUES (:segment, :username, :score)
+        ON CONFLICT (segment, username) DO UPDATE SET nexus_score = EXCLUDED.nexus_score
+        """, nativeQuery = true)
+    void upsert(String segment, String username, double score);
+
+    /** Keeps the score copy in step with user_stats; a no-op for users in no segment. */
+    @Modifying
+    @Query(value = "UPDATE leaderboard_segment SET nexus_score = :score WHERE username = :username", nativeQuery = true)
+    int updateScore(String username, double score);
+}
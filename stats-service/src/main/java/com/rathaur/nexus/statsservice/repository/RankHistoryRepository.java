@@ -0,0 +1,26 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.entity.RankHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RankHistoryRepository extends JpaRepository<RankHistory, RankHistory.Key> {
+
+    /**
+     * A user's points since {@code since}, plus the last point before it so the series has a
+     * starting value. One range scan on the primary key.
+     */
+    @Query(value = """
+        SELECT * FROM rank_history
+        WHERE username = :username
+          AND recorded_at >= COALESCE(
+                (SELECT MAX(recorded_at) FROM rank_history
+                 WHERE username = :username AND recorded_at < :since),
+                :since)
+        ORDER BY recorded_at
+        """, nativeQuery = true)
+    List<RankHistory> findSeries(String username, Instant since);
+}
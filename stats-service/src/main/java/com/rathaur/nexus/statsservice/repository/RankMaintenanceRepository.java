@@ -0,0 +1,111 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Rank writes that need UPDATE ... RETURNING, which Spring Data @Modifying queries cannot express.
+ * Both statements only write rows whose rank actually moved (IS DISTINCT FROM), so an unchanged
+ * leaderboard costs reads but no row versions. Every moved rank is appended to rank_history in
+ * the same statement, so history only grows with actual changes.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Repository
+@RequiredArgsConstructor
+public class RankMaintenanceRepository {
+
+    private static final String UPDATE_AND_RECORD = """
+        updated AS (
+            UPDATE user_stats u
+            SET global_rank = ranked.calculated_rank
+            FROM ranked
+            WHERE u.username = ranked.username
+              AND u.global_rank IS DISTINCT FROM ranked.calculated_rank
+            RETURNING u.username, u.global_rank, u.nexus_score
+        )
+        INSERT INTO rank_history (username, recorded_at, global_rank, nexus_score)
+        SELECT username, :recordedAt, global_rank, nexus_score FROM updated
+        RETURNING username
+        """;
+
+    /**
+     * Re-ranks only users with a score in [lo, hi]. A score change from a to b can only move
+     * users scored between a and b: everyone above still has the same number of users above them,
+     * and so does everyone below. Their rank is the count above the band plus the rank within it.
+     */
+    private static final String RERANK_BAND_SQL = """
+        WITH above AS (
+            SELECT COUNT(*) AS cnt FROM user_stats WHERE nexus_score > :hi
+        ),
+        ranked AS (
+            SELECT username,
+                   (SELECT cnt FROM above) + RANK() OVER (ORDER BY nexus_score DESC) AS calculated_rank
+            FROM user_stats
+            WHERE nexus_score BETWEEN :lo AND :hi
+        ),
+        """ + UPDATE_AND_RECORD;
+
+    private static final String RERANK_ALL_SQL = """
+        WITH ranked AS (
+            SELECT username, RANK() OVER (ORDER BY nexus_score DESC) AS calculated_rank
+            FROM user_stats
+        ),
+        """ + UPDATE_AND_RECORD;
+
+    /**
+     * Users whose score changed but whose rank did not still get a history point. Runs after the
+     * re-rank statements of the same pass; users already recorded by them are skipped.
+     */
+    private static final String RECORD_SCORE_CHANGES_SQL = """
+        INSERT INTO rank_history (username, recorded_at, global_rank, nexus_score)
+        SELECT u.username, :recordedAt, u.global_rank, u.nexus_score
+        FROM user_stats u
+        WHERE u.username IN (SELECT c.username FROM score_change_log c WHERE c.id <= :maxId)
+        ON CONFLICT (username, recorded_at) DO NOTHING
+        """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /** @return usernames whose rank changed */
+    public List<String> rerankBand(double lo, double hi, Instant recordedAt) {
+        return jdbc.queryForList(RERANK_BAND_SQL,
+                new MapSqlParameterSource()
+                        .addValue("lo", lo)
+                        .addValue("hi", hi)
+                        .addValue("recordedAt", Timestamp.from(recordedAt)),
+                String.class);
+    }
+
+    /** @return usernames whose rank changed */
+    public List<String> rerankAll(Instant recordedAt) {
+        return jdbc.queryForList(RERANK_ALL_SQL,
+                new MapSqlParameterSource("recordedAt", Timestamp.from(recordedAt)),
+                String.class);
+    }
+
+    /** @return number of score-only history points written */
+    public int recordScoreChanges(long maxId, Instant recordedAt) {
+        return jdbc.update(RECORD_SCORE_CHANGES_SQL, new MapSqlParameterSource()
+                .addValue("maxId", maxId)
+                .addValue("recordedAt", Timestamp.from(recordedAt)));
+    }
+
+    /** Drops history points older than the cutoff, except each user's latest point before it. */
+    public int pruneHistory(Instant before) {
+        return jdbc.update("""
+            DELETE FROM rank_history h
+            WHERE h.recorded_at < :before
+              AND EXISTS (SELECT 1 FROM rank_history n
+                          WHERE n.username = h.username
+                            AND n.recorded_at > h.recorded_at
+                            AND n.recorded_at <= :before)
+            """, new MapSqlParameterSource("before", Timestamp.from(before)));
+    }
+}
@@ -0,0 +1,329 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.client.model.ContributionDay;
+import com.rathaur.nexus.statsservice.dto.UserStatsView;
+import com.rathaur.nexus.statsservice.entity.CompressedJson;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository.RecalcSource;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository.ScoreRow;
+import com.rathaur.nexus.statsservice.scoring.ScoreInputs;
+import io.r2dbc.postgresql.codec.Json;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * R2DBC access to user_stats, github_stats and leetcode_stats (plus the score log, segments and
+ * contribution days a sync touches) for the {@code reactive} profile. The statements mirror
+ * {@link StatsBatchRepository} one user at a time, so both stacks write identical rows; score
+ * writes bump the JPA @Version column so the blocking paths never overwrite them blindly.
+ * Nothing here opens a transaction: callers wrap the returned publishers in a TransactionalOperator.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveStatsRepository {
+
+    private static final String MASTER_SQL = """
+        INSERT INTO user_stats (username, version, nexus_score, github_handle, leetcode_handle, created_at)
+        VALUES (:username, 0, 0, :github, :leetcode, now())
+        ON CONFLICT (username) DO UPDATE SET
+            github_handle = COALESCE(EXCLUDED.github_handle, user_stats.github_handle),
+            leetcode_handle = COALESCE(EXCLUDED.leetcode_handle, user_stats.leetcode_handle),
+            version = user_stats.version + 1
+        WHERE (EXCLUDED.github_handle IS NOT NULL AND EXCLUDED.github_handle IS DISTINCT FROM user_stats.github_handle)
+           OR (EXCLUDED.leetcode_handle IS NOT NULL AND EXCLUDED.leetcode_handle IS DISTINCT FROM user_stats.leetcode_handle)
+        RETURNING (xmax = 0) AS inserted
+        """;
+
+    private static final String GITHUB_SQL = """
+        INSERT INTO github_stats (username, public_repos, total_stars, total_commits_yearly, telemetry,
+                                  telemetry_packed, last_synced)
+        VALUES (:username, :repos, :stars, :commits, CAST(:telemetry AS jsonb), :packed, now())
+        ON CONFLICT (username) DO UPDATE SET
+            public_repos = EXCLUDED.public_repos,
+            total_stars = EXCLUDED.total_stars,
+            total_commits_yearly = EXCLUDED.total_commits_yearly,
+            telemetry = EXCLUDED.telemetry,
+            telemetry_packed = EXCLUDED.telemetry_packed,
+            last_synced = EXCLUDED.last_synced
+        """;
+
+    private static final String LEETCODE_SQL = """
+        INSERT INTO leetcode_stats (username, global_ranking, total_solved, easy_solved, medium_solved, hard_solved,
+                                    advanced_metrics, advanced_metrics_packed, last_synced)
+        VALUES (:username, :ranking, :total, :easy, :medium, :hard, CAST(:metrics AS jsonb), :packed, now())
+        ON CONFLICT (username) DO UPDATE SET
+            global_ranking = EXCLUDED.global_ranking,
+            total_solved = EXCLUDED.total_solved,
+            easy_solved = EXCLUDED.easy_solved,
+            medium_solved = EXCLUDED.medium_solved,
+            hard_solved = EXCLUDED.hard_solved,
+            advanced_metrics = EXCLUDED.advanced_metrics,
+            advanced_metrics_packed = EXCLUDED.advanced_metrics_packed,
+            last_synced = EXCLUDED.last_synced
+        """;
+
+    // Row lock on the master: the GitHub and LeetCode halves of one sync recalc one after the other
+    private static final String SOURCE_SQL = """
+        SELECT u.username, u.nexus_score,
+               g.username IS NOT NULL              AS has_github,
+               COALESCE(g.public_repos, 0)         AS public_repos,
+               COALESCE(g.total_stars, 0)          AS total_stars,
+               COALESCE(g.total_commits_yearly, 0) AS total_commits_yearly,
+               COALESCE(l.easy_solved, 0)          AS easy_solved,
+               COALESCE(l.medium_solved, 0)        AS medium_solved,
+               COALESCE(l.hard_solved, 0)          AS hard_solved,
+               COALESCE(l.total_solved, 0)         AS total_solved
+        FROM user_stats u
+        LEFT JOIN github_stats g ON g.username = u.username
+        LEFT JOIN leetcode_stats l ON l.username = u.username
+        WHERE u.username = :username
+        FOR UPDATE OF u
+        """;
+
+    private static final String SCORE_SQL = """
+        UPDATE user_stats
+        SET nexus_score = :score, score_version = :version,
+            quick_summary = COALESCE(CAST(:summary AS jsonb), quick_summary),
+            version = version + 1
+        WHERE username = :username
+        """;
+
+    private static final String LOG_SQL = """
+        INSERT INTO score_change_log (username, old_score, new_score, changed_at)
+        VALUES (:username, :oldScore, :newScore, now())
+        """;
+
+    private static final String SEGMENT_SCORE_SQL = """
+        UPDATE leaderboard_segment SET nexus_score = :score WHERE username = :username
+        """;
+
+    private static final String SEGMENT_PRUNE_SQL = """
+        DELETE FROM leaderboard_segment WHERE username = :username AND NOT (segment = ANY(:segments))
+        """;
+
+    // Native $n placeholders: these run as multi-binding R2DBC statements, outside DatabaseClient's named parameters
+    private static final String SEGMENT_UPSERT_SQL = """
+        INSERT INTO leaderboard_segment (segment, username, nexus_score)
+        VALUES ($1, $2, $3)
+        ON CONFLICT (segment, username) DO UPDATE SET nexus_score = EXCLUDED.nexus_score
+        """;
+
+    private static final String CONTRIBUTION_SQL = """
+        INSERT INTO contribution_day (username, day, contribution_count)
+        VALUES ($1, $2, $3)
+        ON CONFLICT (username, day) DO UPDATE SET contribution_count = EXCLUDED.contribution_count
+        WHERE contribution_day.contribution_count <> EXCLUDED.contribution_count
+        """;
+
+    private static final String VIEW_SQL = """
+        SELECT u.username, u.nexus_score, u.global_rank, u.score_version, u.quick_summary, u.last_sync_all,
+               g.username AS github_key, g.public_repos, g.total_stars, g.total_commits_yearly,
+               g.last_synced AS github_synced, %s AS telemetry, %s AS telemetry_packed,
+               l.username AS leetcode_key, l.global_ranking, l.total_solved, l.easy_solved, l.medium_solved,
+               l.hard_solved, l.last_synced AS leetcode_synced, %s AS advanced_metrics,
+               %s AS advanced_metrics_packed
+        FROM user_stats u
+        LEFT JOIN github_stats g ON g.username = u.username
+        LEFT JOIN leetcode_stats l ON l.username = u.username
+        WHERE u.username = :username
+        """;
+
+    // The JSONB blobs only leave the database when explicitly requested, as in UserStatsRepository
+    private static final String VIEW_PLAIN_SQL = VIEW_SQL.formatted("NULL::jsonb", "NULL::bytea", "NULL::jsonb", "NULL::bytea");
+    private static final String VIEW_TELEMETRY_SQL = VIEW_SQL.formatted(
+            "g.telemetry", "g.telemetry_packed", "l.advanced_metrics", "l.advanced_metrics_packed");
+
+    private final DatabaseClient db;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates the master if missing and records changed handles.
+     *
+     * @return true when the master was created
+     */
+    public Mono<Boolean> upsertMaster(String username, String githubHandle, String leetcodeHandle) {
+        return db.sql(MASTER_SQL)
+                .bind("username", username)
+                .bind("github", Parameter.fromOrEmpty(githubHandle, String.class))
+                .bind("leetcode", Parameter.fromOrEmpty(leetcodeHandle, String.class))
+                .map(row -> Boolean.TRUE.equals(row.get("inserted", Boolean.class)))
+                .one()
+                // No row back: the master existed and its handles were unchanged
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Void> upsertGitHub(String username, int publicRepos, int totalStars, int totalCommitsYearly,
+                                   String telemetryJson, byte[] telemetryPacked) {
+        return db.sql(GITHUB_SQL)
+                .bind("username", username)
+                .bind("repos", publicRepos)
+                .bind("stars", totalStars)
+                .bind("commits", totalCommitsYearly)
+                .bind("telemetry", Parameter.fromOrEmpty(telemetryJson, String.class))
+                .bind("packed", Parameter.fromOrEmpty(telemetryPacked, byte[].class))
+                .then();
+    }
+
+    public Mono<Void> upsertLeetCode(String username, Integer globalRanking, int totalSolved, int easySolved,
+                                     int mediumSolved, int hardSolved, String metricsJson,
+                                     byte[] metricsPacked) {
+        return db.sql(LEETCODE_SQL)
+                .bind("username", username)
+                .bind("ranking", Parameter.fromOrEmpty(globalRanking, Integer.class))
+                .bind("total", totalSolved)
+                .bind("easy", easySolved)
+                .bind("medium", mediumSolved)
+                .bind("hard", hardSolved)
+                .bind("metrics", Parameter.fromOrEmpty(metricsJson, String.class))
+                .bind("packed", Parameter.fromOrEmpty(metricsPacked, byte[].class))
+                .then();
+    }
+
+    public Mono<RecalcSource> lockRecalcSource(String username) {
+        return db.sql(SOURCE_SQL)
+                .bind("username", username)
+                .map(row -> new RecalcSource(
+                        row.get("username", String.class),
+                        row.get("nexus_score", Double.class),
+                        Boolean.TRUE.equals(row.get("has_github", Boolean.class)),
+                        new ScoreInputs(
+                                intOf(row, "public_repos"),
+                                intOf(row, "total_stars"),
+                                intOf(row, "total_commits_yearly"),
+                                intOf(row, "easy_solved"),
+                                intOf(row, "medium_solved"),
+                                intOf(row, "hard_solved")),
+                        intOf(row, "total_solved")))
+                .one();
+    }
+
+    /**
+     * Writes the score and summary; a moved score also gets a change-log entry and its segment
+     * score copies updated, as in {@link StatsBatchRepository#applyScores}.
+     */
+    public Mono<Void> applyScore(String version, ScoreRow row) {
+        Mono<Void> update = db.sql(SCORE_SQL)
+                .bind("score", row.newScore())
+                .bind("version", version)
+                .bind("summary", Parameter.fromOrEmpty(row.quickSummaryJson(), String.class))
+                .bind("username", row.username())
+                .then();
+
+        if (row.oldScore() != null && row.oldScore() == row.newScore()) {
+            return update;
+        }
+        return update
+                .then(logScoreChange(row.username(), row.oldScore(), row.newScore()))
+                .then(db.sql(SEGMENT_SCORE_SQL)
+                        .bind("score", row.newScore())
+                        .bind("username", row.username())
+                        .then());
+    }
+
+    public Mono<Void> logScoreChange(String username, Double oldScore, double newScore) {
+        return db.sql(LOG_SQL)
+                .bind("username", username)
+                .bind("oldScore", Parameter.fromOrEmpty(oldScore, Double.class))
+                .bind("newScore", newScore)
+                .then();
+    }
+
+    /**
+     * Sets the user's segment memberships to exactly {@code segments} at {@code score}.
+     */
+    public Mono<Void> replaceSegments(String username, Set<String> segments, double score) {
+        List<Object[]> rows = segments.stream().map(s -> new Object[]{s, username, score}).toList();
+        return db.sql(SEGMENT_PRUNE_SQL)
+                .bind("username", username)
+                .bind("segments", segments.toArray(String[]::new))
+                .then()
+                .then(batch(SEGMENT_UPSERT_SQL, rows));
+    }
+
+    public Mono<Void> upsertContributions(String username, List<ContributionDay> days) {
+        List<Object[]> rows = days.stream().map(d -> new Object[]{username, d.day(), d.count()}).toList();
+        return batch(CONTRIBUTION_SQL, rows);
+    }
+
+    public Mono<Void> markSyncCompleted(String username) {
+        return db.sql("""
+                UPDATE user_stats
+                SET last_sync_all = now(), refresh_failures = 0, refresh_retry_at = NULL, version = version + 1
+                WHERE username = :username
+                """)
+                .bind("username", username)
+                .then();
+    }
+
+    public Mono<UserStatsView> findView(String username, boolean withTelemetry) {
+        return db.sql(withTelemetry ? VIEW_TELEMETRY_SQL : VIEW_PLAIN_SQL)
+                .bind("username", username)
+                .map(row -> new UserStatsView(
+                        row.get("username", String.class),
+                        row.get("nexus_score", Double.class),
+                        row.get("global_rank", Integer.class),
+                        row.get("score_version", String.class),
+                        jsonOf(row, "quick_summary"),
+                        row.get("last_sync_all", Instant.class),
+                        row.get("github_key", String.class),
+                        row.get("public_repos", Integer.class),
+                        row.get("total_stars", Integer.class),
+                        row.get("total_commits_yearly", Integer.class),
+                        row.get("github_synced", Instant.class),
+                        jsonOf(row, "telemetry"),
+                        CompressedJson.wrap(row.get("telemetry_packed", byte[].class)),
+                        row.get("leetcode_key", String.class),
+                        row.get("global_ranking", Integer.class),
+                        row.get("total_solved", Integer.class),
+                        row.get("easy_solved", Integer.class),
+                        row.get("medium_solved", Integer.class),
+                        row.get("hard_solved", Integer.class),
+                        row.get("leetcode_synced", Instant.class),
+                        jsonOf(row, "advanced_metrics"),
+                        CompressedJson.wrap(row.get("advanced_metrics_packed", byte[].class))))
+                .one();
+    }
+
+    /** One statement, one binding per row, one round trip. */
+    private Mono<Void> batch(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) return Mono.empty();
+        return db.inConnectionMany(con -> {
+            Statement statement = con.createStatement(sql);
+            for (int i = 0; i < rows.size(); i++) {
+                if (i > 0) statement.add();
+                Object[] row = rows.get(i);
+                for (int p = 0; p < row.length; p++) {
+                    statement.bind(p, row[p]);
+                }
+            }
+            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+        }).then();
+    }
+
+    private static int intOf(Readable row, String column) {
+        Integer value = row.get(column, Integer.class);
+        return value != null ? value : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> jsonOf(Readable row, String column) {
+        Json json = row.get(column, Json.class);
+        return json != null ? objectMapper.readValue(json.asString(), Map.class) : null;
+    }
+}
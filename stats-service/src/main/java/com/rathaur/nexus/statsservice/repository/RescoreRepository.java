@@ -0,0 +1,124 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.scoring.ScoreInputs;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain-JDBC access for the bulk re-score job. Reads the score inputs of many users with one
+ * joined query and writes scores back in JDBC batches, bypassing entity loading entirely.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Repository
+@RequiredArgsConstructor
+public class RescoreRepository {
+
+    /** One user's current score and the counters it is computed from. */
+    public record ScoreSource(String username, long version, double currentScore, ScoreInputs inputs) {
+    }
+
+    /** New score for a user, applied only if the row version is still {@code expectedVersion}. */
+    public record ScoreWrite(String username, long expectedVersion, double oldScore, double newScore) {
+    }
+
+    private static final String CHUNK_SQL = """
+        SELECT u.username, u.version, u.nexus_score,
+               COALESCE(g.public_repos, 0)         AS public_repos,
+               COALESCE(g.total_stars, 0)          AS total_stars,
+               COALESCE(g.total_commits_yearly, 0) AS total_commits_yearly,
+               COALESCE(l.easy_solved, 0)          AS easy_solved,
+               COALESCE(l.medium_solved, 0)        AS medium_solved,
+               COALESCE(l.hard_solved, 0)          AS hard_solved
+        FROM user_stats u
+        LEFT JOIN github_stats g ON g.username = u.username
+        LEFT JOIN leetcode_stats l ON l.username = u.username
+        WHERE u.username > ?
+          AND u.score_version IS DISTINCT FROM ?
+        ORDER BY u.username
+        LIMIT ?
+        """;
+
+    // Bumps the JPA @Version column so a concurrent sync holding a stale entity retries cleanly
+    private static final String UPDATE_SQL = """
+        UPDATE user_stats
+        SET nexus_score = ?, score_version = ?, version = version + 1
+        WHERE username = ? AND version = ?
+        """;
+
+    private static final String LOG_SQL = """
+        INSERT INTO score_change_log (username, old_score, new_score, changed_at)
+        VALUES (?, ?, ?, now())
+        """;
+
+    private static final String SEGMENT_SQL = """
+        UPDATE leaderboard_segment SET nexus_score = ? WHERE username = ?
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    public long countNotOnVersion(String version) {
+        Long count = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM user_stats WHERE score_version IS DISTINCT FROM ?", Long.class, version);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Next keyset chunk (by username) of users whose score was not computed with {@code version}.
+     */
+    public List<ScoreSource> findChunkNotOnVersion(String version, String afterUsername, int limit) {
+        return jdbc.query(CHUNK_SQL, (rs, i) -> new ScoreSource(
+                rs.getString("username"),
+                rs.getLong("version"),
+                rs.getDouble("nexus_score"),
+                new ScoreInputs(
+                        rs.getInt("public_repos"),
+                        rs.getInt("total_stars"),
+                        rs.getInt("total_commits_yearly"),
+                        rs.getInt("easy_solved"),
+                        rs.getInt("medium_solved"),
+                        rs.getInt("hard_solved"))),
+                afterUsername, version, limit);
+    }
+
+    /**
+     * Writes the scores in one batch, logs the ones that changed for the ranking engine and
+     * refreshes their segment score copies.
+     *
+     * @return the writes that were applied; rows updated concurrently by a sync are skipped
+     */
+    public List<ScoreWrite> applyScores(String version, List<ScoreWrite> writes) {
+        int[] counts = jdbc.batchUpdate(UPDATE_SQL, writes, writes.size(), (ps, w) -> {
+            ps.setDouble(1, w.newScore());
+            ps.setString(2, version);
+            ps.setString(3, w.username());
+            ps.setLong(4, w.expectedVersion());
+        });
+
+        List<ScoreWrite> applied = new ArrayList<>(writes.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                applied.add(writes.get(i));
+            }
+        }
+
+        List<ScoreWrite> changed = applied.stream().filter(w -> w.oldScore() != w.newScore()).toList();
+        if (!changed.isEmpty()) {
+            jdbc.batchUpdate(LOG_SQL, changed, changed.size(), (ps, w) -> {
+                ps.setString(1, w.username());
+                ps.setDouble(2, w.oldScore());
+                ps.setDouble(3, w.newScore());
+            });
+            jdbc.batchUpdate(SEGMENT_SQL, changed, changed.size(), (ps, w) -> {
+                ps.setDouble(1, w.newScore());
+                ps.setString(2, w.username());
+            });
+        }
+        return applied;
+    }
+}
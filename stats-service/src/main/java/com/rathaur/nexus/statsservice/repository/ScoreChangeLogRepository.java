@@ -0,0 +1,38 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.entity.ScoreChangeLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ScoreChangeLogRepository extends JpaRepository<ScoreChangeLog, Long> {
+
+    interface ScoreBand {
+        Double getLo();
+        Double getHi();
+    }
+
+    @Query("SELECT MAX(c.id) FROM ScoreChangeLog c")
+    Long findMaxId();
+
+    /**
+     * The score band each pending change can affect, lowest band first.
+     * A brand-new user (no old score) pushes down everyone scoring below it, so its band reaches
+     * down to the lowest current score. New users start at 0.0, normally the minimum, which
+     * keeps that band narrow.
+     */
+    @Query(value = """
+        SELECT LEAST(COALESCE(old_score, (SELECT MIN(nexus_score) FROM user_stats), new_score), new_score) AS lo,
+               GREATEST(COALESCE(old_score, new_score), new_score) AS hi
+        FROM score_change_log
+        WHERE id <= :maxId
+        ORDER BY lo
+        """, nativeQuery = true)
+    List<ScoreBand> findBandsUpTo(long maxId);
+
+    @Modifying
+    @Query("DELETE FROM ScoreChangeLog c WHERE c.id <= :maxId")
+    int deleteUpTo(long maxId);
+}
@@ -0,0 +1,107 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.scoring.ScoreSketch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared checkpoint of the {@link ScoreSketch}: one row per non-empty slot in score_sketch_bucket.
+ * Instances merge into it by adding their deltas, which commutes, so no coordination is needed
+ * beyond the row locks of the upsert. Rebuilds take a table lock so they never interleave, and
+ * bump score_sketch_generation so checkpoints can tell their deltas predate the rebuild.
+ * Both lock the generation row before the bucket table, so they cannot deadlock.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Repository
+@RequiredArgsConstructor
+public class ScoreSketchRepository {
+
+    private static final String ADD_SQL = """
+        INSERT INTO score_sketch_bucket (bucket, user_count)
+        SELECT * FROM unnest(?::integer[], ?::bigint[])
+        ON CONFLICT (bucket) DO UPDATE SET user_count = score_sketch_bucket.user_count + EXCLUDED.user_count
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    public long[] loadCounts() {
+        long[] counts = new long[ScoreSketch.SLOTS];
+        jdbc.query("SELECT bucket, user_count FROM score_sketch_bucket", rs -> {
+            int bucket = rs.getInt("bucket");
+            if (bucket >= 0 && bucket < counts.length) counts[bucket] = rs.getLong("user_count");
+        });
+        return counts;
+    }
+
+    /** Adds per-slot deltas in one statement; zero slots are skipped. */
+    public void addCounts(long[] deltas) {
+        List<Integer> buckets = new ArrayList<>();
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < deltas.length; i++) {
+            if (deltas[i] != 0) {
+                buckets.add(i);
+                values.add(deltas[i]);
+            }
+        }
+        if (buckets.isEmpty()) return;
+        jdbc.update(con -> {
+            var ps = con.prepareStatement(ADD_SQL);
+            ps.setArray(1, con.createArrayOf("integer", buckets.toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", values.toArray()));
+            return ps;
+        });
+    }
+
+    public long generation() {
+        Long generation = jdbc.queryForObject("SELECT generation FROM score_sketch_generation WHERE id = 1", Long.class);
+        return generation != null ? generation : 0;
+    }
+
+    /** Current generation, held until the surrounding transaction ends so no rebuild can start. */
+    public long lockGeneration() {
+        Long generation = jdbc.queryForObject(
+                "SELECT generation FROM score_sketch_generation WHERE id = 1 FOR SHARE", Long.class);
+        return generation != null ? generation : 0;
+    }
+
+    /**
+     * Starts a new generation and blocks other rebuilds and checkpoints until the surrounding
+     * transaction ends.
+     *
+     * @return the new generation
+     */
+    public long lockForRebuild() {
+        Long generation = jdbc.queryForObject(
+                "UPDATE score_sketch_generation SET generation = generation + 1 WHERE id = 1 RETURNING generation",
+                Long.class);
+        jdbc.execute("LOCK TABLE score_sketch_bucket IN EXCLUSIVE MODE");
+        return generation != null ? generation : 0;
+    }
+
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM score_sketch_bucket)", Boolean.class));
+    }
+
+    /** Counts every stored score into sketch slots with one sequential scan of user_stats. */
+    public long[] countAllScores() {
+        long[] counts = new long[ScoreSketch.SLOTS];
+        jdbc.query(con -> {
+            var ps = con.prepareStatement("SELECT nexus_score FROM user_stats");
+            ps.setFetchSize(5000);
+            return ps;
+        }, rs -> {
+            counts[ScoreSketch.slot(rs.getDouble(1))]++;
+        });
+        return counts;
+    }
+
+    public void replaceAll(long[] counts) {
+        jdbc.update("DELETE FROM score_sketch_bucket");
+        addCounts(counts);
+    }
+}
@@ -0,0 +1,311 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import com.rathaur.nexus.statsservice.scoring.ScoreInputs;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based writes for the bulk sync pipeline. Each method is one JDBC batch or one array-bound
+ * statement for a whole group of users, so a write batch costs a handful of round trips however
+ * many users it carries. Score writes bump the JPA @Version column like {@link RescoreRepository},
+ * so a per-user sync holding a stale entity retries instead of overwriting.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatsBatchRepository {
+
+    /** A master row to create, or whose handles to refresh. Null handles leave the stored one alone. */
+    public record MasterRow(String username, String githubHandle, String leetcodeHandle) {
+    }
+
+    /**
+     * github_stats values; the telemetry fields are null unless raw telemetry is kept, and at most
+     * one of them is set (see TelemetryStorage).
+     */
+    public record GitHubRow(String username, int publicRepos, int totalStars, int totalCommitsYearly,
+                            String telemetryJson, byte[] telemetryPacked) {
+    }
+
+    /** leetcode_stats values; at most one of the metrics fields is set, as for {@link GitHubRow}. */
+    public record LeetCodeRow(String username, Integer globalRanking, Integer totalSolved, Integer easySolved,
+                              Integer mediumSolved, Integer hardSolved, String metricsJson, byte[] metricsPacked) {
+    }
+
+    /** Everything a score recalculation reads, for one user. */
+    public record RecalcSource(String username, Double currentScore, boolean hasGithub,
+                               ScoreInputs inputs, int totalSolved) {
+    }
+
+    /** New score and summary for a user; {@code quickSummaryJson} null keeps the stored summary. */
+    public record ScoreRow(String username, Double oldScore, double newScore, String quickSummaryJson) {
+    }
+
+    private static final String MASTERS_SQL = """
+        INSERT INTO user_stats (username, version, nexus_score, github_handle, leetcode_handle, created_at)
+        SELECT r.username, 0, 0, r.github_handle, r.leetcode_handle, now()
+        FROM unnest(?::varchar[], ?::varchar[], ?::varchar[]) AS r(username, github_handle, leetcode_handle)
+        ON CONFLICT (username) DO UPDATE SET
+            github_handle = COALESCE(EXCLUDED.github_handle, user_stats.github_handle),
+            leetcode_handle = COALESCE(EXCLUDED.leetcode_handle, user_stats.leetcode_handle),
+            version = user_stats.version + 1
+        WHERE (EXCLUDED.github_handle IS NOT NULL AND EXCLUDED.github_handle IS DISTINCT FROM user_stats.github_handle)
+           OR (EXCLUDED.leetcode_handle IS NOT NULL AND EXCLUDED.leetcode_handle IS DISTINCT FROM user_stats.leetcode_handle)
+        RETURNING username, (xmax = 0) AS inserted
+        """;
+
+    private static final String GITHUB_SQL = """
+        INSERT INTO github_stats (username, public_repos, total_stars, total_commits_yearly, telemetry,
+                                  telemetry_packed, last_synced)
+        VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?, now())
+        ON CONFLICT (username) DO UPDATE SET
+            public_repos = EXCLUDED.public_repos,
+            total_stars = EXCLUDED.total_stars,
+            total_commits_yearly = EXCLUDED.total_commits_yearly,
+            telemetry = EXCLUDED.telemetry,
+            telemetry_packed = EXCLUDED.telemetry_packed,
+            last_synced = EXCLUDED.last_synced
+        """;
+
+    private static final String LEETCODE_SQL = """
+        INSERT INTO leetcode_stats (username, global_ranking, total_solved, easy_solved, medium_solved, hard_solved,
+                                    advanced_metrics, advanced_metrics_packed, last_synced)
+        VALUES (?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, now())
+        ON CONFLICT (username) DO UPDATE SET
+            global_ranking = EXCLUDED.global_ranking,
+            total_solved = EXCLUDED.total_solved,
+            easy_solved = EXCLUDED.easy_solved,
+            medium_solved = EXCLUDED.medium_solved,
+            hard_solved = EXCLUDED.hard_solved,
+            advanced_metrics = EXCLUDED.advanced_metrics,
+            advanced_metrics_packed = EXCLUDED.advanced_metrics_packed,
+            last_synced = EXCLUDED.last_synced
+        """;
+
+    // Row locks on the masters keep a concurrent per-user sync from interleaving with the recalc
+    private static final String SOURCES_SQL = """
+        SELECT u.username, u.nexus_score,
+               g.username IS NOT NULL              AS has_github,
+               COALESCE(g.public_repos, 0)         AS public_repos,
+               COALESCE(g.total_stars, 0)          AS total_stars,
+               COALESCE(g.total_commits_yearly, 0) AS total_commits_yearly,
+               COALESCE(l.easy_solved, 0)          AS easy_solved,
+               COALESCE(l.medium_solved, 0)        AS medium_solved,
+               COALESCE(l.hard_solved, 0)          AS hard_solved,
+               COALESCE(l.total_solved, 0)         AS total_solved
+        FROM user_stats u
+        LEFT JOIN github_stats g ON g.username = u.username
+        LEFT JOIN leetcode_stats l ON l.username = u.username
+        WHERE u.username = ANY(?)
+        ORDER BY u.username
+        FOR UPDATE OF u
+        """;
+
+    private static final String SCORE_SQL = """
+        UPDATE user_stats
+        SET nexus_score = ?, score_version = ?, quick_summary = COALESCE(CAST(? AS jsonb), quick_summary),
+            version = version + 1
+        WHERE username = ?
+        """;
+
+    private static final String LOG_SQL = """
+        INSERT INTO score_change_log (username, old_score, new_score, changed_at)
+        VALUES (?, ?, ?, now())
+        """;
+
+    private static final String SEGMENT_SCORE_SQL = """
+        UPDATE leaderboard_segment SET nexus_score = ? WHERE username = ?
+        """;
+
+    private static final String SEGMENT_PRUNE_SQL = """
+        DELETE FROM leaderboard_segment WHERE username = ? AND NOT (segment = ANY(?))
+        """;
+
+    private static final String SEGMENT_UPSERT_SQL = """
+        INSERT INTO leaderboard_segment (segment, username, nexus_score)
+        VALUES (?, ?, ?)
+        ON CONFLICT (segment, username) DO UPDATE SET nexus_score = EXCLUDED.nexus_score
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Creates missing masters and refreshes changed handles in one statement.
+     *
+     * @return usernames of the masters that were created
+     */
+    public List<String> upsertMasters(Collection<MasterRow> rows) {
+        if (rows.isEmpty()) return List.of();
+        List<String> created = new ArrayList<>();
+        jdbc.query(con -> {
+            var ps = con.prepareStatement(MASTERS_SQL);
+            ps.setArray(1, varchars(con, rows.stream().map(MasterRow::username).toList()));
+            ps.setArray(2, varchars(con, rows.stream().map(MasterRow::githubHandle).toList()));
+            ps.setArray(3, varchars(con, rows.stream().map(MasterRow::leetcodeHandle).toList()));
+            return ps;
+        }, rs -> {
+            if (rs.getBoolean("inserted")) created.add(rs.getString("username"));
+        });
+        return created;
+    }
+
+    public void upsertGitHub(Collection<GitHubRow> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(GITHUB_SQL, rows, rows.size(), (ps, r) -> {
+            ps.setString(1, r.username());
+            ps.setInt(2, r.publicRepos());
+            ps.setInt(3, r.totalStars());
+            ps.setInt(4, r.totalCommitsYearly());
+            ps.setString(5, r.telemetryJson());
+            ps.setBytes(6, r.telemetryPacked());
+        });
+    }
+
+    public void upsertLeetCode(Collection<LeetCodeRow> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(LEETCODE_SQL, rows, rows.size(), (ps, r) -> {
+            ps.setString(1, r.username());
+            ps.setObject(2, r.globalRanking(), Types.INTEGER);
+            ps.setObject(3, r.totalSolved(), Types.INTEGER);
+            ps.setObject(4, r.easySolved(), Types.INTEGER);
+            ps.setObject(5, r.mediumSolved(), Types.INTEGER);
+            ps.setObject(6, r.hardSolved(), Types.INTEGER);
+            ps.setString(7, r.metricsJson());
+            ps.setBytes(8, r.metricsPacked());
+        });
+    }
+
+    public List<RecalcSource> lockRecalcSources(Collection<String> usernames) {
+        if (usernames.isEmpty()) return List.of();
+        return jdbc.query(con -> {
+            var ps = con.prepareStatement(SOURCES_SQL);
+            ps.setArray(1, varchars(con, List.copyOf(usernames)));
+            return ps;
+        }, (rs, i) -> new RecalcSource(
+                rs.getString("username"),
+                rs.getObject("nexus_score", Double.class),
+                rs.getBoolean("has_github"),
+                new ScoreInputs(
+                        rs.getInt("public_repos"),
+                        rs.getInt("total_stars"),
+                        rs.getInt("total_commits_yearly"),
+                        rs.getInt("easy_solved"),
+                        rs.getInt("medium_solved"),
+                        rs.getInt("hard_solved")),
+                rs.getInt("total_solved")));
+    }
+
+    /**
+     * Writes scores and summaries; users whose score moved also get a change-log entry (for the
+     * ranking engine) and their segment score copies updated.
+     */
+    public void applyScores(String version, List<ScoreRow> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(SCORE_SQL, rows, rows.size(), (ps, r) -> {
+            ps.setDouble(1, r.newScore());
+            ps.setString(2, version);
+            ps.setString(3, r.quickSummaryJson());
+            ps.setString(4, r.username());
+        });
+
+        List<ScoreRow> changed = rows.stream()
+                .filter(r -> r.oldScore() == null || r.oldScore() != r.newScore())
+                .toList();
+        logScoreChanges(changed);
+        if (!changed.isEmpty()) {
+            jdbc.batchUpdate(SEGMENT_SCORE_SQL, changed, changed.size(), (ps, r) -> {
+                ps.setDouble(1, r.newScore());
+                ps.setString(2, r.username());
+            });
+        }
+    }
+
+    public void logScoreChanges(List<ScoreRow> changed) {
+        if (changed.isEmpty()) return;
+        jdbc.batchUpdate(LOG_SQL, changed, changed.size(), (ps, r) -> {
+            ps.setString(1, r.username());
+            ps.setObject(2, r.oldScore(), Types.DOUBLE);
+            ps.setDouble(3, r.newScore());
+        });
+    }
+
+    /**
+     * Sets each user's segment memberships to exactly the given keys at the given score.
+     */
+    public void replaceSegments(Map<String, Set<String>> segmentsByUser, Map<String, Double> scores) {
+        if (segmentsByUser.isEmpty()) return;
+        List<Map.Entry<String, Set<String>>> users = List.copyOf(segmentsByUser.entrySet());
+        jdbc.batchUpdate(SEGMENT_PRUNE_SQL, users, users.size(), (ps, e) -> {
+            ps.setString(1, e.getKey());
+            ps.setArray(2, varchars(ps.getConnection(), List.copyOf(e.getValue())));
+        });
+
+        List<String[]> memberships = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> e : users) {
+            for (String segment : e.getValue()) {
+                memberships.add(new String[]{segment, e.getKey()});
+            }
+        }
+        jdbc.batchUpdate(SEGMENT_UPSERT_SQL, memberships, memberships.size(), (ps, m) -> {
+            ps.setString(1, m[0]);
+            ps.setString(2, m[1]);
+            ps.setDouble(3, scores.getOrDefault(m[1], 0.0));
+        });
+    }
+
+    /**
+     * Stamps the end of a complete sync for every given user in one statement, clearing any
+     * refresh backoff.
+     */
+    public void markSyncCompleted(Collection<String> usernames) {
+        if (usernames.isEmpty()) return;
+        jdbc.update(con -> {
+            var ps = con.prepareStatement("""
+                UPDATE user_stats
+                SET last_sync_all = now(), refresh_failures = 0, refresh_retry_at = NULL, version = version + 1
+                WHERE username = ANY(?)
+                """);
+            ps.setArray(1, varchars(con, List.copyOf(usernames)));
+            return ps;
+        });
+    }
+
+    /**
+     * Counts a failed background refresh for every given user and parks them until
+     * {@code baseBackoff * 2^(failures - 1)}, capped at {@code maxBackoff}, from now.
+     */
+    public void markRefreshFailed(Collection<String> usernames, Duration baseBackoff, Duration maxBackoff) {
+        if (usernames.isEmpty()) return;
+        jdbc.update(con -> {
+            // SET reads the old refresh_failures, so the first failure waits exactly baseBackoff
+            var ps = con.prepareStatement("""
+                UPDATE user_stats
+                SET refresh_failures = refresh_failures + 1,
+                    refresh_retry_at = now() + make_interval(secs => LEAST(? * power(2, LEAST(refresh_failures, 30)), ?)),
+                    version = version + 1
+                WHERE username = ANY(?)
+                """);
+            ps.setDouble(1, baseBackoff.toSeconds());
+            ps.setDouble(2, maxBackoff.toSeconds());
+            ps.setArray(3, varchars(con, List.copyOf(usernames)));
+            return ps;
+        });
+    }
+
+    private static Array varchars(Connection con, List<String> values) throws SQLException {
+        return con.createArrayOf("varchar", values.toArray());
+    }
+}
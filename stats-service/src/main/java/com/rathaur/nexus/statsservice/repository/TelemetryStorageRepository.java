@@ -0,0 +1,69 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Measures what the raw provider payloads cost on disk, for the jsonb and the compressed
+ * (bytea) storage mode side by side. Sizes are {@code pg_column_size}, i.e. after TOAST
+ * compression, so the jsonb figures already include what Postgres saves with pglz.
+ * Reads every payload once; meant for an operator, not for a request path.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Repository
+@RequiredArgsConstructor
+public class TelemetryStorageRepository {
+
+    /**
+     * Payload storage of one table. Averages are over the rows that use that column.
+     *
+     * @param jsonTextBytes average uncompressed JSON text size of the jsonb rows
+     */
+    public record PayloadStorage(String table, long rows, long jsonbRows, long packedRows,
+                                 long jsonbBytes, long jsonTextBytes, long packedBytes,
+                                 long payloadBytes, long tableBytes) {
+    }
+
+    private static final String PAYLOAD_SQL = """
+        SELECT count(*)                                              AS rows,
+               count(%1$s)                                           AS jsonb_rows,
+               count(%2$s)                                           AS packed_rows,
+               COALESCE(avg(pg_column_size(%1$s)), 0)::bigint        AS jsonb_bytes,
+               COALESCE(avg(octet_length(%1$s::text)), 0)::bigint    AS json_text_bytes,
+               COALESCE(avg(pg_column_size(%2$s)), 0)::bigint        AS packed_bytes,
+               COALESCE(sum(pg_column_size(%1$s)), 0)
+                   + COALESCE(sum(pg_column_size(%2$s)), 0)          AS payload_bytes,
+               pg_total_relation_size('%3$s')                        AS table_bytes
+        FROM %3$s
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    public long countUsers() {
+        Long users = jdbc.queryForObject("SELECT count(*) FROM user_stats", Long.class);
+        return users != null ? users : 0;
+    }
+
+    public PayloadStorage github() {
+        return payload("github_stats", "telemetry", "telemetry_packed");
+    }
+
+    public PayloadStorage leetcode() {
+        return payload("leetcode_stats", "advanced_metrics", "advanced_metrics_packed");
+    }
+
+    private PayloadStorage payload(String table, String jsonColumn, String packedColumn) {
+        return jdbc.queryForObject(PAYLOAD_SQL.formatted(jsonColumn, packedColumn, table), (rs, i) -> new PayloadStorage(
+                table,
+                rs.getLong("rows"),
+                rs.getLong("jsonb_rows"),
+                rs.getLong("packed_rows"),
+                rs.getLong("jsonb_bytes"),
+                rs.getLong("json_text_bytes"),
+                rs.getLong("packed_bytes"),
+                rs.getLong("payload_bytes"),
+                rs.getLong("table_bytes")));
+    }
+}
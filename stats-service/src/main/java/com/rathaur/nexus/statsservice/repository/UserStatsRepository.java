@@ -1,13 +1,17 @@
 package com.rathaur.nexus.statsservice.repository;
 
+import com.rathaur.nexus.statsservice.dto.UserStatsView;
 import com.rathaur.nexus.statsservice.entity.UserStats;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author Tanuj Singh Rathaur
@@ -17,31 +21,211 @@ public interface UserStatsRepository extends JpaRepository<UserStats, String> {
 
     Optional<UserStats> findByUsername(String username);
 
-    // Fast Leaderboard: Top 10 users by Nexus Score
-    List<UserStats> findTop10ByOrderByNexusScoreDesc();
+    /**
+     * Profile read model in one round trip. The JSONB blobs are not selected, so they never
+     * leave the database unless {@link #findViewWithTelemetry} is used.
+     */
+    @Query("""
+        SELECT new com.rathaur.nexus.statsservice.dto.UserStatsView(
+            u.username, u.nexusScore, u.globalRank, u.scoreVersion, u.quickSummary, u.lastSyncAll,
+            g.username, g.publicRepos, g.totalStars, g.totalCommitsYearly, g.lastSynced,
+            l.username, l.globalRanking, l.totalSolved, l.easySolved, l.mediumSolved, l.hardSolved, l.lastSynced)
+        FROM UserStats u
+        LEFT JOIN u.githubStats g
+        LEFT JOIN u.leetCodeStats l
+        WHERE u.username = :username
+        """)
+    Optional<UserStatsView> findView(String username);
 
-    @Modifying
-    @Transactional
-    @Query(value = """
-        WITH RankedStats AS (
-            SELECT username, 
-                   RANK() OVER (ORDER BY nexus_score DESC) as calculated_rank
-            FROM user_stats
-        )
-        UPDATE user_stats
-        SET global_rank = RankedStats.calculated_rank
-        FROM RankedStats
-        WHERE user_stats.username = RankedStats.username
-        """, nativeQuery = true)
-    void updateGlobalRanks();
+    @Query("""
+        SELECT new com.rathaur.nexus.statsservice.dto.UserStatsView(
+            u.username, u.nexusScore, u.globalRank, u.scoreVersion, u.quickSummary, u.lastSyncAll,
+            g.username, g.publicRepos, g.totalStars, g.totalCommitsYearly, g.lastSynced, g.telemetry, g.telemetryPacked,
+            l.username, l.globalRanking, l.totalSolved, l.easySolved, l.mediumSolved, l.hardSolved, l.lastSynced,
+            l.advancedMetrics, l.advancedMetricsPacked)
+        FROM UserStats u
+        LEFT JOIN u.githubStats g
+        LEFT JOIN u.leetCodeStats l
+        WHERE u.username = :username
+        """)
+    Optional<UserStatsView> findViewWithTelemetry(String username);
+
+    /** SQL of {@link #findUsersOpenToWork()}, shared with QueryPlanRegressionTest so the plan checked is the one served. */
+    String OPEN_TO_WORK_SQL = "SELECT * FROM user_stats u WHERE u.current_status = 'OPEN_TO_WORK' ORDER BY u.username";
 
     /**
      * ADVANCED JSONB QUERY:
-     * Find users who have a specific badge in their "quickSummary" JSON blob.
-     * Uses PostgreSQL native syntax: ->> (extract text)
+     * Users whose quickSummary JSON has current_status = OPEN_TO_WORK. Reads the stored generated
+     * column current_status (quick_summary ->> 'current_status'), served by a partial index.
      */
-    @Query(value = "SELECT * FROM user_stats u WHERE u.quick_summary ->> 'current_status' = 'OPEN_TO_WORK'",
-            nativeQuery = true)
+    @Query(value = OPEN_TO_WORK_SQL, nativeQuery = true)
     List<UserStats> findUsersOpenToWork();
 
+    /**
+     * Row shape for the background refresher: just enough to re-sync a user.
+     */
+    interface StaleUserRow {
+        String getUsername();
+        String getGithubHandle();
+        String getLeetcodeHandle();
+        Instant getLastSyncAll();
+        Instant getCreatedAt();
+        Instant getRefreshRetryAt();
+    }
+
+    /**
+     * Keyset page over users that have NEVER been synced, ordered by username.
+     * Users backing off after a failed refresh are left to {@link #findRetryDueChunk}.
+     */
+    @Query(value = """
+        SELECT username, github_handle AS githubHandle, leetcode_handle AS leetcodeHandle,
+               last_sync_all AS lastSyncAll, created_at AS createdAt, refresh_retry_at AS refreshRetryAt
+        FROM user_stats
+        WHERE last_sync_all IS NULL
+          AND refresh_retry_at IS NULL
+          AND (github_handle IS NOT NULL OR leetcode_handle IS NOT NULL)
+          AND username > :afterUsername
+        ORDER BY username
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<StaleUserRow> findNeverSyncedChunk(String afterUsername, int limit);
+
+    /**
+     * Keyset page over users last synced before the cutoff, oldest first, again without users
+     * backing off. Served by idx_user_stats_last_sync (last_sync_all, username); never uses OFFSET.
+     */
+    @Query(value = """
+        SELECT username, github_handle AS githubHandle, leetcode_handle AS leetcodeHandle,
+               last_sync_all AS lastSyncAll, created_at AS createdAt, refresh_retry_at AS refreshRetryAt
+        FROM user_stats
+        WHERE last_sync_all < :staleBefore
+          AND refresh_retry_at IS NULL
+          AND (github_handle IS NOT NULL OR leetcode_handle IS NOT NULL)
+          AND (last_sync_all, username) > (:afterSync, :afterUsername)
+        ORDER BY last_sync_all, username
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<StaleUserRow> findStaleChunk(Instant staleBefore, Instant afterSync, String afterUsername, int limit);
+
+    /**
+     * Keyset page over users whose refresh failed and whose backoff has run out, in the order they
+     * became due. Served by the partial idx_user_stats_refresh_retry (refresh_retry_at, username).
+     */
+    @Query(value = """
+        SELECT username, github_handle AS githubHandle, leetcode_handle AS leetcodeHandle,
+               last_sync_all AS lastSyncAll, created_at AS createdAt, refresh_retry_at AS refreshRetryAt
+        FROM user_stats
+        WHERE refresh_retry_at <= :now
+          AND (github_handle IS NOT NULL OR leetcode_handle IS NOT NULL)
+          AND (refresh_retry_at, username) > (:afterRetry, :afterUsername)
+        ORDER BY refresh_retry_at, username
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<StaleUserRow> findRetryDueChunk(Instant now, Instant afterRetry, String afterUsername, int limit);
+
+    @Query(value = """
+        SELECT COUNT(*) FROM user_stats
+        WHERE (last_sync_all IS NULL OR last_sync_all < :staleBefore)
+          AND (github_handle IS NOT NULL OR leetcode_handle IS NOT NULL)
+        """, nativeQuery = true)
+    long countStale(Instant staleBefore);
+
+    interface ScoreRow {
+        String getUsername();
+        Double getNexusScore();
+    }
+
+    /**
+     * Streams every (username, score) pair in leaderboard order for the in-memory index.
+     * COLLATE "C" makes the tie-break match Java's String ordering. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = """
+        SELECT username, nexus_score AS nexusScore
+        FROM user_stats
+        ORDER BY nexus_score DESC, username COLLATE "C"
+        """, nativeQuery = true)
+    Stream<ScoreRow> streamAllScores();
+
+    interface LeaderboardRow {
+        String getUsername();
+        Double getNexusScore();
+        Integer getGlobalRank();
+    }
+
+    /** SQL of {@link #findLeaderboardPageAfter}, shared with QueryPlanRegressionTest. */
+    String LEADERBOARD_PAGE_AFTER_SQL = """
+        (SELECT username COLLATE "C" AS username, nexus_score AS nexusScore, global_rank AS globalRank
+         FROM user_stats
+         WHERE nexus_score = :afterScore AND username COLLATE "C" > :afterUsername
+         ORDER BY nexus_score DESC, username COLLATE "C"
+         LIMIT :limit)
+        UNION ALL
+        (SELECT username COLLATE "C", nexus_score, global_rank
+         FROM user_stats
+         WHERE nexus_score < :afterScore
+         ORDER BY nexus_score DESC, username COLLATE "C"
+         LIMIT :limit)
+        ORDER BY nexusScore DESC, username
+        LIMIT :limit
+        """;
+
+    /**
+     * Keyset page in leaderboard order (score desc, username asc), strictly after the cursor row.
+     * Ties break on username COLLATE "C", the order {@link #streamAllScores} and the in-memory
+     * index use, so cursors and rank ranges agree across endpoints. The rest of the cursor's tie
+     * group and the lower scores are separate branches, each an index range bounded by the
+     * LIMIT (idx_user_stats_score), so paging deep inside a large tie group (e.g. everyone at 0.0)
+     * costs the page size like any other page.
+     */
+    @Query(value = LEADERBOARD_PAGE_AFTER_SQL, nativeQuery = true)
+    List<LeaderboardRow> findLeaderboardPageAfter(double afterScore, String afterUsername, int limit);
+
+    @Query(value = """
+        SELECT username, nexus_score AS nexusScore, global_rank AS globalRank
+        FROM user_stats
+        ORDER BY nexus_score DESC, username COLLATE "C"
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<LeaderboardRow> findLeaderboardFirstPage(int limit);
+
+    /**
+     * Rows ranked directly above the given row, nearest first (same index scanned backwards,
+     * split into the tie group and the higher scores like {@link #findLeaderboardPageAfter}).
+     */
+    @Query(value = """
+        (SELECT username COLLATE "C" AS username, nexus_score AS nexusScore, global_rank AS globalRank
+         FROM user_stats
+         WHERE nexus_score = :score AND username COLLATE "C" < :username
+         ORDER BY nexus_score, username COLLATE "C" DESC
+         LIMIT :limit)
+        UNION ALL
+        (SELECT username COLLATE "C", nexus_score, global_rank
+         FROM user_stats
+         WHERE nexus_score > :score
+         ORDER BY nexus_score, username COLLATE "C" DESC
+         LIMIT :limit)
+        ORDER BY nexusScore, username DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<LeaderboardRow> findLeaderboardBefore(double score, String username, int limit);
+
+    @Query(value = """
+        SELECT username, nexus_score AS nexusScore, global_rank AS globalRank
+        FROM user_stats
+        WHERE username = :username
+        """, nativeQuery = true)
+    Optional<LeaderboardRow> findLeaderboardRow(String username);
+
+    /**
+     * Users whose maintained global_rank falls in [fromRank, toRank]. Served by idx_user_stats_rank.
+     */
+    @Query(value = """
+        SELECT username, nexus_score AS nexusScore, global_rank AS globalRank
+        FROM user_stats
+        WHERE global_rank BETWEEN :fromRank AND :toRank
+        ORDER BY global_rank, username
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<LeaderboardRow> findByRankRange(int fromRank, int toRank, int limit);
 }
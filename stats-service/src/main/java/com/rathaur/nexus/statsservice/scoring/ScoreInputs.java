@@ -0,0 +1,14 @@
+package com.rathaur.nexus.statsservice.scoring;
+
+/**
+ * The provider counters a Nexus score is computed from. Missing providers contribute zeros.
+ */
+public record ScoreInputs(
+        int publicRepos,
+        int totalStars,
+        int commitsYearly,
+        int easySolved,
+        int mediumSolved,
+        int hardSolved
+) {
+}
@@ -0,0 +1,66 @@
+package com.rathaur.nexus.statsservice.scoring;
+
+/**
+ * Fixed-layout log-bucket histogram of Nexus scores (the DDSketch bucketing). Bucket {@code i}
+ * holds scores in (γ^(i-1), γ^i] with γ = (1 + α) / (1 - α), so every score in a bucket is within
+ * α = 1% of the bucket's representative value; slot 0 holds scores at or below {@link #MIN_SCORE}.
+ * Two sketches merge by adding counts slot by slot, which is what lets every instance push its
+ * deltas into one shared table.
+ * <p>
+ * Instances are immutable snapshots with prefix sums, so the rank of a score is one bucket
+ * lookup and one array read. The slot layout is persisted in score_sketch_bucket; changing
+ * α or the range means truncating that table (it is rebuilt when empty).
+ *
+ * @author Tanuj Singh Rathaur
+ */
+public final class ScoreSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+    public static final double MIN_SCORE = 1e-2;
+    public static final double MAX_SCORE = 1e9;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MIN_INDEX = (int) Math.ceil(Math.log(MIN_SCORE) / LOG_GAMMA);
+    private static final int MAX_INDEX = (int) Math.ceil(Math.log(MAX_SCORE) / LOG_GAMMA);
+
+    /** Number of slots, including the zero slot. */
+    public static final int SLOTS = MAX_INDEX - MIN_INDEX + 2;
+
+    public static final ScoreSketch EMPTY = new ScoreSketch(new long[SLOTS]);
+
+    private final long[] counts;
+    // below[i] = users in slots [0, i)
+    private final long[] below;
+    private final long total;
+
+    /** Snapshot of per-slot counts; {@code counts} is copied and must have {@link #SLOTS} entries. */
+    public ScoreSketch(long[] counts) {
+        this.counts = counts.clone();
+        this.below = new long[SLOTS + 1];
+        for (int i = 0; i < SLOTS; i++) {
+            below[i + 1] = below[i] + Math.max(0, this.counts[i]);
+        }
+        this.total = below[SLOTS];
+    }
+
+    /** Slot of a score; scores above {@link #MAX_SCORE} share the last slot. */
+    public static int slot(double score) {
+        if (!(score > MIN_SCORE)) return 0;
+        int index = (int) Math.ceil(Math.log(Math.min(score, MAX_SCORE)) / LOG_GAMMA);
+        return Math.max(1, index - MIN_INDEX + 1);
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public long count(int slot) {
+        return Math.max(0, counts[slot]);
+    }
+
+    /** Users whose score falls in a higher slot than {@code score}. */
+    public long above(double score) {
+        return total - below[slot(score) + 1];
+    }
+}
@@ -0,0 +1,17 @@
+package com.rathaur.nexus.statsservice.scoring;
+
+/**
+ * A versioned Nexus score formula. The version is stored next to every score so stale scores
+ * can be found and re-scored when the active model changes.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+public interface ScoringModel {
+
+    String version();
+
+    /**
+     * Must be pure and thread-safe: the bulk re-score job calls it from many threads at once.
+     */
+    double score(ScoreInputs inputs);
+}
@@ -0,0 +1,43 @@
+package com.rathaur.nexus.statsservice.scoring;
+
+import com.rathaur.nexus.statsservice.config.ScoringProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * All configured scoring formulas, keyed by version, plus the one new scores are computed with.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Component
+public class ScoringModelRegistry {
+
+    private final Map<String, ScoringModel> models;
+    private final ScoringModel active;
+
+    public ScoringModelRegistry(ScoringProperties properties) {
+        this.models = properties.versions().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+                        e -> new WeightedScoringModel(e.getKey(), e.getValue())));
+
+        this.active = models.get(properties.activeVersion());
+        if (this.active == null) {
+            throw new IllegalStateException("nexus.scoring.active-version '" + properties.activeVersion()
+                    + "' is not one of the configured versions " + models.keySet());
+        }
+        log.info("NEXUS-SCORING: Active scoring model is {} ({} versions configured)", active.version(), models.size());
+    }
+
+    public ScoringModel active() {
+        return active;
+    }
+
+    public Optional<ScoringModel> find(String version) {
+        return Optional.ofNullable(models.get(version));
+    }
+}
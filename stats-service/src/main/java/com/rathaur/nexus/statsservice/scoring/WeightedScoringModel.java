@@ -0,0 +1,19 @@
+package com.rathaur.nexus.statsservice.scoring;
+
+import com.rathaur.nexus.statsservice.config.ScoringProperties.Weights;
+
+/**
+ * Linear formula: each counter times its configured weight.
+ */
+public record WeightedScoringModel(String version, Weights weights) implements ScoringModel {
+
+    @Override
+    public double score(ScoreInputs in) {
+        return in.publicRepos() * weights.repos()
+                + in.totalStars() * weights.stars()
+                + in.commitsYearly() * weights.commits()
+                + in.easySolved() * weights.easy()
+                + in.mediumSolved() * weights.medium()
+                + in.hardSolved() * weights.hard();
+    }
+}
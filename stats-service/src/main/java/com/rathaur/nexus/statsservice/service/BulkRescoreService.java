@@ -0,0 +1,204 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.RescoreProgress;
+import com.rathaur.nexus.statsservice.dto.RescoreProgress.State;
+import com.rathaur.nexus.statsservice.event.ScoresRescoredEvent;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import com.rathaur.nexus.statsservice.repository.RescoreRepository;
+import com.rathaur.nexus.statsservice.repository.RescoreRepository.ScoreSource;
+import com.rathaur.nexus.statsservice.repository.RescoreRepository.ScoreWrite;
+import com.rathaur.nexus.statsservice.scoring.ScoringModel;
+import com.rathaur.nexus.statsservice.scoring.ScoringModelRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rolls a scoring model out to every user without waiting for re-syncs.
+ * A single reader walks users not yet on the target version in keyset chunks; each chunk is
+ * scored and written back (one JDBC batch, one transaction) by a pool of workers, one per core
+ * by default. The bounded hand-off queue with caller-runs keeps the reader at most a few chunks
+ * ahead. Runs are resumable: a restarted run only sees users still on an old version.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+public class BulkRescoreService {
+
+    private final RescoreRepository rescoreRepo;
+    private final ScoringModelRegistry scoringModels;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+    private final int parallelism;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "nexus-rescore-coordinator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicReference<RescoreProgress> current = new AtomicReference<>();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    public BulkRescoreService(RescoreRepository rescoreRepo,
+                              ScoringModelRegistry scoringModels,
+                              PlatformTransactionManager txManager,
+                              ApplicationEventPublisher events,
+                              MeterRegistry meterRegistry,
+                              @Value("${nexus.rescore.chunk-size:2000}") int chunkSize,
+                              @Value("${nexus.rescore.parallelism:0}") int parallelism) {
+        this.rescoreRepo = rescoreRepo;
+        this.scoringModels = scoringModels;
+        this.tx = new TransactionTemplate(txManager);
+        this.events = events;
+        this.chunkSize = Math.max(100, chunkSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        Gauge.builder("nexus.rescore.processed", processed, AtomicLong::get)
+                .description("Users processed by the current or last bulk re-score")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts re-scoring everyone onto the active model in the background.
+     *
+     * @throws StatsDomainExceptions.RescoreInProgressException if a run is already going
+     */
+    public RescoreProgress start() {
+        ScoringModel model = scoringModels.active();
+        RescoreProgress running = new RescoreProgress(model.version(), State.RUNNING,
+                rescoreRepo.countNotOnVersion(model.version()), 0, 0, 0, Instant.now(), null, null);
+
+        RescoreProgress previous = current.get();
+        if (previous != null && previous.state() == State.RUNNING) {
+            throw new StatsDomainExceptions.RescoreInProgressException(
+                    "A re-score to " + previous.targetVersion() + " is already running");
+        }
+        if (!current.compareAndSet(previous, running)) {
+            throw new StatsDomainExceptions.RescoreInProgressException("A re-score was started concurrently");
+        }
+
+        processed.set(0);
+        changed.set(0);
+        conflicts.set(0);
+        coordinator.submit(() -> run(model, running));
+        log.info("NEXUS-RESCORE: Started re-score of {} users to {} ({} workers, chunk {})",
+                running.total(), model.version(), parallelism, chunkSize);
+        return running;
+    }
+
+    public Optional<RescoreProgress> progress() {
+        RescoreProgress p = current.get();
+        if (p == null || p.state() != State.RUNNING) {
+            return Optional.ofNullable(p);
+        }
+        return Optional.of(new RescoreProgress(p.targetVersion(), p.state(), p.total(),
+                processed.get(), changed.get(), conflicts.get(), p.startedAt(), null, null));
+    }
+
+    private void run(ScoringModel model, RescoreProgress started) {
+        AtomicInteger threadSeq = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 2),
+                r -> {
+                    Thread t = new Thread(r, "nexus-rescore-worker-" + threadSeq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        String error = null;
+        try {
+            List<Future<?>> inFlight = new ArrayList<>();
+            String afterUsername = "";
+            int chunks = 0;
+
+            while (true) {
+                List<ScoreSource> chunk = rescoreRepo.findChunkNotOnVersion(model.version(), afterUsername, chunkSize);
+                if (chunk.isEmpty()) break;
+                afterUsername = chunk.getLast().username();
+
+                inFlight.add(workers.submit(() -> scoreChunk(model, chunk)));
+                for (Iterator<Future<?>> it = inFlight.iterator(); it.hasNext(); ) {
+                    Future<?> f = it.next();
+                    if (f.isDone()) {
+                        f.get(); // rethrows a worker failure and stops the walk
+                        it.remove();
+                    }
+                }
+
+                if (++chunks % 50 == 0) {
+                    log.info("NEXUS-RESCORE: {}/{} users processed ({} changed)",
+                            processed.get(), started.total(), changed.get());
+                }
+            }
+
+            for (Future<?> f : inFlight) {
+                f.get();
+            }
+        } catch (Exception e) {
+            error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            log.error("NEXUS-RESCORE: Re-score to {} failed after {} users", model.version(), processed.get(), e);
+        } finally {
+            workers.shutdown();
+        }
+
+        current.set(new RescoreProgress(model.version(), error == null ? State.COMPLETED : State.FAILED,
+                started.total(), processed.get(), changed.get(), conflicts.get(),
+                started.startedAt(), Instant.now(), error));
+
+        // Even a partial run changed scores that listeners must pick up
+        events.publishEvent(new ScoresRescoredEvent(model.version(), changed.get()));
+        log.info("NEXUS-RESCORE: Re-score to {} finished: {} processed, {} changed, {} conflicts",
+                model.version(), processed.get(), changed.get(), conflicts.get());
+    }
+
+    private void scoreChunk(ScoringModel model, List<ScoreSource> chunk) {
+        List<ScoreWrite> writes = new ArrayList<>(chunk.size());
+        for (ScoreSource source : chunk) {
+            writes.add(new ScoreWrite(source.username(), source.version(),
+                    source.currentScore(), model.score(source.inputs())));
+        }
+
+        List<ScoreWrite> applied = tx.execute(status -> rescoreRepo.applyScores(model.version(), writes));
+        int appliedCount = applied != null ? applied.size() : 0;
+
+        processed.addAndGet(chunk.size());
+        conflicts.addAndGet(chunk.size() - appliedCount);
+        if (applied != null) {
+            changed.addAndGet(applied.stream().filter(w -> w.oldScore() != w.newScore()).count());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+}
@@ -0,0 +1,202 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.client.model.ContributionDay;
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
+import com.rathaur.nexus.statsservice.client.model.LeetCodeUserSnapshot;
+import com.rathaur.nexus.statsservice.dto.SyncRequest;
+import com.rathaur.nexus.statsservice.dto.SyncResult;
+import com.rathaur.nexus.statsservice.event.NexusScoreChangedEvent;
+import com.rathaur.nexus.statsservice.event.UserStatsUpdatedEvent;
+import com.rathaur.nexus.statsservice.repository.ContributionUpsertRepository;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository.GitHubRow;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository.LeetCodeRow;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository.MasterRow;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository.RecalcSource;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository.ScoreRow;
+import com.rathaur.nexus.statsservice.scoring.ScoringModel;
+import com.rathaur.nexus.statsservice.scoring.ScoringModelRegistry;
+import com.rathaur.nexus.statsservice.service.TelemetryStorage.Stored;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Write side of the bulk sync pipeline. Provider results are handed over in batches and each
+ * batch is persisted set-wise in one transaction: child upserts, one locked read of the score
+ * inputs, batched score/summary updates, segment and contribution upserts. It performs the same
+ * writes and publishes the same events as the per-user {@link StatsPersistenceService} path.
+ * Rows are written in username order so concurrent batches lock in the same order.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+public class BulkStatsWriter {
+
+    /** One provider result waiting to be written. */
+    public sealed interface ProviderWrite permits GitHubWrite, LeetCodeWrite {
+        String username();
+    }
+
+    public record GitHubWrite(String username, GitHubUserSnapshot data) implements ProviderWrite {
+    }
+
+    public record LeetCodeWrite(String username, LeetCodeUserSnapshot data) implements ProviderWrite {
+    }
+
+    private final StatsBatchRepository batchRepo;
+    private final ContributionUpsertRepository contributionRepo;
+    private final ScoringModelRegistry scoringModels;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final TelemetryStorage telemetryStorage;
+
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public BulkStatsWriter(StatsBatchRepository batchRepo,
+                           ContributionUpsertRepository contributionRepo,
+                           ScoringModelRegistry scoringModels,
+                           PlatformTransactionManager txManager,
+                           ApplicationEventPublisher events,
+                           ObjectMapper objectMapper,
+                           TelemetryStorage telemetryStorage,
+                           MeterRegistry meterRegistry) {
+        this.batchRepo = batchRepo;
+        this.contributionRepo = contributionRepo;
+        this.scoringModels = scoringModels;
+        this.tx = new TransactionTemplate(txManager);
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.telemetryStorage = telemetryStorage;
+
+        this.batchTimer = Timer.builder("nexus.sync.write.batch")
+                .description("Time to persist one bulk sync write batch")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("nexus.sync.write.batch.size")
+                .description("Provider results per bulk sync write batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates missing masters and records the handles used for this run, in one statement.
+     */
+    public void ensureMasters(List<SyncRequest> requests) {
+        Map<String, MasterRow> rows = new TreeMap<>();
+        for (SyncRequest r : requests) {
+            rows.put(r.username(), new MasterRow(r.username(), blankToNull(r.githubHandle()), blankToNull(r.leetcodeHandle())));
+        }
+        tx.executeWithoutResult(status -> {
+            List<String> created = batchRepo.upsertMasters(rows.values());
+            // Logged so the ranking engine assigns the new users a rank on its next pass
+            batchRepo.logScoreChanges(created.stream().map(u -> new ScoreRow(u, null, 0.0, null)).toList());
+            created.forEach(u -> events.publishEvent(new NexusScoreChangedEvent(u, null, 0.0)));
+        });
+    }
+
+    /**
+     * Persists one batch of provider results and recalculates the affected scores.
+     * Throws if the batch could not be committed; nothing in it is then persisted.
+     */
+    public void write(List<ProviderWrite> batch) {
+        if (batch.isEmpty()) return;
+        Map<String, GitHubUserSnapshot> github = new TreeMap<>();
+        Map<String, LeetCodeUserSnapshot> leetcode = new TreeMap<>();
+        for (ProviderWrite w : batch) {
+            switch (w) {
+                case GitHubWrite g -> github.put(g.username(), g.data());
+                case LeetCodeWrite l -> leetcode.put(l.username(), l.data());
+            }
+        }
+        Set<String> users = new TreeSet<>(github.keySet());
+        users.addAll(leetcode.keySet());
+
+        batchSize.record(batch.size());
+        batchTimer.record(() -> tx.executeWithoutResult(status -> {
+            batchRepo.upsertGitHub(github.entrySet().stream().map(e -> toRow(e.getKey(), e.getValue())).toList());
+            batchRepo.upsertLeetCode(leetcode.entrySet().stream().map(e -> toRow(e.getKey(), e.getValue())).toList());
+
+            Map<String, List<ContributionDay>> days = new TreeMap<>();
+            github.forEach((username, data) -> days.put(username, data.contributionDays()));
+            contributionRepo.upsertAll(days);
+
+            Map<String, Double> scores = recalc(users);
+
+            Map<String, Set<String>> segments = new TreeMap<>();
+            github.forEach((username, data) -> segments.put(username, LeaderboardSegmentService.segmentsFor(data)));
+            batchRepo.replaceSegments(segments, scores);
+
+            users.forEach(username -> events.publishEvent(new UserStatsUpdatedEvent(username)));
+        }));
+        log.debug("NEXUS-SYNC: Wrote batch of {} provider results for {} users", batch.size(), users.size());
+    }
+
+    /**
+     * Stamps last_sync_all for the users of a bulk run whose sync completed. Users with a failed
+     * or timed-out provider keep their old value, so the refresher still sees them as stale.
+     */
+    public void markSyncCompleted(Collection<SyncResult> results) {
+        List<String> usernames = results.stream().filter(SyncResult::complete).map(SyncResult::username).toList();
+        if (usernames.isEmpty()) return;
+        tx.executeWithoutResult(status -> {
+            batchRepo.markSyncCompleted(new TreeSet<>(usernames));
+            usernames.forEach(username -> events.publishEvent(new UserStatsUpdatedEvent(username)));
+        });
+    }
+
+    private Map<String, Double> recalc(Set<String> users) {
+        ScoringModel model = scoringModels.active();
+        List<RecalcSource> sources = batchRepo.lockRecalcSources(users);
+
+        Map<String, Double> scores = new HashMap<>();
+        List<ScoreRow> rows = sources.stream().map(s -> {
+            double score = model.score(s.inputs());
+            scores.put(s.username(), score);
+            String summary = s.hasGithub()
+                    ? objectMapper.writeValueAsString(StatsPersistenceService.quickSummary(
+                            s.inputs().publicRepos(), s.inputs().totalCommitsYearly(), s.totalSolved()))
+                    : null;
+            return new ScoreRow(s.username(), s.currentScore(), score, summary);
+        }).toList();
+        batchRepo.applyScores(model.version(), rows);
+
+        for (ScoreRow r : rows) {
+            if (r.oldScore() == null || r.oldScore() != r.newScore()) {
+                events.publishEvent(new NexusScoreChangedEvent(r.username(), r.oldScore(), r.newScore()));
+            }
+        }
+        return scores;
+    }
+
+    private GitHubRow toRow(String username, GitHubUserSnapshot data) {
+        Stored telemetry = telemetryStorage.store(data.rawTelemetry());
+        return new GitHubRow(username, data.totalRepos(), data.recentStars(), data.totalContributions(),
+                telemetry.json(), telemetry.packed());
+    }
+
+    private LeetCodeRow toRow(String username, LeetCodeUserSnapshot data) {
+        Stored metrics = telemetryStorage.store(data.rawMetrics());
+        return new LeetCodeRow(username, data.ranking(), data.totalSolved(), data.easySolved(),
+                data.mediumSolved(), data.hardSolved(), metrics.json(), metrics.packed());
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+}
@@ -0,0 +1,145 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.ContributionHeatmap;
+import com.rathaur.nexus.statsservice.dto.ContributionSeries;
+import com.rathaur.nexus.statsservice.dto.ContributionStreak;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions.InvalidContributionQueryException;
+import com.rathaur.nexus.statsservice.repository.ContributionDayRepository;
+import com.rathaur.nexus.statsservice.repository.ContributionDayRepository.DayCount;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Activity views over the contribution_day series. Every query is a range scan on the
+ * (username, day) primary key, so cost follows the requested range, not the stored history.
+ * Days are UTC, matching the dates GitHub reports in its contribution calendar.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ContributionService {
+
+    public static final int MAX_RANGE_DAYS = 366;
+    public static final int MAX_WINDOW_DAYS = 90;
+
+    private static final int STREAK_PAGE = 400;
+
+    private final ContributionDayRepository dayRepo;
+    private final UserStatsRepository userStatsRepo;
+
+    public ContributionStreak streak(String username) {
+        requireUser(username);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        // Walk active days backwards until the first gap; almost always a single page
+        LocalDate lastActive = null;
+        LocalDate expected = null;
+        int current = 0;
+        LocalDate upTo = today;
+        while (true) {
+            List<DayCount> page = dayRepo.findActiveDaysBackwards(username, upTo, STREAK_PAGE);
+            boolean broken = false;
+            for (DayCount d : page) {
+                if (lastActive == null) {
+                    lastActive = d.getDay();
+                    if (lastActive.isBefore(today.minusDays(1))) {
+                        broken = true;
+                        break;
+                    }
+                } else if (!d.getDay().equals(expected)) {
+                    broken = true;
+                    break;
+                }
+                current++;
+                expected = d.getDay().minusDays(1);
+            }
+            if (broken || page.size() < STREAK_PAGE) break;
+            upTo = expected;
+        }
+
+        int longest = Math.max(dayRepo.findLongestStreak(username), current);
+        return new ContributionStreak(username, current, longest, lastActive);
+    }
+
+    /**
+     * @param windowDays length of the trailing window, e.g. 7 for a weekly total
+     * @param days       how many days back from today to return points for
+     */
+    public ContributionSeries rolling(String username, int windowDays, int days) {
+        if (windowDays < 1 || windowDays > MAX_WINDOW_DAYS) {
+            throw new InvalidContributionQueryException("Window must be between 1 and " + MAX_WINDOW_DAYS + " days");
+        }
+        requireUser(username);
+        LocalDate to = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = to.minusDays(Math.max(1, Math.min(days, MAX_RANGE_DAYS)) - 1L);
+
+        List<ContributionSeries.Point> points = dayRepo.findRollingSums(username, from, to, windowDays).stream()
+                .map(r -> new ContributionSeries.Point(r.getDay(), r.getTotal()))
+                .toList();
+        return new ContributionSeries(username, from, to, windowDays, points);
+    }
+
+    /**
+     * @param from first day, inclusive; defaults to 364 days before {@code to}
+     * @param to   last day, inclusive; defaults to today
+     */
+    public ContributionHeatmap heatmap(String username, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(364);
+        if (start.isAfter(end)) {
+            throw new InvalidContributionQueryException("Heatmap range must satisfy from <= to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new InvalidContributionQueryException("Heatmap range may span at most " + MAX_RANGE_DAYS + " days");
+        }
+        requireUser(username);
+
+        List<DayCount> rows = dayRepo.findRange(username, start, end);
+        int[] quartiles = quartiles(rows);
+
+        long total = 0;
+        List<ContributionHeatmap.Cell> cells = new ArrayList<>(rows.size());
+        for (DayCount d : rows) {
+            int count = d.getContributionCount();
+            total += count;
+            cells.add(new ContributionHeatmap.Cell(d.getDay(), count, level(count, quartiles)));
+        }
+        return new ContributionHeatmap(username, start, end, total, cells);
+    }
+
+    // Upper bounds of levels 1-3 among active days; level 4 is everything above
+    private static int[] quartiles(List<DayCount> rows) {
+        int[] active = rows.stream().mapToInt(DayCount::getContributionCount).filter(c -> c > 0).sorted().toArray();
+        if (active.length == 0) return new int[]{0, 0, 0};
+        return new int[]{
+                active[(active.length - 1) / 4],
+                active[(active.length - 1) / 2],
+                active[3 * (active.length - 1) / 4]
+        };
+    }
+
+    private static int level(int count, int[] quartiles) {
+        if (count <= 0) return 0;
+        if (count <= quartiles[0]) return 1;
+        if (count <= quartiles[1]) return 2;
+        if (count <= quartiles[2]) return 3;
+        return 4;
+    }
+
+    private void requireUser(String username) {
+        if (!userStatsRepo.existsById(username)) {
+            throw new EntityNotFoundException("Profile stats not found for: " + username);
+        }
+    }
+}
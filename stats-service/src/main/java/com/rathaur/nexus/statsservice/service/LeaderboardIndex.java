@@ -0,0 +1,351 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.LeaderboardEntry;
+import com.rathaur.nexus.statsservice.event.NexusScoreChangedEvent;
+import com.rathaur.nexus.statsservice.event.ScoresRescoredEvent;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository.ScoreRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * In-process leaderboard index.
+ * <p>
+ * Scores and usernames live in two parallel primitive/reference arrays kept sorted by
+ * (score DESC, username ASC), plus a username -> score map to locate a user's slot.
+ * Rank-of-user, top-N and rank-range lookups are binary searches (O(log n) + k rows) and
+ * never touch Postgres. A score change moves one slot with {@link System#arraycopy}.
+ * <p>
+ * The index is loaded from the database at startup, updated after commit whenever
+ * {@code StatsPersistenceService} changes a score, and periodically rebuilt so scores
+ * written by other instances converge.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+public class LeaderboardIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final UserStatsRepository userStatsRepo;
+    private final TransactionTemplate readOnlyTx;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // One rebuild at a time: each owns pendingDuringRebuild from reading the table until its replay
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Sorted parallel arrays; slots [0, size) are live. Guarded by lock.
+    private double[] scores = new double[INITIAL_CAPACITY];
+    private String[] usernames = new String[INITIAL_CAPACITY];
+    private int size;
+    private Map<String, Double> scoreByUser = new HashMap<>();
+
+    // Score changes that arrive while a rebuild is reading the table; replayed onto the new arrays
+    private Map<String, Double> pendingDuringRebuild;
+
+    private volatile boolean ready;
+
+    public LeaderboardIndex(UserStatsRepository userStatsRepo, PlatformTransactionManager transactionManager) {
+        this.userStatsRepo = userStatsRepo;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- QUERIES ---
+
+    public List<LeaderboardEntry> top(int n) {
+        return range(1, n);
+    }
+
+    /**
+     * Entries at leaderboard positions [fromPosition, toPosition], 1-based and inclusive.
+     */
+    public List<LeaderboardEntry> range(int fromPosition, int toPosition) {
+        lock.readLock().lock();
+        try {
+            int from = Math.max(0, fromPosition - 1);
+            int to = Math.min(size, toPosition);
+            if (from >= to) return Collections.emptyList();
+
+            List<LeaderboardEntry> entries = new ArrayList<>(to - from);
+            int rank = firstPositionWithScore(scores[from]) + 1;
+            for (int i = from; i < to; i++) {
+                if (i > from && scores[i] != scores[i - 1]) {
+                    rank = i + 1;
+                }
+                entries.add(new LeaderboardEntry(rank, usernames[i], scores[i]));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Competition rank of the user (ties share the best rank), or empty if the user is unknown.
+     */
+    public Optional<Integer> rankOf(String username) {
+        lock.readLock().lock();
+        try {
+            Double score = scoreByUser.get(username);
+            if (score == null) return Optional.empty();
+            return Optional.of(firstPositionWithScore(score) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 1-based position of the user in leaderboard order (unique, unlike rank).
+     */
+    public Optional<Integer> positionOf(String username) {
+        lock.readLock().lock();
+        try {
+            Double score = scoreByUser.get(username);
+            if (score == null) return Optional.empty();
+            int slot = search(score, username);
+            return slot >= 0 ? Optional.of(slot + 1) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Double> scoreOf(String username) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(scoreByUser.get(username));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- UPDATES ---
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScoreChanged(NexusScoreChangedEvent event) {
+        update(event.username(), event.newScore());
+    }
+
+    public void update(String username, double newScore) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.put(username, newScore);
+            }
+            applyUpdate(username, newScore);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    // Bulk re-scores write through JDBC without per-user events
+    @EventListener
+    public void onScoresRescored(ScoresRescoredEvent event) {
+        if (event.changed() > 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${nexus.leaderboard.rebuild-interval:600000}",
+            fixedDelayString = "${nexus.leaderboard.rebuild-interval:600000}")
+    public void rebuild() {
+        // A rebuild requested while another runs (e.g. a re-score during the scheduled one) waits
+        // and then reads the table again, so it still sees the writes that triggered it
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Snapshot snapshot = readOnlyTx.execute(status -> {
+                try (Stream<ScoreRow> rows = userStatsRepo.streamAllScores()) {
+                    return Snapshot.load(rows);
+                }
+            });
+
+            lock.writeLock().lock();
+            try {
+                scores = snapshot.scores;
+                usernames = snapshot.usernames;
+                size = snapshot.size;
+                scoreByUser = snapshot.scoreByUser;
+                pendingDuringRebuild.forEach(this::applyUpdate);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("NEXUS-LEADERBOARD: Index rebuilt with {} users in {}ms", snapshot.size, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("NEXUS-LEADERBOARD: Index rebuild failed", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // --- INTERNALS (caller holds the write lock where mutating) ---
+
+    private void applyUpdate(String username, double newScore) {
+        Double oldScore = scoreByUser.put(username, newScore);
+        if (oldScore != null) {
+            int slot = search(oldScore, username);
+            if (slot >= 0) {
+                System.arraycopy(scores, slot + 1, scores, slot, size - slot - 1);
+                System.arraycopy(usernames, slot + 1, usernames, slot, size - slot - 1);
+                size--;
+                usernames[size] = null;
+            }
+        }
+
+        ensureCapacity(size + 1);
+        int insertAt = -(search(newScore, username) + 1);
+        System.arraycopy(scores, insertAt, scores, insertAt + 1, size - insertAt);
+        System.arraycopy(usernames, insertAt, usernames, insertAt + 1, size - insertAt);
+        scores[insertAt] = newScore;
+        usernames[insertAt] = username;
+        size++;
+    }
+
+    /**
+     * Binary search for (score, username). Returns the slot, or {@code -(insertionPoint) - 1}.
+     */
+    private int search(double score, String username) {
+        int lo = 0, hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(scores[mid], usernames[mid], score, username);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Number of entries with a strictly higher score, i.e. the first slot holding {@code score} or lower.
+     */
+    private int firstPositionWithScore(double score) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (scores[mid] > score) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > scores.length) {
+            int newCapacity = Math.max(required, scores.length + (scores.length >> 1));
+            scores = Arrays.copyOf(scores, newCapacity);
+            usernames = Arrays.copyOf(usernames, newCapacity);
+        }
+    }
+
+    /** Leaderboard order: higher score first, then username ascending. */
+    static int compare(double scoreA, String userA, double scoreB, String userB) {
+        int byScore = Double.compare(scoreB, scoreA);
+        return byScore != 0 ? byScore : userA.compareTo(userB);
+    }
+
+    /**
+     * Freshly loaded arrays, built off-lock while the live index keeps serving reads.
+     */
+    private static final class Snapshot {
+        double[] scores = new double[INITIAL_CAPACITY];
+        String[] usernames = new String[INITIAL_CAPACITY];
+        int size;
+        Map<String, Double> scoreByUser = new HashMap<>();
+
+        static Snapshot load(Stream<ScoreRow> rows) {
+            Snapshot s = new Snapshot();
+            boolean[] sorted = {true};
+            rows.forEach(row -> {
+                double score = row.getNexusScore() != null ? row.getNexusScore() : 0.0;
+                if (s.size == s.scores.length) {
+                    s.scores = Arrays.copyOf(s.scores, s.size * 2);
+                    s.usernames = Arrays.copyOf(s.usernames, s.size * 2);
+                }
+                if (s.size > 0 && compare(s.scores[s.size - 1], s.usernames[s.size - 1], score, row.getUsername()) > 0) {
+                    sorted[0] = false;
+                }
+                s.scores[s.size] = score;
+                s.usernames[s.size] = row.getUsername();
+                s.scoreByUser.put(row.getUsername(), score);
+                s.size++;
+            });
+            if (!sorted[0]) {
+                s.sort();
+            }
+            return s;
+        }
+
+        // Only needed if the database ordering ever disagrees with Java's (e.g. collation changes)
+        private void sort() {
+            Integer[] order = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+            Arrays.sort(order, (a, b) -> compare(scores[a], usernames[a], scores[b], usernames[b]));
+            double[] sortedScores = new double[scores.length];
+            String[] sortedUsers = new String[usernames.length];
+            for (int i = 0; i < size; i++) {
+                sortedScores[i] = scores[order[i]];
+                sortedUsers[i] = usernames[order[i]];
+            }
+            scores = sortedScores;
+            usernames = sortedUsers;
+        }
+    }
+}
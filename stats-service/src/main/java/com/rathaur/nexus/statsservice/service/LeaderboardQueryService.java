@@ -0,0 +1,137 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.LeaderboardEntry;
+import com.rathaur.nexus.statsservice.dto.LeaderboardPage;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions.InvalidLeaderboardQueryException;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository.LeaderboardRow;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Deep leaderboard reads straight from Postgres using keyset predicates on covering indexes,
+ * so page 1 and page 10,000 cost the same. Ranks are the maintained global_rank column.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LeaderboardQueryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_RADIUS = 50;
+
+    private final UserStatsRepository userStatsRepo;
+
+    /**
+     * @param cursor opaque cursor from a previous page, or null for the top of the board
+     */
+    public LeaderboardPage page(String cursor, int size) {
+        int limit = clamp(size, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to learn whether another page exists
+        List<LeaderboardRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = userStatsRepo.findLeaderboardFirstPage(limit + 1);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            rows = userStatsRepo.findLeaderboardPageAfter(after.score(), after.username(), limit + 1);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<LeaderboardEntry> entries = rows.stream().limit(limit).map(LeaderboardQueryService::toEntry).toList();
+
+        String next = null;
+        if (hasMore) {
+            LeaderboardEntry last = entries.getLast();
+            next = new Cursor(last.nexusScore(), last.username()).encode();
+        }
+        return new LeaderboardPage(entries, next);
+    }
+
+    /**
+     * The user plus up to {@code radius} neighbours on each side, in leaderboard order.
+     */
+    public List<LeaderboardEntry> around(String username, int radius) {
+        int r = Math.max(0, Math.min(radius, MAX_RADIUS));
+        LeaderboardRow self = userStatsRepo.findLeaderboardRow(username)
+                .orElseThrow(() -> new EntityNotFoundException("Profile stats not found for: " + username));
+
+        List<LeaderboardEntry> window = new ArrayList<>(2 * r + 1);
+        if (r > 0) {
+            // Comes back nearest-first; reverse into leaderboard order
+            userStatsRepo.findLeaderboardBefore(self.getNexusScore(), username, r).reversed()
+                    .forEach(row -> window.add(toEntry(row)));
+        }
+        window.add(toEntry(self));
+        if (r > 0) {
+            userStatsRepo.findLeaderboardPageAfter(self.getNexusScore(), username, r)
+                    .forEach(row -> window.add(toEntry(row)));
+        }
+        return window;
+    }
+
+    /**
+     * Users ranked between {@code fromRank} and {@code toRank}, inclusive. Ties can make the
+     * result slightly longer than the span; it is capped at {@link #MAX_PAGE_SIZE} rows.
+     */
+    public List<LeaderboardEntry> rankRange(int fromRank, int toRank) {
+        if (fromRank < 1 || toRank < fromRank) {
+            throw new InvalidLeaderboardQueryException("Rank range must satisfy 1 <= from <= to");
+        }
+        if (toRank - fromRank >= MAX_PAGE_SIZE) {
+            throw new InvalidLeaderboardQueryException("Rank range may span at most " + MAX_PAGE_SIZE + " ranks");
+        }
+        return userStatsRepo.findByRankRange(fromRank, toRank, MAX_PAGE_SIZE).stream()
+                .map(LeaderboardQueryService::toEntry)
+                .toList();
+    }
+
+    private static LeaderboardEntry toEntry(LeaderboardRow row) {
+        // Rank is 0 only for users created since the last ranking pass
+        int rank = row.getGlobalRank() != null ? row.getGlobalRank() : 0;
+        return new LeaderboardEntry(rank, row.getUsername(), row.getNexusScore());
+    }
+
+    private static int clamp(int size, int max) {
+        return Math.max(1, Math.min(size, max));
+    }
+
+    /**
+     * Position in (score desc, username asc) order. Base64url so it survives query strings untouched.
+     */
+    record Cursor(double score, String username) {
+
+        String encode() {
+            String raw = Double.toString(score) + '|' + username;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                if (sep <= 0 || sep == raw.length() - 1) {
+                    throw new InvalidLeaderboardQueryException("Malformed leaderboard cursor");
+                }
+                double score = Double.parseDouble(raw.substring(0, sep));
+                if (!Double.isFinite(score)) {
+                    // parseDouble accepts "NaN" and "Infinity", which no stored score can equal
+                    throw new InvalidLeaderboardQueryException("Malformed leaderboard cursor");
+                }
+                return new Cursor(score, raw.substring(sep + 1));
+            } catch (IllegalArgumentException e) {
+                // Bad base64 and NumberFormatException both land here
+                throw new InvalidLeaderboardQueryException("Malformed leaderboard cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
+import com.rathaur.nexus.statsservice.dto.LeaderboardEntry;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions.InvalidLeaderboardQueryException;
+import com.rathaur.nexus.statsservice.repository.LeaderboardSegmentRepository;
+import com.rathaur.nexus.statsservice.repository.LeaderboardSegmentRepository.SegmentRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Materialized segment leaderboards: "lang:&lt;language&gt;" from the primary languages of a user's
+ * recently pushed repos, and "loc:&lt;place&gt;" from each comma-separated part of their profile
+ * location ("Bengaluru, India" joins loc:bengaluru and loc:india). Keys are lower-cased.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardSegmentService {
+
+    public static final String LANGUAGE = "lang:";
+    public static final String LOCATION = "loc:";
+
+    private static final int MAX_LOCATION_PARTS = 3;
+    private static final int MAX_KEY_LENGTH = 120;
+
+    private final LeaderboardSegmentRepository segmentRepo;
+
+    /**
+     * Replaces the user's segment memberships with those derived from the latest GitHub snapshot.
+     * Called inside the sync transaction, after the score has been recalculated.
+     */
+    @Transactional
+    public void replaceSegments(String username, GitHubUserSnapshot snapshot, double score) {
+        Set<String> segments = segmentsFor(snapshot);
+        if (segments.isEmpty()) {
+            segmentRepo.deleteAllSegments(username);
+            return;
+        }
+        segmentRepo.deleteOtherSegments(username, segments);
+        for (String segment : segments) {
+            segmentRepo.upsert(segment, username, score);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaderboardEntry> top(String segment, int limit) {
+        List<SegmentRow> rows = segmentRepo.findTopBySegment(normalize(segment), limit);
+
+        // Competition rank within the segment, computed over the returned prefix
+        List<LeaderboardEntry> entries = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            SegmentRow row = rows.get(i);
+            int rank = (i > 0 && row.getNexusScore().equals(rows.get(i - 1).getNexusScore()))
+                    ? entries.get(i - 1).rank()
+                    : i + 1;
+            entries.add(new LeaderboardEntry(rank, row.getUsername(), row.getNexusScore()));
+        }
+        return entries;
+    }
+
+    static Set<String> segmentsFor(GitHubUserSnapshot snapshot) {
+        Set<String> segments = new LinkedHashSet<>();
+        if (snapshot.languages() != null) {
+            for (String language : snapshot.languages()) {
+                addKey(segments, LANGUAGE, language);
+            }
+        }
+        if (snapshot.location() != null) {
+            String[] parts = snapshot.location().split(",");
+            for (int i = 0; i < Math.min(parts.length, MAX_LOCATION_PARTS); i++) {
+                addKey(segments, LOCATION, parts[i]);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Canonical form of a segment query parameter, e.g. "lang:Java" -> "lang:java".
+     */
+    static String normalize(String segment) {
+        int sep = segment.indexOf(':');
+        if (sep < 0) {
+            throw new InvalidLeaderboardQueryException("Segment must look like lang:<language> or loc:<place>");
+        }
+        String prefix = segment.substring(0, sep + 1).toLowerCase(Locale.ROOT);
+        if (!LANGUAGE.equals(prefix) && !LOCATION.equals(prefix)) {
+            throw new InvalidLeaderboardQueryException("Unknown segment type: " + prefix);
+        }
+        Set<String> key = new LinkedHashSet<>();
+        addKey(key, prefix, segment.substring(sep + 1));
+        if (key.isEmpty()) {
+            throw new InvalidLeaderboardQueryException("Segment value must not be empty");
+        }
+        return key.iterator().next();
+    }
+
+    private static void addKey(Set<String> into, String prefix, String value) {
+        if (value == null) return;
+        String cleaned = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (cleaned.isEmpty()) return;
+        String key = prefix + cleaned;
+        into.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+    }
+}
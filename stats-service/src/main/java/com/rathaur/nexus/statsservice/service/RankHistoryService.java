@@ -0,0 +1,84 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.RankHistoryView;
+import com.rathaur.nexus.statsservice.entity.RankHistory;
+import com.rathaur.nexus.statsservice.repository.RankHistoryRepository;
+import com.rathaur.nexus.statsservice.repository.RankMaintenanceRepository;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reads and trims the rank/score series written by {@link RankingEngineService}.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+public class RankHistoryService {
+
+    public static final int MAX_DAYS = 365;
+
+    private final RankHistoryRepository historyRepo;
+    private final RankMaintenanceRepository rankRepo;
+    private final UserStatsRepository userStatsRepo;
+    private final Duration retention;
+
+    public RankHistoryService(RankHistoryRepository historyRepo,
+                              RankMaintenanceRepository rankRepo,
+                              UserStatsRepository userStatsRepo,
+                              @Value("${nexus.rank.history-retention:400d}") Duration retention) {
+        this.historyRepo = historyRepo;
+        this.rankRepo = rankRepo;
+        this.userStatsRepo = userStatsRepo;
+        this.retention = retention;
+    }
+
+    @Transactional(readOnly = true)
+    public RankHistoryView history(String username, int days) {
+        Instant since = Instant.now().minus(Duration.ofDays(Math.max(1, Math.min(days, MAX_DAYS))));
+        List<RankHistory> series = historyRepo.findSeries(username, since);
+
+        if (series.isEmpty() && !userStatsRepo.existsById(username)) {
+            throw new EntityNotFoundException("Profile stats not found for: " + username);
+        }
+
+        List<RankHistoryView.Point> points = series.stream()
+                .map(h -> new RankHistoryView.Point(h.getRecordedAt(), h.getGlobalRank(), h.getNexusScore()))
+                .toList();
+
+        Integer rankChange = null;
+        Double scoreChange = null;
+        if (points.size() > 1) {
+            RankHistoryView.Point first = points.getFirst();
+            RankHistoryView.Point last = points.getLast();
+            if (first.globalRank() != null && last.globalRank() != null) {
+                rankChange = first.globalRank() - last.globalRank();
+            }
+            scoreChange = last.nexusScore() - first.nexusScore();
+        }
+        return new RankHistoryView(username, since, points, rankChange, scoreChange);
+    }
+
+    /**
+     * Daily trim. Keeps each user's last point before the cutoff so old series still have a baseline.
+     */
+    @Transactional
+    @Scheduled(cron = "${nexus.rank.history-prune-cron:0 30 3 * * *}")
+    public void pruneHistory() {
+        try {
+            int removed = rankRepo.pruneHistory(Instant.now().minus(retention));
+            log.info("NEXUS-RANK-HISTORY: Pruned {} points older than {}", removed, retention);
+        } catch (Exception e) {
+            log.error("NEXUS-RANK-HISTORY: Failed to prune rank history", e);
+        }
+    }
+}
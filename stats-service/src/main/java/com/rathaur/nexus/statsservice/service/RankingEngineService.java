@@ -1,40 +1,156 @@
 package com.rathaur.nexus.statsservice.service;
 
-import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
-import lombok.RequiredArgsConstructor;
+import com.rathaur.nexus.statsservice.event.RanksChangedEvent;
+import com.rathaur.nexus.statsservice.repository.RankMaintenanceRepository;
+import com.rathaur.nexus.statsservice.repository.ScoreChangeLogRepository;
+import com.rathaur.nexus.statsservice.repository.ScoreChangeLogRepository.ScoreBand;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
+ * Keeps user_stats.global_rank in step with nexus_score.
+ * Instead of rewriting every row each pass, it reads the score change log and re-ranks only the
+ * score bands those changes touched. Rows whose rank did not move are never written.
+ * Every rank or score that did move gets a point in rank_history stamped with the pass time.
+ *
  * @author Tanuj Singh Rathaur
  * @date 1/27/2026
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RankingEngineService {
 
-    private final UserStatsRepository userStatsRepo;
+    private final ScoreChangeLogRepository changeLogRepo;
+    private final RankMaintenanceRepository rankRepo;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int fullRerankThreshold;
+
+    private final DistributionSummary rowsTouched;
+    private final Counter incrementalRuns;
+    private final Counter fullRuns;
+
+    // First pass after boot is a full diff: catches anything written before the change log existed
+    private volatile boolean fullPassDone = false;
+
+    public RankingEngineService(ScoreChangeLogRepository changeLogRepo,
+                                RankMaintenanceRepository rankRepo,
+                                PlatformTransactionManager txManager,
+                                ApplicationEventPublisher events,
+                                MeterRegistry meterRegistry,
+                                @Value("${nexus.rank.full-rerank-threshold:500}") int fullRerankThreshold) {
+        this.changeLogRepo = changeLogRepo;
+        this.rankRepo = rankRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.events = events;
+        this.fullRerankThreshold = fullRerankThreshold;
+
+        this.rowsTouched = DistributionSummary.builder("nexus.rank.rows.touched")
+                .description("Rows whose global rank was rewritten per ranking pass")
+                .register(meterRegistry);
+        this.incrementalRuns = Counter.builder("nexus.rank.runs").tag("mode", "incremental")
+                .register(meterRegistry);
+        this.fullRuns = Counter.builder("nexus.rank.runs").tag("mode", "full")
+                .register(meterRegistry);
+    }
 
     /**
-     * Recalculates the global rank for all users.
-     * Fixed Delay: Runs 30 minutes after the PREVIOUS task finishes.
+     * Applies pending score changes to global ranks.
+     * Fixed Delay: Runs 5 minutes after the PREVIOUS task finishes.
      */
-    @Scheduled(fixedDelayString = "300000")
+    @Scheduled(fixedDelayString = "${nexus.rank.refresh-interval:300000}")
     public void refreshGlobalRankings() {
-        log.info("NEXUS-RANK-ENGINE: Starting platform-wide ranking recalculation...");
-
         try {
-            long startTime = System.currentTimeMillis();
-            userStatsRepo.updateGlobalRanks();
-            long endTime = System.currentTimeMillis();
-
-            log.info("NEXUS-RANK-ENGINE: Successfully updated all global ranks in {}ms", (endTime - startTime));
+            boolean fullPass = !fullPassDone;
+            List<String> moved = tx.execute(status -> applyPendingChanges(fullPass));
+            // Flipped only after commit so a rolled-back full pass is retried
+            fullPassDone = true;
+            if (moved != null && !moved.isEmpty()) {
+                events.publishEvent(new RanksChangedEvent(moved));
+            }
         } catch (Exception e) {
             log.error("NEXUS-RANK-ENGINE: Critical failure during ranking update!", e);
         }
     }
-}
\ No newline at end of file
+
+    // Ranks and the log prune commit together, so a failed pass simply replays next time
+    private List<String> applyPendingChanges(boolean forceFull) {
+        long startTime = System.currentTimeMillis();
+        Instant passTime = Instant.now();
+
+        Long maxId = changeLogRepo.findMaxId();
+        if (maxId == null && !forceFull) {
+            log.debug("NEXUS-RANK-ENGINE: No score changes since last pass.");
+            rowsTouched.record(0);
+            return List.of();
+        }
+
+        List<ScoreBand> bands = maxId == null ? List.of() : mergeBands(changeLogRepo.findBandsUpTo(maxId));
+
+        List<String> moved;
+        String mode;
+        if (forceFull || bands.size() > fullRerankThreshold) {
+            moved = rankRepo.rerankAll(passTime);
+            fullRuns.increment();
+            mode = "full";
+        } else {
+            moved = new ArrayList<>();
+            for (ScoreBand band : bands) {
+                moved.addAll(rankRepo.rerankBand(band.getLo(), band.getHi(), passTime));
+            }
+            incrementalRuns.increment();
+            mode = "incremental (" + bands.size() + " bands)";
+        }
+
+        // Only entries we have applied; changes logged during this pass wait for the next one
+        if (maxId != null) {
+            rankRepo.recordScoreChanges(maxId, passTime);
+            changeLogRepo.deleteUpTo(maxId);
+        }
+        rowsTouched.record(moved.size());
+
+        log.info("NEXUS-RANK-ENGINE: {} pass rewrote {} ranks in {}ms",
+                mode, moved.size(), System.currentTimeMillis() - startTime);
+        return moved;
+    }
+
+    /**
+     * Merges overlapping bands. Input must be ordered by lo, which the repository query guarantees.
+     */
+    static List<ScoreBand> mergeBands(List<ScoreBand> sorted) {
+        List<ScoreBand> merged = new ArrayList<>();
+        double lo = 0;
+        double hi = 0;
+        boolean open = false;
+
+        for (ScoreBand band : sorted) {
+            if (open && band.getLo() <= hi) {
+                hi = Math.max(hi, band.getHi());
+                continue;
+            }
+            if (open) merged.add(new Band(lo, hi));
+            lo = band.getLo();
+            hi = band.getHi();
+            open = true;
+        }
+        if (open) merged.add(new Band(lo, hi));
+        return merged;
+    }
+
+    private record Band(double lo, double hi) implements ScoreBand {
+        @Override public Double getLo() { return lo; }
+        @Override public Double getHi() { return hi; }
+    }
+}
@@ -0,0 +1,234 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.client.GitHubClient;
+import com.rathaur.nexus.statsservice.client.LeetCodeClient;
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
+import com.rathaur.nexus.statsservice.client.model.LeetCodeUserSnapshot;
+import com.rathaur.nexus.statsservice.dto.SyncResult;
+import com.rathaur.nexus.statsservice.dto.SyncResult.ProviderOutcome;
+import com.rathaur.nexus.statsservice.event.NexusScoreChangedEvent;
+import com.rathaur.nexus.statsservice.event.UserStatsUpdatedEvent;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import com.rathaur.nexus.statsservice.repository.ReactiveStatsRepository;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository.ScoreRow;
+import com.rathaur.nexus.statsservice.scoring.ScoringModel;
+import com.rathaur.nexus.statsservice.scoring.ScoringModelRegistry;
+import com.rathaur.nexus.statsservice.service.SyncFlights.FlightKey;
+import com.rathaur.nexus.statsservice.service.TelemetryStorage.Stored;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * User sync for the {@code reactive} profile: fetch, persist, recalc and stamp as one
+ * non-blocking pipeline. No thread is parked on a provider or on Postgres at any point; both
+ * providers run concurrently and each persists in its own R2DBC transaction as soon as it
+ * arrives, exactly like {@link StatsSyncService#parallelStatsSync} does over JPA.
+ * Events are published after each commit, so the cache and leaderboard index stay in step.
+ * <p>
+ * Syncs go through the same {@link SyncFlights} as the JPA path, so concurrent requests for a
+ * user share one sync and a recent clean result is reused. Nothing queues on a thread here, so
+ * admission is bounded by {@code nexus.sync.reactive.max-in-flight} instead of a job queue:
+ * beyond it a new sync is rejected with 429.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveSyncService {
+
+    private final GitHubClient gitHubClient;
+    private final LeetCodeClient leetCodeClient;
+    private final ReactiveStatsRepository repo;
+    private final ScoringModelRegistry scoringModels;
+    private final TransactionalOperator tx;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final TelemetryStorage telemetryStorage;
+    private final SyncFlights flights;
+
+    // Syncs actually calling the providers; attached and reused callers do not count
+    private final AtomicInteger running = new AtomicInteger();
+    private final int maxInFlight;
+
+    @Value("${nexus.sync.github-timeout:15s}")
+    private Duration githubTimeout;
+
+    @Value("${nexus.sync.leetcode-timeout:10s}")
+    private Duration leetcodeTimeout;
+
+    public ReactiveSyncService(GitHubClient gitHubClient,
+                               LeetCodeClient leetCodeClient,
+                               ReactiveStatsRepository repo,
+                               ScoringModelRegistry scoringModels,
+                               TransactionalOperator tx,
+                               ApplicationEventPublisher events,
+                               ObjectMapper objectMapper,
+                               TelemetryStorage telemetryStorage,
+                               SyncFlights flights,
+                               MeterRegistry meterRegistry,
+                               @Value("${nexus.sync.reactive.max-in-flight:256}") int maxInFlight) {
+        this.gitHubClient = gitHubClient;
+        this.leetCodeClient = leetCodeClient;
+        this.repo = repo;
+        this.scoringModels = scoringModels;
+        this.tx = tx;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.telemetryStorage = telemetryStorage;
+        this.flights = flights;
+        this.maxInFlight = Math.max(1, maxInFlight);
+
+        Gauge.builder("nexus.sync.reactive.active", running, AtomicInteger::get)
+                .description("Reactive syncs currently calling the providers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws StatsDomainExceptions.SyncQueueFullException (as an error signal) when
+     *         {@code nexus.sync.reactive.max-in-flight} syncs are already running
+     */
+    public Mono<SyncResult> sync(String username, String githubHandle, String leetcodeHandle) {
+        return flights.join(FlightKey.of(username, githubHandle, leetcodeHandle),
+                () -> admitted(username, githubHandle, leetcodeHandle));
+    }
+
+    private Mono<SyncResult> admitted(String username, String githubHandle, String leetcodeHandle) {
+        if (running.incrementAndGet() > maxInFlight) {
+            running.decrementAndGet();
+            log.warn("NEXUS-SYNC: {} reactive syncs in flight, rejecting sync for {}", maxInFlight, username);
+            return Mono.error(new StatsDomainExceptions.SyncQueueFullException(
+                    "Too many sync requests in flight. Please retry shortly."));
+        }
+        return doSync(username, githubHandle, leetcodeHandle)
+                .doFinally(signal -> running.decrementAndGet());
+    }
+
+    private Mono<SyncResult> doSync(String username, String githubHandle, String leetcodeHandle) {
+        log.info("NEXUS-SYNC: Starting [Reactive] sync for user: {}", username);
+
+        Mono<Void> ensureMaster = repo.upsertMaster(username, blankToNull(githubHandle), blankToNull(leetcodeHandle))
+                // Logged so the ranking engine assigns the new user a rank on its next pass
+                .flatMap(created -> created
+                        ? repo.logScoreChange(username, null, 0.0).thenReturn(true)
+                        : Mono.just(false))
+                .as(tx::transactional)
+                .flatMap(created -> created
+                        ? Mono.fromRunnable(() -> events.publishEvent(new NexusScoreChangedEvent(username, null, 0.0)))
+                        : Mono.empty())
+                .then();
+
+        return ensureMaster
+                .then(Mono.zip(
+                        syncProvider("GitHub", username, githubHandle, githubTimeout,
+                                handle -> gitHubClient.fetchUserStatsAsync(handle, githubTimeout),
+                                data -> persistGitHub(username, data)),
+                        syncProvider("LeetCode", username, leetcodeHandle, leetcodeTimeout,
+                                handle -> leetCodeClient.fetchUserStatsAsync(handle, leetcodeTimeout),
+                                data -> persistLeetCode(username, data))))
+                .map(outcomes -> new SyncResult(username, outcomes.getT1(), outcomes.getT2(), Instant.now()))
+                // A failed provider leaves last_sync_all alone, so the refresher still sees the user as stale
+                .flatMap(result -> result.complete()
+                        ? repo.markSyncCompleted(username)
+                                .as(tx::transactional)
+                                .then(Mono.fromRunnable(() -> events.publishEvent(new UserStatsUpdatedEvent(username))))
+                                .thenReturn(result)
+                        : Mono.just(result))
+                .doOnSuccess(result -> log.info("NEXUS-SYNC: Reactive sync finished for user: {} [github={}, leetcode={}]",
+                        username, result.github().status(), result.leetcode().status()));
+    }
+
+    private Mono<Void> persistGitHub(String username, GitHubUserSnapshot data) {
+        Stored telemetry = telemetryStorage.store(data.rawTelemetry());
+        return repo.upsertGitHub(username, data.totalRepos(), data.recentStars(), data.totalContributions(),
+                        telemetry.json(), telemetry.packed())
+                .then(recalc(username))
+                .flatMap(score -> repo.replaceSegments(username, LeaderboardSegmentService.segmentsFor(data), score.newScore())
+                        .then(repo.upsertContributions(username, data.contributionDays()))
+                        .thenReturn(score))
+                .as(tx::transactional)
+                .flatMap(this::publishCommitted);
+    }
+
+    private Mono<Void> persistLeetCode(String username, LeetCodeUserSnapshot data) {
+        Stored metrics = telemetryStorage.store(data.rawMetrics());
+        return repo.upsertLeetCode(username, data.ranking(), data.totalSolved(), data.easySolved(),
+                        data.mediumSolved(), data.hardSolved(), metrics.json(), metrics.packed())
+                .then(recalc(username))
+                .as(tx::transactional)
+                .flatMap(this::publishCommitted);
+    }
+
+    // Same inputs, model and summary as StatsPersistenceService#recalc, read under the master's row lock
+    private Mono<ScoreRow> recalc(String username) {
+        return Mono.defer(() -> {
+            ScoringModel model = scoringModels.active();
+            return repo.lockRecalcSource(username).flatMap(source -> {
+                double score = model.score(source.inputs());
+                String summary = source.hasGithub()
+                        ? toJson(StatsPersistenceService.quickSummary(source.inputs().publicRepos(),
+                                source.inputs().totalCommitsYearly(), source.totalSolved()))
+                        : null;
+                ScoreRow row = new ScoreRow(username, source.currentScore(), score, summary);
+                return repo.applyScore(model.version(), row).thenReturn(row);
+            });
+        });
+    }
+
+    private Mono<Void> publishCommitted(ScoreRow row) {
+        return Mono.fromRunnable(() -> {
+            if (row.oldScore() == null || row.oldScore() != row.newScore()) {
+                events.publishEvent(new NexusScoreChangedEvent(row.username(), row.oldScore(), row.newScore()));
+            }
+            events.publishEvent(new UserStatsUpdatedEvent(row.username()));
+        });
+    }
+
+    private <T> Mono<ProviderOutcome> syncProvider(String provider, String username, String handle, Duration timeout,
+                                                   Function<String, Mono<T>> fetch,
+                                                   Function<T, Mono<Void>> persist) {
+        if (handle == null || handle.isBlank()) {
+            log.warn("NEXUS-SYNC: {} handle missing, skipping.", provider);
+            return Mono.just(ProviderOutcome.skipped());
+        }
+
+        return fetch.apply(handle)
+                .flatMap(persist)
+                .thenReturn(ProviderOutcome.synced())
+                .onErrorResume(e -> {
+                    if (e instanceof TimeoutException) {
+                        log.warn("NEXUS-SYNC: {} sync timed out for {} after {}", provider, username, timeout);
+                        return Mono.just(ProviderOutcome.timedOut());
+                    }
+                    if (e instanceof StatsDomainExceptions.ExternalProviderThrottledException) {
+                        log.warn("NEXUS-SYNC: {} sync throttled for {}: {}", provider, username, e.getMessage());
+                        return Mono.just(ProviderOutcome.throttled(e.getMessage()));
+                    }
+                    log.error("NEXUS-SYNC: {} sync failed for {}: {}", provider, username, e.getMessage(), e);
+                    return Mono.just(ProviderOutcome.failed(e.getMessage()));
+                });
+    }
+
+    private String toJson(Map<String, Object> value) {
+        return value != null ? objectMapper.writeValueAsString(value) : null;
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+}
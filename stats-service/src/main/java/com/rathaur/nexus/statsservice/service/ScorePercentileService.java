@@ -0,0 +1,220 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.ScorePercentile;
+import com.rathaur.nexus.statsservice.entity.UserStats;
+import com.rathaur.nexus.statsservice.event.NexusScoreChangedEvent;
+import com.rathaur.nexus.statsservice.event.ScoresRescoredEvent;
+import com.rathaur.nexus.statsservice.repository.ScoreSketchRepository;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import com.rathaur.nexus.statsservice.scoring.ScoreSketch;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate score percentiles without ranking or counting user_stats per request.
+ * <p>
+ * Every committed score change moves one user between {@link ScoreSketch} slots in a local delta
+ * array. On each checkpoint the deltas are added to the shared score_sketch_bucket table, which
+ * merges all instances, and the merged table is read back as the snapshot that answers queries:
+ * a lookup is one slot computation and one prefix-sum read. The table is seeded from user_stats
+ * when empty, and rebuilt after bulk re-scores and daily.
+ * <p>
+ * A rebuild recounts user_stats, which already includes every change other instances still hold
+ * as local deltas. Each rebuild therefore starts a new generation of the table, and a checkpoint
+ * whose deltas were collected under an older generation drops them instead of adding them twice.
+ * Changes committed after that rebuild's scan but before the checkpoint are dropped with them; that
+ * undercount is at most one checkpoint interval of score changes and is cleared by the next rebuild.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+public class ScorePercentileService {
+
+    private final ScoreSketchRepository sketchRepo;
+    private final UserStatsRepository userStatsRepo;
+    private final LeaderboardIndex leaderboardIndex;
+    private final TransactionTemplate tx;
+
+    // Slot deltas seen by this instance since its last checkpoint
+    private final AtomicLongArray pending = new AtomicLongArray(ScoreSketch.SLOTS);
+
+    // Generation of the shared table the pending deltas apply to
+    private volatile long generation = -1;
+
+    // Checkpoints and rebuilds of this instance run one at a time, so generation moves in order
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    private volatile ScoreSketch sketch = ScoreSketch.EMPTY;
+
+    public ScorePercentileService(ScoreSketchRepository sketchRepo,
+                                  UserStatsRepository userStatsRepo,
+                                  LeaderboardIndex leaderboardIndex,
+                                  PlatformTransactionManager transactionManager) {
+        this.sketchRepo = sketchRepo;
+        this.userStatsRepo = userStatsRepo;
+        this.leaderboardIndex = leaderboardIndex;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public ScorePercentile percentile(String username) {
+        double score = leaderboardIndex.scoreOf(username)
+                .or(() -> userStatsRepo.findById(username).map(UserStats::getNexusScore))
+                .orElseThrow(() -> new EntityNotFoundException("Profile stats not found for: " + username));
+
+        ScoreSketch current = sketch;
+        long above = current.above(score);
+        // The user's own change may not be checkpointed yet; they are always in their own bucket
+        long same = Math.max(1, current.count(ScoreSketch.slot(score)));
+        long population = Math.max(current.total(), above + same);
+        long rank = above + (same + 1) / 2;
+
+        return new ScorePercentile(username, score, population, rank, same / 2,
+                100.0 * rank / population,
+                100.0 * (population - rank) / population,
+                ScoreSketch.RELATIVE_ACCURACY);
+    }
+
+    // --- UPDATES ---
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScoreChanged(NexusScoreChangedEvent event) {
+        if (event.oldScore() != null) {
+            pending.decrementAndGet(ScoreSketch.slot(event.oldScore()));
+        }
+        pending.incrementAndGet(ScoreSketch.slot(event.newScore()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        checkpointLock.lock();
+        try {
+            generation = sketchRepo.generation();
+            if (sketchRepo.isEmpty()) {
+                Long seeded = tx.execute(status -> {
+                    long next = sketchRepo.lockForRebuild();
+                    // Another instance may have seeded it while we waited for the lock
+                    if (sketchRepo.isEmpty()) {
+                        drain();
+                        sketchRepo.replaceAll(sketchRepo.countAllScores());
+                        log.info("NEXUS-PERCENTILE: Seeded score sketch from user_stats");
+                    }
+                    return next;
+                });
+                generation = seeded;
+            }
+        } catch (Exception e) {
+            log.error("NEXUS-PERCENTILE: Seeding the score sketch failed", e);
+        } finally {
+            checkpointLock.unlock();
+        }
+        checkpoint();
+    }
+
+    // Bulk re-scores write through JDBC without per-user events
+    @EventListener
+    public void onScoresRescored(ScoresRescoredEvent event) {
+        if (event.changed() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Pushes local deltas into the shared table and reloads the merged counts. Deltas collected
+     * before a rebuild on another instance are dropped: that rebuild already counted them.
+     */
+    @Scheduled(initialDelayString = "${nexus.percentile.checkpoint-interval:30000}",
+            fixedDelayString = "${nexus.percentile.checkpoint-interval:30000}")
+    public void checkpoint() {
+        checkpointLock.lock();
+        try {
+            long[] deltas = drain();
+            try {
+                long seen = generation;
+                Long current = tx.execute(status -> {
+                    long shared = sketchRepo.lockGeneration();
+                    if (shared == seen) {
+                        sketchRepo.addCounts(deltas);
+                    }
+                    return shared;
+                });
+                if (current != seen) {
+                    log.info("NEXUS-PERCENTILE: Score sketch rebuilt elsewhere (generation {} -> {}), dropped {} local changes",
+                            seen, current, changes(deltas));
+                    generation = current;
+                }
+            } catch (Exception e) {
+                // Keep them for the next checkpoint
+                for (int i = 0; i < deltas.length; i++) {
+                    if (deltas[i] != 0) pending.addAndGet(i, deltas[i]);
+                }
+                log.warn("NEXUS-PERCENTILE: Checkpoint failed, deltas kept for the next one: {}", e.getMessage());
+            }
+            reload();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * Recounts user_stats into the shared table under a new generation. Local deltas are dropped:
+     * every change they describe has committed, so the scan already includes it.
+     */
+    @Scheduled(cron = "${nexus.percentile.rebuild-cron:0 45 3 * * *}")
+    public void rebuild() {
+        checkpointLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            try {
+                Long next = tx.execute(status -> {
+                    long rebuilt = sketchRepo.lockForRebuild();
+                    drain();
+                    sketchRepo.replaceAll(sketchRepo.countAllScores());
+                    return rebuilt;
+                });
+                generation = next;
+                log.info("NEXUS-PERCENTILE: Score sketch rebuilt in {}ms (generation {})",
+                        System.currentTimeMillis() - start, next);
+            } catch (Exception e) {
+                log.error("NEXUS-PERCENTILE: Score sketch rebuild failed", e);
+            }
+            reload();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void reload() {
+        try {
+            sketch = new ScoreSketch(sketchRepo.loadCounts());
+        } catch (Exception e) {
+            log.warn("NEXUS-PERCENTILE: Reloading the score sketch failed, serving the previous one: {}", e.getMessage());
+        }
+    }
+
+    private long[] drain() {
+        long[] deltas = new long[ScoreSketch.SLOTS];
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = pending.getAndSet(i, 0);
+        }
+        return deltas;
+    }
+
+    // Each score change is one -1 and one +1 (a new user only +1)
+    private static long changes(long[] deltas) {
+        long moved = 0;
+        for (long d : deltas) moved += Math.abs(d);
+        return (moved + 1) / 2;
+    }
+}
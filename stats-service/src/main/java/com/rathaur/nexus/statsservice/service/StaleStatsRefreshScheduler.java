@@ -0,0 +1,252 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.SyncRequest;
+import com.rathaur.nexus.statsservice.dto.SyncResult;
+import com.rathaur.nexus.statsservice.repository.StatsBatchRepository;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository.StaleUserRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fleet-wide background refresher.
+ * Walks user_stats stale-first (never synced, then oldest last_sync_all, then failed refreshes
+ * whose backoff is over) in keyset-paginated chunks and re-syncs each user within a per-provider
+ * requests-per-minute budget. A user is only picked when the budget covers every provider they
+ * have a handle for, so a refresh is never partial. Users whose refresh completes get a fresh
+ * last_sync_all, so the next pass naturally starts from whoever is now the stalest. A failed
+ * refresh keeps the old last_sync_all but parks the user until refresh_retry_at, doubling from
+ * {@code nexus.refresh.retry-backoff} up to {@code nexus.refresh.max-retry-backoff}, so handles
+ * that keep failing are retried after the regular backlog instead of ahead of it every tick.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "nexus.refresh.enabled", havingValue = "true")
+public class StaleStatsRefreshScheduler {
+
+    private final UserStatsRepository userStatsRepo;
+    private final StatsBatchRepository batchRepo;
+    private final StatsSyncService statsSyncService;
+
+    private final AtomicLong backlogDepth = new AtomicLong();
+    private final DistributionSummary staleness;
+    private final Counter refreshed;
+    private final Counter failed;
+
+    @Value("${nexus.refresh.stale-after:6h}")
+    private Duration staleAfter;
+
+    @Value("${nexus.refresh.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${nexus.refresh.batch-concurrency:8}")
+    private int batchConcurrency;
+
+    @Value("${nexus.refresh.github.requests-per-minute:60}")
+    private int githubRpm;
+
+    @Value("${nexus.refresh.leetcode.requests-per-minute:30}")
+    private int leetcodeRpm;
+
+    @Value("${nexus.refresh.interval:60000}")
+    private long intervalMillis;
+
+    @Value("${nexus.refresh.retry-backoff:15m}")
+    private Duration retryBackoff;
+
+    @Value("${nexus.refresh.max-retry-backoff:24h}")
+    private Duration maxRetryBackoff;
+
+    public StaleStatsRefreshScheduler(UserStatsRepository userStatsRepo,
+                                      StatsBatchRepository batchRepo,
+                                      StatsSyncService statsSyncService,
+                                      MeterRegistry meterRegistry) {
+        this.userStatsRepo = userStatsRepo;
+        this.batchRepo = batchRepo;
+        this.statsSyncService = statsSyncService;
+
+        Gauge.builder("nexus.refresh.backlog", backlogDepth, AtomicLong::get)
+                .description("Users whose stats are older than the staleness threshold")
+                .register(meterRegistry);
+        this.staleness = DistributionSummary.builder("nexus.refresh.staleness")
+                .description("Age of a user's stats at the moment they were refreshed")
+                .baseUnit("seconds")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+        this.refreshed = Counter.builder("nexus.refresh.users")
+                .description("Users refreshed by the background scheduler")
+                .register(meterRegistry);
+        this.failed = Counter.builder("nexus.refresh.failures")
+                .description("Background refreshes that did not complete; the user backs off before the next try")
+                .register(meterRegistry);
+    }
+
+    /** Order in which one pass walks the backlog. */
+    private enum Phase { NEVER_SYNCED, STALE, RETRY }
+
+    @Scheduled(fixedDelayString = "${nexus.refresh.interval:60000}", initialDelayString = "${nexus.refresh.initial-delay:30000}")
+    public void refreshStaleUsers() {
+        Instant now = Instant.now();
+        Instant staleBefore = now.minus(staleAfter);
+
+        try {
+            backlogDepth.set(userStatsRepo.countStale(staleBefore));
+        } catch (Exception e) {
+            log.error("NEXUS-REFRESH: Backlog count failed", e);
+            return;
+        }
+        if (backlogDepth.get() == 0) {
+            return;
+        }
+
+        // Budget for this tick, scaled from the per-minute allowance
+        double minutes = intervalMillis / 60_000.0;
+        Budget budget = new Budget((int) (githubRpm * minutes), (int) (leetcodeRpm * minutes));
+        log.info("NEXUS-REFRESH: Backlog={} users, budget github={} leetcode={}",
+                backlogDepth.get(), budget.github, budget.leetcode);
+
+        int total = 0;
+        Phase phase = Phase.NEVER_SYNCED;
+        String afterUsername = "";
+        Instant afterTime = null;
+
+        while (budget.hasAny()) {
+            List<StaleUserRow> chunk = switch (phase) {
+                case NEVER_SYNCED -> userStatsRepo.findNeverSyncedChunk(afterUsername, chunkSize);
+                case STALE -> userStatsRepo.findStaleChunk(staleBefore, afterTime, afterUsername, chunkSize);
+                case RETRY -> userStatsRepo.findRetryDueChunk(now, afterTime, afterUsername, chunkSize);
+            };
+
+            if (chunk.isEmpty()) {
+                if (phase == Phase.RETRY) break;
+                // Never-synced users, then the oldest synced ones, then failed ones that are due again
+                phase = phase == Phase.NEVER_SYNCED ? Phase.STALE : Phase.RETRY;
+                afterTime = Instant.EPOCH;
+                afterUsername = "";
+                continue;
+            }
+
+            List<RefreshTask> tasks = new ArrayList<>();
+            for (StaleUserRow row : chunk) {
+                if (budget.take(row)) {
+                    tasks.add(new RefreshTask(row, row.getGithubHandle(), row.getLeetcodeHandle()));
+                }
+                if (!budget.hasAny()) break;
+            }
+
+            // A whole chunk with nothing refreshable means the remaining budget cannot cover the
+            // providers of anyone in the backlog; stop instead of scanning the rest of the table
+            if (tasks.isEmpty()) break;
+            total += runBatch(tasks, now);
+
+            StaleUserRow last = chunk.get(chunk.size() - 1);
+            afterUsername = last.getUsername();
+            afterTime = phase == Phase.RETRY ? last.getRefreshRetryAt() : last.getLastSyncAll();
+            if (chunk.size() < chunkSize && phase == Phase.RETRY) break;
+        }
+
+        log.info("NEXUS-REFRESH: Pass finished, refreshed {} users", total);
+    }
+
+    // Blocks this scheduler thread for the whole bulk sync; spring.task.scheduling.pool.size leaves
+    // threads for the other @Scheduled jobs meanwhile
+    private int runBatch(List<RefreshTask> tasks, Instant now) {
+        if (tasks.isEmpty()) return 0;
+
+        Map<String, StaleUserRow> rowsByUser = new HashMap<>();
+        List<SyncRequest> requests = new ArrayList<>();
+        for (RefreshTask task : tasks) {
+            rowsByUser.put(task.row().getUsername(), task.row());
+            requests.add(new SyncRequest(task.row().getUsername(), task.github(), task.leetcode()));
+        }
+
+        // GitHub users go out in aliased GraphQL batches; LeetCode per user
+        Set<String> completed = ConcurrentHashMap.newKeySet();
+        statsSyncService.bulkStatsSync(requests, batchConcurrency)
+                .filter(SyncResult::complete)
+                .doOnNext(result -> {
+                    completed.add(result.username());
+                    recordRefresh(rowsByUser.get(result.username()), now);
+                })
+                .onErrorResume(e -> {
+                    log.warn("NEXUS-REFRESH: Bulk refresh failed: {}", e.getMessage());
+                    return Flux.empty();
+                })
+                .blockLast();
+
+        // Everyone else failed or timed out somewhere: back off instead of heading the next pass
+        Set<String> failures = new HashSet<>(rowsByUser.keySet());
+        failures.removeAll(completed);
+        if (!failures.isEmpty()) {
+            try {
+                batchRepo.markRefreshFailed(failures, retryBackoff, maxRetryBackoff);
+                failed.increment(failures.size());
+            } catch (Exception e) {
+                log.error("NEXUS-REFRESH: Recording {} failed refreshes failed", failures.size(), e);
+            }
+        }
+        return completed.size();
+    }
+
+    private void recordRefresh(StaleUserRow row, Instant now) {
+        Instant since = row.getLastSyncAll() != null ? row.getLastSyncAll() : row.getCreatedAt();
+        if (since != null) {
+            staleness.record(Duration.between(since, now).toSeconds());
+        }
+        refreshed.increment();
+    }
+
+    private record RefreshTask(StaleUserRow row, String github, String leetcode) {}
+
+    /**
+     * Remaining provider calls for the current tick. A user is only taken (and the budget
+     * charged) when there is capacity left for every provider they have a handle for.
+     */
+    private static final class Budget {
+        private int github;
+        private int leetcode;
+
+        Budget(int github, int leetcode) {
+            this.github = github;
+            this.leetcode = leetcode;
+        }
+
+        boolean hasAny() {
+            return github > 0 || leetcode > 0;
+        }
+
+        boolean take(StaleUserRow row) {
+            int gh = hasText(row.getGithubHandle()) ? 1 : 0;
+            int lc = hasText(row.getLeetcodeHandle()) ? 1 : 0;
+            if (gh + lc == 0 || github < gh || leetcode < lc) return false;
+            github -= gh;
+            leetcode -= lc;
+            return true;
+        }
+
+        private static boolean hasText(String handle) {
+            return handle != null && !handle.isBlank();
+        }
+    }
+}
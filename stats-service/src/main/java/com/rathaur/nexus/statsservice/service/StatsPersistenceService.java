@@ -1,21 +1,30 @@
 package com.rathaur.nexus.statsservice.service;
 
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
+import com.rathaur.nexus.statsservice.client.model.LeetCodeUserSnapshot;
 import com.rathaur.nexus.statsservice.entity.GitHubStats;
 import com.rathaur.nexus.statsservice.entity.LeetCodeStats;
+import com.rathaur.nexus.statsservice.entity.ScoreChangeLog;
 import com.rathaur.nexus.statsservice.entity.UserStats;
+import com.rathaur.nexus.statsservice.event.NexusScoreChangedEvent;
+import com.rathaur.nexus.statsservice.event.UserStatsUpdatedEvent;
+import com.rathaur.nexus.statsservice.repository.ContributionUpsertRepository;
 import com.rathaur.nexus.statsservice.repository.GitHubStatsRepository;
+import com.rathaur.nexus.statsservice.repository.LeaderboardSegmentRepository;
 import com.rathaur.nexus.statsservice.repository.LeetCodeStatsRepository;
+import com.rathaur.nexus.statsservice.repository.ScoreChangeLogRepository;
 import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import com.rathaur.nexus.statsservice.scoring.ScoreInputs;
+import com.rathaur.nexus.statsservice.scoring.ScoringModel;
+import com.rathaur.nexus.statsservice.scoring.ScoringModelRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * @author Tanuj Singh Rathaur
@@ -29,17 +38,52 @@ public class StatsPersistenceService {
     private final UserStatsRepository userStatsRepo;
     private final GitHubStatsRepository gitHubStatsRepo;
     private final LeetCodeStatsRepository leetCodeStatsRepo;
+    private final ScoreChangeLogRepository scoreChangeLogRepo;
+    private final ScoringModelRegistry scoringModels;
+    private final LeaderboardSegmentRepository segmentRepo;
+    private final LeaderboardSegmentService segmentService;
+    private final ContributionUpsertRepository contributionRepo;
+    private final TelemetryStorage telemetryStorage;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Creates the master record if needed and remembers the provider handles used for this sync.
+     */
+    @Transactional
+    public void ensureMasterExists(String username, String githubHandle, String leetcodeHandle) {
+        UserStats master = userStatsRepo.findById(username).orElseGet(() -> {
+            UserStats created = userStatsRepo.save(
+                    UserStats.builder().username(username).nexusScore(0.0).build());
+            // Logged so the ranking engine assigns the new user a rank on its next pass
+            logScoreChange(username, null, 0.0);
+            events.publishEvent(new NexusScoreChangedEvent(username, null, 0.0));
+            return created;
+        });
+
+        if (githubHandle != null && !githubHandle.isBlank() && !githubHandle.equals(master.getGithubHandle())) {
+            master.setGithubHandle(githubHandle);
+        }
+        if (leetcodeHandle != null && !leetcodeHandle.isBlank() && !leetcodeHandle.equals(master.getLeetcodeHandle())) {
+            master.setLeetcodeHandle(leetcodeHandle);
+        }
+    }
 
+    /**
+     * Stamps the end of a complete sync (no requested provider failed). The background refresher
+     * orders users by this value; a complete sync also ends any refresh backoff.
+     */
     @Transactional
-    public void ensureMasterExists(String username) {
-        userStatsRepo.findById(username)
-                .orElseGet(() -> userStatsRepo.save(
-                        UserStats.builder().username(username).nexusScore(0.0).build()
-                ));
+    public void markSyncCompleted(String username) {
+        userStatsRepo.findById(username).ifPresent(master -> {
+            master.setLastSyncAll(Instant.now());
+            master.setRefreshFailures(0);
+            master.setRefreshRetryAt(null);
+            events.publishEvent(new UserStatsUpdatedEvent(username));
+        });
     }
 
     @Transactional
-    public void saveGithubAndRecalc(String username, Map<String, Object> data) {
+    public void saveGithubAndRecalc(String username, GitHubUserSnapshot data) {
         UserStats master = userStatsRepo.findById(username).orElseThrow();
         GitHubStats stats = gitHubStatsRepo.findById(username).orElseGet(() -> {
             GitHubStats s = new GitHubStats();
@@ -47,51 +91,26 @@ public class StatsPersistenceService {
             return s;
         });
 
-        Map<String, Object> user = (Map<String, Object>) data.get("user");
-        if (user == null) return;
-
-        try {
-            // 1. Extract TOTAL COUNT from the alias
-            Map<String, Object> allRepos = (Map<String, Object>) user.getOrDefault("allRepos", Collections.emptyMap());
-            int totalReposCount = extractInt(allRepos, "totalCount");
+        // Values come pre-extracted by the streaming decoder; no map walking here
+        stats.setPublicRepos(data.totalRepos());
+        stats.setTotalStars(data.recentStars());
+        stats.setTotalCommitsYearly(data.totalContributions());
 
-            // 2. Extract NODES from the other alias
-            Map<String, Object> recentRepos = (Map<String, Object>) user.getOrDefault("recentRepos", Collections.emptyMap());
-            List<Map<String, Object>> repoNodes = (List<Map<String, Object>>) recentRepos.getOrDefault("nodes", Collections.emptyList());
-
-            Map<String, Object> collection = (Map<String, Object>) user.getOrDefault("contributionsCollection", Collections.emptyMap());
-            Map<String, Object> calendar = (Map<String, Object>) collection.getOrDefault("contributionCalendar", Collections.emptyMap());
-
-            // 3. Calculate stars
-            int stars = repoNodes.stream()
-                    .filter(Objects::nonNull)
-                    .mapToInt(n -> {
-                        Object s = n.get("stargazerCount");
-                        return (s instanceof Number num) ? num.intValue() : 0;
-                    }).sum();
-
-            // 4. Set Values - totalReposCount will now be 16
-            stats.setPublicRepos(totalReposCount);
-            stats.setTotalStars(stars);
-            stats.setTotalCommitsYearly(extractInt(calendar, "totalContributions"));
-
-            stats.setTelemetry(data);
-            stats.setLastSynced(Instant.now());
-
-            gitHubStatsRepo.saveAndFlush(stats);
-            recalc(master);
+        // Raw payload is only present when nexus.sync.keep-raw-telemetry=true; it lands in one column or the other
+        stats.setTelemetry(telemetryStorage.compressed() ? null : data.rawTelemetry());
+        stats.setTelemetryPacked(telemetryStorage.pack(data.rawTelemetry()));
+        stats.setLastSynced(Instant.now());
 
-        } catch (Exception e) {
-            log.error("NEXUS-PERSIST: Mapping failed", e);
-        }
-    }
-    private int extractInt(Map<String, Object> map, String key) {
-        Object val = map.get(key);
-        return (val instanceof Number n) ? n.intValue() : 0;
+        gitHubStatsRepo.saveAndFlush(stats);
+        master.setGithubStats(stats);
+        recalc(master);
+        segmentService.replaceSegments(username, data, master.getNexusScore());
+        contributionRepo.upsert(username, data.contributionDays());
+        events.publishEvent(new UserStatsUpdatedEvent(username));
     }
 
     @Transactional
-    public void saveLeetCodeAndRecalc(String username, Map<String, Object> data) {
+    public void saveLeetCodeAndRecalc(String username, LeetCodeUserSnapshot data) {
         UserStats master = userStatsRepo.findById(username).orElseThrow();
 
         LeetCodeStats stats = leetCodeStatsRepo.findById(username).orElse(null);
@@ -103,65 +122,77 @@ public class StatsPersistenceService {
             stats.setUserStats(master);
         }
 
-        // 1. Path Walking
-        Map<String, Object> matchedUser = (Map<String, Object>) data.get("matchedUser");
-        Map<String, Object> profile = (Map<String, Object>) matchedUser.get("profile");
-        List<Map<String, Object>> submissionStats = (List<Map<String, Object>>)
-                ((Map<String, Object>) matchedUser.get("submitStats")).get("acSubmissionNum");
-
-        // 2. Map all difficulty levels (0=All, 1=Easy, 2=Medium, 3=Hard)
-        stats.setGlobalRanking(((Number) profile.get("ranking")).intValue());
+        stats.setGlobalRanking(data.ranking());
+        stats.setTotalSolved(data.totalSolved());
+        stats.setEasySolved(data.easySolved());
+        stats.setMediumSolved(data.mediumSolved());
+        stats.setHardSolved(data.hardSolved());
 
-        // Using defensive checks in case the list order ever changes
-        stats.setTotalSolved(((Number) submissionStats.get(0).get("count")).intValue());
-        stats.setEasySolved(((Number) submissionStats.get(1).get("count")).intValue());
-        stats.setMediumSolved(((Number) submissionStats.get(2).get("count")).intValue());
-        stats.setHardSolved(((Number) submissionStats.get(3).get("count")).intValue());
-
-        stats.setAdvancedMetrics(data);
+        stats.setAdvancedMetrics(telemetryStorage.compressed() ? null : data.rawMetrics());
+        stats.setAdvancedMetricsPacked(telemetryStorage.pack(data.rawMetrics()));
         stats.setLastSynced(Instant.now());
 
         log.info("Saving LeetCode stats for: {}", username);
         leetCodeStatsRepo.saveAndFlush(stats);
+        master.setLeetCodeStats(stats);
 
         recalc(master);
+        events.publishEvent(new UserStatsUpdatedEvent(username));
     }
 
     private void recalc(UserStats master) {
         GitHubStats gh = master.getGithubStats();
         LeetCodeStats lc = master.getLeetCodeStats();
 
-        double score = 0;
-        if (gh != null) {
-            score += (gh.getPublicRepos() * 25);
-            score += (gh.getTotalStars() * 10);
-            score += (gh.getTotalCommitsYearly() * 5);
-        }
-
-        if (lc != null) {
-            score += (lc.getEasySolved() != null ? lc.getEasySolved() * 2 : 0);
-            score += (lc.getMediumSolved() != null ? lc.getMediumSolved() * 15 : 0);
-            score += (lc.getHardSolved() != null ? lc.getHardSolved() * 50 : 0);
-        }
-
+        ScoringModel model = scoringModels.active();
+        double score = model.score(new ScoreInputs(
+                gh != null ? gh.getPublicRepos() : 0,
+                gh != null ? gh.getTotalStars() : 0,
+                gh != null ? gh.getTotalCommitsYearly() : 0,
+                lc != null && lc.getEasySolved() != null ? lc.getEasySolved() : 0,
+                lc != null && lc.getMediumSolved() != null ? lc.getMediumSolved() : 0,
+                lc != null && lc.getHardSolved() != null ? lc.getHardSolved() : 0
+        ));
+
+        Double oldScore = master.getNexusScore();
         master.setNexusScore(score);
+        master.setScoreVersion(model.version());
+        if (oldScore == null || oldScore != score) {
+            logScoreChange(master.getUsername(), oldScore, score);
+            segmentRepo.updateScore(master.getUsername(), score);
+            events.publishEvent(new NexusScoreChangedEvent(master.getUsername(), oldScore, score));
+        }
 
-        // --- FIX: Wrap the String in a Map to match the Entity's required type ---
         if (gh != null) {
-            String bioMessage = String.format(
-                    "Fullstack developer with %d projects and %d commits this week. LeetCode: %d solved.",
+            // Setting it as a Map so Hibernate can persist it as JSON
+            master.setQuickSummary(quickSummary(
                     gh.getPublicRepos(),
                     gh.getTotalCommitsYearly(),
-                    (lc != null ? lc.getTotalSolved() : 0)
-            );
-
-            // Setting it as a Map so Hibernate can persist it as JSON
-            master.setQuickSummary(Map.of(
-                    "headline", bioMessage,
-                    "lastUpdated", Instant.now().toString()
-            ));
+                    lc != null && lc.getTotalSolved() != null ? lc.getTotalSolved() : 0));
         }
 
         userStatsRepo.save(master);
     }
-}
\ No newline at end of file
+
+    /**
+     * The quick summary shown on profile cards. Shared with {@link BulkStatsWriter} so both write
+     * paths produce the same JSON.
+     */
+    static Map<String, Object> quickSummary(int publicRepos, int commits, int solved) {
+        String bioMessage = String.format(
+                "Fullstack developer with %d projects and %d commits this week. LeetCode: %d solved.",
+                publicRepos, commits, solved);
+        return Map.of(
+                "headline", bioMessage,
+                "lastUpdated", Instant.now().toString()
+        );
+    }
+
+    private void logScoreChange(String username, Double oldScore, double newScore) {
+        scoreChangeLogRepo.save(ScoreChangeLog.builder()
+                .username(username)
+                .oldScore(oldScore)
+                .newScore(newScore)
+                .build());
+    }
+}
@@ -2,51 +2,126 @@ package com.rathaur.nexus.statsservice.service;
 
 import com.rathaur.nexus.statsservice.client.GitHubClient;
 import com.rathaur.nexus.statsservice.client.LeetCodeClient;
-import lombok.RequiredArgsConstructor;
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
+import com.rathaur.nexus.statsservice.client.model.LeetCodeUserSnapshot;
+import com.rathaur.nexus.statsservice.dto.SyncRequest;
+import com.rathaur.nexus.statsservice.dto.SyncResult;
+import com.rathaur.nexus.statsservice.dto.SyncResult.ProviderOutcome;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import com.rathaur.nexus.statsservice.service.BulkStatsWriter.GitHubWrite;
+import com.rathaur.nexus.statsservice.service.BulkStatsWriter.LeetCodeWrite;
+import com.rathaur.nexus.statsservice.service.BulkStatsWriter.ProviderWrite;
+import com.rathaur.nexus.statsservice.service.SyncFlights.Claim;
+import com.rathaur.nexus.statsservice.service.SyncFlights.FlightKey;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
- * Orchestrates the synchronization of developer stats.
- * Synchronous version for deep debugging and stability.
+ * Orchestrates the synchronization of developer stats over JPA.
+ * <ul>
+ *   <li>{@link #parallelStatsSync}: user-triggered syncs (the background job workers). Both
+ *       providers are fetched concurrently and each persists as soon as it arrives.</li>
+ *   <li>{@link #bulkStatsSync}: the stale-first refresher. GitHub users are fetched in batched
+ *       GraphQL queries and all results are written behind the fetches by {@link BulkStatsWriter}.</li>
+ *   <li>{@link #fullStatsSync}: one provider after the other on the calling thread, kept for
+ *       debugging a single user.</li>
+ * </ul>
+ * The parallel and bulk paths go through {@link SyncFlights}: concurrent syncs of the same user
+ * share one run, and a recent clean result is reused instead of calling the providers again.
  *
  * @author Tanuj Singh Rathaur
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class StatsSyncService {
 
     private final GitHubClient gitHubClient;
     private final LeetCodeClient leetCodeClient;
     private final StatsPersistenceService persistence;
+    private final BulkStatsWriter writer;
+
+    private final SyncFlights flights;
+
+    public StatsSyncService(GitHubClient gitHubClient,
+                            LeetCodeClient leetCodeClient,
+                            StatsPersistenceService persistence,
+                            BulkStatsWriter writer,
+                            SyncFlights flights) {
+        this.gitHubClient = gitHubClient;
+        this.leetCodeClient = leetCodeClient;
+        this.persistence = persistence;
+        this.writer = writer;
+        this.flights = flights;
+    }
+
+    @Value("${nexus.sync.github-timeout:15s}")
+    private Duration githubTimeout;
+
+    @Value("${nexus.sync.leetcode-timeout:10s}")
+    private Duration leetcodeTimeout;
+
+    @Value("${nexus.sync.github-batch-timeout:90s}")
+    private Duration githubBatchTimeout;
+
+    @Value("${nexus.sync.leetcode-bulk-timeout:90s}")
+    private Duration leetcodeBulkTimeout;
+
+    private int githubBatchSize;
+
+    @Value("${nexus.sync.write-batch-size:200}")
+    private int writeBatchSize;
+
+    @Value("${nexus.sync.write-max-delay:500ms}")
+    private Duration writeMaxDelay;
+
+    @Value("${nexus.sync.github-batch-size:25}")
+    void setGithubBatchSize(int githubBatchSize) {
+        // GitHub caps query complexity; 50 aliased users is the practical ceiling for this selection
+        this.githubBatchSize = Math.max(1, Math.min(githubBatchSize, 50));
+    }
 
     public void fullStatsSync(String username, String githubHandle, String leetcodeHandle) {
-        log.info("NEXUS-SYNC: Starting [Synchronous] sync for user: {}", username);
+        log.info("NEXUS-SYNC: Starting [Sequential] sync for user: {}", username);
 
         // 1. Ensure master record exists
         try {
-            persistence.ensureMasterExists(username);
+            persistence.ensureMasterExists(username, githubHandle, leetcodeHandle);
             log.info("NEXUS-SYNC: Master record confirmed for {}", username);
         } catch (Exception e) {
             log.error("NEXUS-SYNC: Master check failed: {}", e.getMessage(), e);
             return; // Stop if we can't establish a master record
         }
 
+        // Only a sync where no requested provider failed advances last_sync_all
+        boolean complete = true;
+
         // 2. Process GitHub Sync
         if (githubHandle != null && !githubHandle.isBlank()) {
             try {
                 log.info("NEXUS-SYNC: Initiating GitHub fetch for handle: {}", githubHandle);
-                // Assuming GitHubClient.fetchUserStats now returns Map<String, Object>
-                Map<String, Object> githubData = gitHubClient.fetchUserStats(githubHandle);
+                GitHubUserSnapshot githubData = gitHubClient.fetchUserStats(githubHandle);
 
                 log.info("NEXUS-SYNC: GitHub data received, persisting...");
                 persistence.saveGithubAndRecalc(username, githubData);
                 log.info("NEXUS-SYNC: GitHub sync completed successfully.");
             } catch (Exception e) {
                 log.error("NEXUS-SYNC: GitHub sync failed for {}: {}", username, e.getMessage(), e);
+                complete = false;
             }
         } else {
             log.warn("NEXUS-SYNC: GitHub handle missing, skipping.");
@@ -56,19 +131,246 @@ public class StatsSyncService {
         if (leetcodeHandle != null && !leetcodeHandle.isBlank()) {
             try {
                 log.info("NEXUS-SYNC: Initiating LeetCode fetch for handle: {}", leetcodeHandle);
-                // Assuming LeetCodeClient.fetchUserStats now returns Map<String, Object>
-                Map<String, Object> leetcodeData = leetCodeClient.fetchUserStats(leetcodeHandle);
+                LeetCodeUserSnapshot leetcodeData = leetCodeClient.fetchUserStats(leetcodeHandle);
 
                 log.info("NEXUS-SYNC: LeetCode data received, persisting...");
                 persistence.saveLeetCodeAndRecalc(username, leetcodeData);
                 log.info("NEXUS-SYNC: LeetCode sync completed successfully.");
             } catch (Exception e) {
                 log.error("NEXUS-SYNC: LeetCode sync failed for {}: {}", username, e.getMessage(), e);
+                complete = false;
             }
         } else {
             log.warn("NEXUS-SYNC: LeetCode handle missing, skipping.");
         }
 
+        if (complete) {
+            persistence.markSyncCompleted(username);
+        }
         log.info("NEXUS-SYNC: Full sync process finished for user: {}", username);
     }
-}
\ No newline at end of file
+
+    /**
+     * Parallel sync: both providers are fetched concurrently and each result is persisted
+     * as soon as it arrives, so the total time is bounded by the slowest provider instead
+     * of the sum of both. Each provider has its own timeout; a slow or failing provider
+     * is reported in the {@link SyncResult} and never cancels the other one.
+     * <p>
+     * Concurrent calls for the same user and handles share one sync, and a clean result younger
+     * than {@code nexus.sync.min-resync-interval} is returned without calling the providers.
+     */
+    public Mono<SyncResult> parallelStatsSync(String username, String githubHandle, String leetcodeHandle) {
+        return flights.join(FlightKey.of(username, githubHandle, leetcodeHandle),
+                () -> doParallelStatsSync(username, githubHandle, leetcodeHandle));
+    }
+
+    private Mono<SyncResult> doParallelStatsSync(String username, String githubHandle, String leetcodeHandle) {
+        log.info("NEXUS-SYNC: Starting [Parallel] sync for user: {}", username);
+
+        // Both providers persist against the same master row (@Version), so writes are serialized per sync.
+        // A ReentrantLock rather than synchronized: JDBC under a monitor would pin a virtual thread's carrier
+        ReentrantLock persistLock = new ReentrantLock();
+
+        return Mono.fromRunnable(() -> persistence.ensureMasterExists(username, githubHandle, leetcodeHandle))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.zip(
+                        syncProvider("GitHub", username, githubHandle,
+                                handle -> gitHubClient.fetchUserStatsAsync(handle, githubTimeout), githubTimeout,
+                                data -> {
+                                    persistLock.lock();
+                                    try {
+                                        persistence.saveGithubAndRecalc(username, data);
+                                    } finally {
+                                        persistLock.unlock();
+                                    }
+                                }),
+                        syncProvider("LeetCode", username, leetcodeHandle,
+                                handle -> leetCodeClient.fetchUserStatsAsync(handle, leetcodeTimeout), leetcodeTimeout,
+                                data -> {
+                                    persistLock.lock();
+                                    try {
+                                        persistence.saveLeetCodeAndRecalc(username, data);
+                                    } finally {
+                                        persistLock.unlock();
+                                    }
+                                })))
+                .map(outcomes -> {
+                    SyncResult result = new SyncResult(username, outcomes.getT1(), outcomes.getT2(), Instant.now());
+                    if (result.complete()) {
+                        persistence.markSyncCompleted(username);
+                    }
+                    return result;
+                })
+                .doOnSuccess(result -> log.info("NEXUS-SYNC: Parallel sync finished for user: {} [github={}, leetcode={}]",
+                        username, result.github().status(), result.leetcode().status()));
+    }
+
+    private <T> Mono<ProviderOutcome> syncProvider(String provider, String username, String handle,
+                                                   Function<String, Mono<T>> fetch, Duration timeout,
+                                                   Consumer<T> persist) {
+        if (handle == null || handle.isBlank()) {
+            log.warn("NEXUS-SYNC: {} handle missing, skipping.", provider);
+            return Mono.just(ProviderOutcome.skipped());
+        }
+
+        // The client applies the timeout to the rate-limit permit wait and the exchange together
+        return fetch.apply(handle)
+                // JPA persistence is blocking; never run it on a Netty event-loop thread
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(persist)
+                .thenReturn(ProviderOutcome.synced())
+                .onErrorResume(e -> Mono.just(failureOutcome(provider, username, timeout, e)));
+    }
+
+    /**
+     * Bulk sync for the background refresher. GitHub users are fetched in aliased GraphQL
+     * batches of {@code nexus.sync.github-batch-size} (one round trip per batch); LeetCode has no
+     * batch API and is fetched per user with bounded concurrency. Results are written behind the
+     * fetches by {@link BulkStatsWriter} in batches of up to {@code nexus.sync.write-batch-size}
+     * (or whatever arrived within {@code nexus.sync.write-max-delay}), one transaction per batch,
+     * and one {@link SyncResult} is emitted per request once everything is written.
+     * Users with a recent clean result, or with a sync already in flight, are not fetched again;
+     * users that are fetched are registered in the single-flight map for the duration of the run.
+     */
+    public Flux<SyncResult> bulkStatsSync(List<SyncRequest> requests, int concurrency) {
+        if (requests.isEmpty()) return Flux.empty();
+
+        // Users with a recent result or a sync already running are not fetched again
+        List<Mono<SyncResult>> reused = new ArrayList<>();
+        Map<String, Claim> claims = new ConcurrentHashMap<>();
+        List<SyncRequest> fresh = new ArrayList<>();
+        for (SyncRequest r : requests) {
+            SyncFlights.Entry entry = flights.enter(FlightKey.of(r));
+            if (entry.claim() == null) {
+                reused.add(entry.reuse());
+            } else {
+                claims.put(r.username(), entry.claim());
+                fresh.add(r);
+            }
+        }
+
+        return Flux.merge(
+                Flux.merge(reused),
+                runBulkSync(fresh, concurrency)
+                        .doOnNext(result -> flights.settle(claims.remove(result.username()), result))
+                        // Anything still claimed (error or cancellation) must not leave attached callers hanging
+                        .doFinally(signal -> claims.values().forEach(claim -> flights.fail(claim,
+                                new IllegalStateException("Bulk sync ended before syncing " + claim.key().username())))));
+    }
+
+    private Flux<SyncResult> runBulkSync(List<SyncRequest> requests, int concurrency) {
+        if (requests.isEmpty()) return Flux.empty();
+        log.info("NEXUS-SYNC: Starting [Bulk] sync for {} users", requests.size());
+
+        Map<String, ProviderOutcome> githubOutcomes = new ConcurrentHashMap<>();
+        Map<String, ProviderOutcome> leetcodeOutcomes = new ConcurrentHashMap<>();
+
+        List<SyncRequest> githubRequests = requests.stream().filter(SyncRequest::hasGithub).toList();
+        List<List<SyncRequest>> githubBatches = new ArrayList<>();
+        for (int i = 0; i < githubRequests.size(); i += githubBatchSize) {
+            githubBatches.add(githubRequests.subList(i, Math.min(i + githubBatchSize, githubRequests.size())));
+        }
+
+        Flux<ProviderWrite> github = Flux.fromIterable(githubBatches)
+                .flatMap(batch -> fetchGitHubBatch(batch, githubOutcomes), Math.max(1, concurrency / 4));
+
+        Flux<ProviderWrite> leetcode = Flux.fromIterable(requests)
+                .filter(SyncRequest::hasLeetCode)
+                .flatMap(r -> leetCodeClient.fetchUserStatsAsync(r.leetcodeHandle(), leetcodeBulkTimeout)
+                        .<ProviderWrite>map(data -> new LeetCodeWrite(r.username(), data))
+                        .onErrorResume(e -> {
+                            leetcodeOutcomes.put(r.username(), failureOutcome("LeetCode", r.username(), leetcodeBulkTimeout, e));
+                            return Mono.empty();
+                        }), concurrency);
+
+        // Write-behind: fetching continues while earlier results are written, one batch (one commit) at a time
+        Flux<Void> writes = Flux.merge(github, leetcode)
+                .bufferTimeout(writeBatchSize, writeMaxDelay, true)
+                .concatMap(batch -> Mono.<Void>fromRunnable(() -> persistBatch(batch, githubOutcomes, leetcodeOutcomes))
+                        .subscribeOn(Schedulers.boundedElastic()));
+
+        return Mono.fromRunnable(() -> writer.ensureMasters(requests))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenMany(writes)
+                .then(Mono.fromCallable(() -> {
+                            // A provider with no outcome was not requested (no handle)
+                            List<SyncResult> results = requests.stream()
+                                    .map(r -> new SyncResult(r.username(),
+                                            githubOutcomes.getOrDefault(r.username(), ProviderOutcome.skipped()),
+                                            leetcodeOutcomes.getOrDefault(r.username(), ProviderOutcome.skipped()),
+                                            Instant.now()))
+                                    .toList();
+                            writer.markSyncCompleted(results);
+                            return results;
+                        })
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMapIterable(results -> results);
+    }
+
+    private Flux<ProviderWrite> fetchGitHubBatch(List<SyncRequest> batch, Map<String, ProviderOutcome> outcomes) {
+        List<String> handles = batch.stream().map(SyncRequest::githubHandle).toList();
+
+        return gitHubClient.fetchUsersBatchAsync(handles, githubBatchTimeout)
+                .flatMapIterable(result -> {
+                    List<ProviderWrite> found = new ArrayList<>();
+                    for (SyncRequest r : batch) {
+                        GitHubUserSnapshot data = result.users().get(r.githubHandle());
+                        if (data == null) {
+                            outcomes.put(r.username(), ProviderOutcome.failed(result.errors().get(r.githubHandle())));
+                        } else {
+                            found.add(new GitHubWrite(r.username(), data));
+                        }
+                    }
+                    return found;
+                })
+                .onErrorResume(e -> {
+                    // Transport-level failure: the whole batch failed, report it against every user
+                    batch.forEach(r -> outcomes.put(r.username(), failureOutcome("GitHub", r.username(), githubBatchTimeout, e)));
+                    return Flux.empty();
+                });
+    }
+
+    /**
+     * Writes one batch in one transaction. If the batch is rolled back its results are retried
+     * one by one, so a single bad row does not fail everyone else in the batch.
+     */
+    private void persistBatch(List<ProviderWrite> batch, Map<String, ProviderOutcome> githubOutcomes,
+                              Map<String, ProviderOutcome> leetcodeOutcomes) {
+        try {
+            writer.write(batch);
+            batch.forEach(w -> outcomesFor(w, githubOutcomes, leetcodeOutcomes).put(w.username(), ProviderOutcome.synced()));
+            return;
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                ProviderWrite w = batch.get(0);
+                log.error("NEXUS-SYNC: {} write failed for {}: {}", providerName(w), w.username(), e.getMessage(), e);
+                outcomesFor(w, githubOutcomes, leetcodeOutcomes).put(w.username(), ProviderOutcome.failed(e.getMessage()));
+                return;
+            }
+            log.warn("NEXUS-SYNC: Write batch of {} results failed ({}); retrying individually", batch.size(), e.getMessage());
+        }
+        batch.forEach(w -> persistBatch(List.of(w), githubOutcomes, leetcodeOutcomes));
+    }
+
+    private static Map<String, ProviderOutcome> outcomesFor(ProviderWrite write, Map<String, ProviderOutcome> github,
+                                                            Map<String, ProviderOutcome> leetcode) {
+        return write instanceof GitHubWrite ? github : leetcode;
+    }
+
+    private static String providerName(ProviderWrite write) {
+        return write instanceof GitHubWrite ? "GitHub" : "LeetCode";
+    }
+
+    private ProviderOutcome failureOutcome(String provider, String username, Duration timeout, Throwable e) {
+        if (e instanceof TimeoutException) {
+            log.warn("NEXUS-SYNC: {} sync timed out for {} after {}", provider, username, timeout);
+            return ProviderOutcome.timedOut();
+        }
+        if (e instanceof StatsDomainExceptions.ExternalProviderThrottledException) {
+            log.warn("NEXUS-SYNC: {} sync throttled for {}: {}", provider, username, e.getMessage());
+            return ProviderOutcome.throttled(e.getMessage());
+        }
+        log.error("NEXUS-SYNC: {} sync failed for {}: {}", provider, username, e.getMessage(), e);
+        return ProviderOutcome.failed(e.getMessage());
+    }
+}
@@ -0,0 +1,157 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.SyncRequest;
+import com.rathaur.nexus.statsservice.dto.SyncResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight registry shared by every sync path (JPA, bulk and reactive): at most one sync per
+ * (user, handles) runs at a time, later callers attach to the running sync's Mono and receive the
+ * same result, and a clean result younger than {@code nexus.sync.min-resync-interval} is returned
+ * without calling the providers.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Component
+public class SyncFlights {
+
+    private final Map<FlightKey, Mono<SyncResult>> inFlight = new ConcurrentHashMap<>();
+
+    // Last clean result per key, served instead of re-syncing within nexus.sync.min-resync-interval
+    private final Cache<FlightKey, SyncResult> recentResults;
+    private final boolean recentResultsEnabled;
+
+    private final Counter savedByCoalescing;
+    private final Counter savedByRecentResult;
+
+    public SyncFlights(MeterRegistry meterRegistry,
+                       @Value("${nexus.sync.min-resync-interval:2m}") Duration minResyncInterval) {
+        this.recentResultsEnabled = !minResyncInterval.isZero() && !minResyncInterval.isNegative();
+        this.recentResults = Caffeine.newBuilder()
+                .expireAfterWrite(recentResultsEnabled ? minResyncInterval : Duration.ofMillis(1))
+                .maximumSize(50_000)
+                .build();
+
+        this.savedByCoalescing = Counter.builder("nexus.sync.provider.calls.saved")
+                .description("Provider calls avoided by reusing another sync's result")
+                .tag("reason", "coalesced")
+                .register(meterRegistry);
+        this.savedByRecentResult = Counter.builder("nexus.sync.provider.calls.saved")
+                .description("Provider calls avoided by reusing another sync's result")
+                .tag("reason", "recent")
+                .register(meterRegistry);
+    }
+
+    /** Identity of a sync: the same user syncing with different handles is a different sync. */
+    record FlightKey(String username, String githubHandle, String leetcodeHandle) {
+
+        static FlightKey of(String username, String githubHandle, String leetcodeHandle) {
+            return new FlightKey(username, blankToNull(githubHandle), blankToNull(leetcodeHandle));
+        }
+
+        static FlightKey of(SyncRequest r) {
+            return of(r.username(), r.githubHandle(), r.leetcodeHandle());
+        }
+
+        int providerCalls() {
+            return (githubHandle != null ? 1 : 0) + (leetcodeHandle != null ? 1 : 0);
+        }
+
+        private static String blankToNull(String s) {
+            return s == null || s.isBlank() ? null : s;
+        }
+    }
+
+    /** A key registered in the single-flight map; whoever holds it must {@link #settle} it. */
+    record Claim(FlightKey key, Sinks.One<SyncResult> sink, Mono<SyncResult> mono) {
+    }
+
+    /** Either a result to reuse (a recent one or the running flight), or a claim to run the sync. */
+    record Entry(Mono<SyncResult> reuse, Claim claim) {
+    }
+
+    /**
+     * Returns the recent result or the running flight for the key, or starts {@code sync} when
+     * there is neither. The sync runs detached from any single caller, so one caller cancelling
+     * (e.g. a timeout on its block()) does not cancel it for everyone attached to it.
+     */
+    Mono<SyncResult> join(FlightKey key, Supplier<Mono<SyncResult>> sync) {
+        return Mono.defer(() -> {
+            Entry entry = enter(key);
+            if (entry.claim() == null) {
+                log.info("NEXUS-SYNC: {} synced recently or is syncing; reusing that result", key.username());
+                return entry.reuse();
+            }
+
+            Claim claim = entry.claim();
+            Mono.defer(sync).subscribe(
+                    result -> settle(claim, result),
+                    error -> fail(claim, error),
+                    () -> fail(claim, new IllegalStateException("Sync ended without a result for " + key.username())));
+            return claim.mono();
+        });
+    }
+
+    /**
+     * For callers that run the sync themselves (bulk): reuses a recent result or the running
+     * flight, otherwise claims the key. putIfAbsent makes "am I first?" atomic.
+     */
+    Entry enter(FlightKey key) {
+        SyncResult recent = recentResult(key);
+        if (recent != null) {
+            return new Entry(Mono.just(recent), null);
+        }
+
+        Sinks.One<SyncResult> sink = Sinks.one();
+        Mono<SyncResult> mine = sink.asMono();
+        Mono<SyncResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            savedByCoalescing.increment(key.providerCalls());
+            return new Entry(running, null);
+        }
+        return new Entry(null, new Claim(key, sink, mine));
+    }
+
+    void settle(Claim claim, SyncResult result) {
+        if (claim == null) return;
+        inFlight.remove(claim.key(), claim.mono());
+        remember(claim.key(), result);
+        claim.sink().tryEmitValue(result);
+    }
+
+    void fail(Claim claim, Throwable error) {
+        if (claim == null) return;
+        inFlight.remove(claim.key(), claim.mono());
+        claim.sink().tryEmitError(error);
+    }
+
+    private SyncResult recentResult(FlightKey key) {
+        if (!recentResultsEnabled) return null;
+        SyncResult recent = recentResults.getIfPresent(key);
+        if (recent != null) {
+            savedByRecentResult.increment(key.providerCalls());
+        }
+        return recent;
+    }
+
+    // Failed or timed-out results are not reused: the user should be able to retry right away
+    private void remember(FlightKey key, SyncResult result) {
+        if (recentResultsEnabled && result.complete()) {
+            recentResults.put(key, result);
+        }
+    }
+}
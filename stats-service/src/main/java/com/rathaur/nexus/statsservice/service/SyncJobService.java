@@ -0,0 +1,152 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.SyncJobStatus;
+import com.rathaur.nexus.statsservice.dto.SyncJobStatus.State;
+import com.rathaur.nexus.statsservice.dto.SyncResult;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background executor for user-triggered syncs.
+ * Requests are accepted into a bounded queue and drained by a fixed worker pool, so the
+ * servlet thread returns immediately with a job id. When the queue is full the submission
+ * is rejected instead of piling up work, which surfaces to the caller as HTTP 429.
+ * Not created under the {@code reactive} profile, where syncs run on {@link ReactiveSyncService}.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class SyncJobService {
+
+    private final StatsSyncService statsSyncService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, SyncJobStatus> jobs = new ConcurrentHashMap<>();
+
+    @Value("${nexus.sync.jobs.retention:30m}")
+    private Duration retention;
+
+    // Provider deadlines normally end a sync well before this; it only stops a stuck one holding a worker
+    @Value("${nexus.sync.jobs.timeout:45s}")
+    private Duration jobTimeout;
+
+    public SyncJobService(StatsSyncService statsSyncService,
+                          MeterRegistry meterRegistry,
+                          @Value("${nexus.sync.jobs.workers:4}") int workers,
+                          @Value("${nexus.sync.jobs.virtual-workers:256}") int virtualWorkers,
+                          @Value("${nexus.sync.jobs.queue-capacity:100}") int queueCapacity,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.statsSyncService = statsSyncService;
+
+        // Still a bounded pool on virtual threads: the queue and its 429 are the backpressure contract
+        AtomicInteger threadSeq = new AtomicInteger();
+        int poolSize = virtualThreads ? virtualWorkers : workers;
+        ThreadFactory threads = virtualThreads
+                ? Thread.ofVirtual().name("nexus-sync-worker-", 1).factory()
+                : r -> {
+                    Thread t = new Thread(r, "nexus-sync-worker-" + threadSeq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                };
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threads,
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("NEXUS-SYNC-JOBS: {} {} sync workers", poolSize, virtualThreads ? "virtual" : "platform");
+
+        Gauge.builder("nexus.sync.jobs.queued", executor, e -> e.getQueue().size())
+                .description("Sync jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("nexus.sync.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Sync jobs currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a sync for the given user and returns immediately.
+     *
+     * @throws StatsDomainExceptions.SyncQueueFullException when no queue slot is available
+     */
+    public SyncJobStatus submit(String username, String githubHandle, String leetcodeHandle) {
+        String jobId = UUID.randomUUID().toString();
+        SyncJobStatus queued = new SyncJobStatus(jobId, username, State.QUEUED, Instant.now(),
+                null, null, null, null);
+        jobs.put(jobId, queued);
+
+        try {
+            executor.execute(() -> run(queued, githubHandle, leetcodeHandle));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            log.warn("NEXUS-SYNC-JOBS: Queue full, rejecting sync for {}", username);
+            throw new StatsDomainExceptions.SyncQueueFullException(
+                    "Too many sync requests in flight. Please retry shortly.");
+        }
+
+        log.info("NEXUS-SYNC-JOBS: Job {} queued for {}", jobId, username);
+        return queued;
+    }
+
+    /**
+     * Looks up a job. Jobs are only visible to the user who submitted them.
+     */
+    public Optional<SyncJobStatus> findJob(String jobId, String username) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.username().equals(username));
+    }
+
+    private void run(SyncJobStatus queued, String githubHandle, String leetcodeHandle) {
+        String jobId = queued.jobId();
+        Instant startedAt = Instant.now();
+        jobs.put(jobId, new SyncJobStatus(jobId, queued.username(), State.RUNNING, queued.submittedAt(),
+                startedAt, null, null, null));
+
+        try {
+            SyncResult result = statsSyncService
+                    .parallelStatsSync(queued.username(), githubHandle, leetcodeHandle)
+                    .block(jobTimeout);
+            jobs.put(jobId, new SyncJobStatus(jobId, queued.username(), State.COMPLETED, queued.submittedAt(),
+                    startedAt, Instant.now(), result, null));
+        } catch (Exception e) {
+            log.error("NEXUS-SYNC-JOBS: Job {} failed: {}", jobId, e.getMessage(), e);
+            jobs.put(jobId, new SyncJobStatus(jobId, queued.username(), State.FAILED, queued.submittedAt(),
+                    startedAt, Instant.now(), null, e.getMessage()));
+        }
+    }
+
+    /**
+     * Drops finished jobs once they are older than the retention window.
+     */
+    @Scheduled(fixedDelayString = "${nexus.sync.jobs.eviction-delay:60000}")
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
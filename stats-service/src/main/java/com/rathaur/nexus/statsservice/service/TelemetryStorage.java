@@ -0,0 +1,54 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.entity.CompressedJson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Decides how raw provider payloads are stored. By default they go to the jsonb columns
+ * (github_stats.telemetry, leetcode_stats.advanced_metrics); with
+ * nexus.storage.compress-telemetry=true they are deflated into the {@code *_packed} bytea columns
+ * instead. Every write fills exactly one of the two and clears the other, so existing rows move
+ * over on their next sync and reads simply take whichever is set.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Component
+public class TelemetryStorage {
+
+    /** Column values for one payload: at most one of them is non-null. */
+    public record Stored(String json, byte[] packed) {
+        static final Stored NONE = new Stored(null, null);
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean compress;
+
+    public TelemetryStorage(ObjectMapper objectMapper,
+                            @Value("${nexus.storage.compress-telemetry:false}") boolean compress) {
+        this.objectMapper = objectMapper;
+        this.compress = compress;
+    }
+
+    public boolean compressed() {
+        return compress;
+    }
+
+    /** Compressed form of {@code raw} for the JPA path; null when compression is off or there is no payload. */
+    public CompressedJson pack(Map<String, Object> raw) {
+        return compress && raw != null ? CompressedJson.deflate(objectMapper.writeValueAsBytes(raw)) : null;
+    }
+
+    /** Column values for the SQL paths (bulk writer, reactive repository). */
+    public Stored store(Map<String, Object> raw) {
+        if (raw == null) return Stored.NONE;
+        byte[] json = objectMapper.writeValueAsBytes(raw);
+        return compress
+                ? new Stored(null, CompressedJson.deflate(json).bytes())
+                : new Stored(new String(json, StandardCharsets.UTF_8), null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rathaur.nexus.statsservice.event.RanksChangedEvent;
+import com.rathaur.nexus.statsservice.event.ScoresRescoredEvent;
+import com.rathaur.nexus.statsservice.event.UserStatsUpdatedEvent;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.util.RawValue;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of serialized UserStatsViews (without telemetry) keyed by username, shared by /me and
+ * /{username}. Values are JSON strings so a hit skips both the query and serialization.
+ * Bounded by size and TTL; entries are dropped as soon as a sync, a rank change or a bulk
+ * re-score touching the user commits. Metrics: cache.gets, cache.evictions, cache.size
+ * (tag cache=userStatsView) under /actuator/metrics.
+ *
+ * @author Tanuj Singh Rathaur
+ */
+@Slf4j
+@Service
+public class UserStatsViewCache {
+
+    private final UserStatsRepository userStatsRepo;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, String> cache;
+
+    public UserStatsViewCache(UserStatsRepository userStatsRepo,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${nexus.cache.user-stats.max-size:10000}") long maxSize,
+                              @Value("${nexus.cache.user-stats.ttl:5m}") Duration ttl) {
+        this.userStatsRepo = userStatsRepo;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userStatsView");
+    }
+
+    /**
+     * The user's serialized view, ready to embed in a response; empty if the user has no stats.
+     * Missing users are not cached, so a first sync is visible immediately.
+     */
+    public Optional<RawValue> get(String username) {
+        return Optional.ofNullable(cache.get(username, this::load)).map(RawValue::new);
+    }
+
+    // Invalidating a key whose load is in flight waits for the load, so a stale read never sticks
+    private String load(String username) {
+        return userStatsRepo.findView(username)
+                .map(objectMapper::writeValueAsString)
+                .orElse(null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatsUpdated(UserStatsUpdatedEvent event) {
+        cache.invalidate(event.username());
+    }
+
+    @EventListener
+    public void onRanksChanged(RanksChangedEvent event) {
+        cache.invalidateAll(event.usernames());
+    }
+
+    @EventListener
+    public void onScoresRescored(ScoresRescoredEvent event) {
+        if (event.changed() > 0) {
+            log.info("NEXUS-CACHE: Bulk re-score to {} committed; clearing user stats cache", event.version());
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+-- Baseline of the schema previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Every statement is IF NOT EXISTS so it applies cleanly to both empty databases and
+-- databases Hibernate already created (index names match the former @Index names).
+
+-- Exactly the table ddl-auto created before Flyway; on those databases this is a no-op
+CREATE TABLE IF NOT EXISTS user_stats (
+    username        varchar(100)     NOT NULL PRIMARY KEY,
+    version         bigint           NOT NULL,
+    nexus_score     double precision NOT NULL,
+    global_rank     integer,
+    quick_summary   jsonb,
+    created_at      timestamp(6) with time zone,
+    last_sync_all   timestamp(6) with time zone
+);
+
+-- Columns added since, which an existing user_stats does not have yet
+ALTER TABLE user_stats ADD COLUMN IF NOT EXISTS score_version varchar(32);
+ALTER TABLE user_stats ADD COLUMN IF NOT EXISTS github_handle varchar(100);
+ALTER TABLE user_stats ADD COLUMN IF NOT EXISTS leetcode_handle varchar(100);
+
+CREATE INDEX IF NOT EXISTS idx_user_stats_last_sync ON user_stats (last_sync_all, username);
+CREATE INDEX IF NOT EXISTS idx_user_stats_score ON user_stats (nexus_score DESC, username, global_rank);
+CREATE INDEX IF NOT EXISTS idx_user_stats_rank ON user_stats (global_rank, username, nexus_score);
+
+CREATE TABLE IF NOT EXISTS github_stats (
+    username             varchar(100) NOT NULL PRIMARY KEY REFERENCES user_stats (username),
+    total_stars          integer      NOT NULL,
+    public_repos         integer      NOT NULL,
+    total_commits_yearly integer      NOT NULL,
+    telemetry            jsonb,
+    last_synced          timestamp(6) with time zone
+);
+
+CREATE TABLE IF NOT EXISTS leetcode_stats (
+    username         varchar(100) NOT NULL PRIMARY KEY REFERENCES user_stats (username),
+    global_ranking   integer,
+    total_solved     integer,
+    easy_solved      integer,
+    medium_solved    integer,
+    hard_solved      integer,
+    advanced_metrics jsonb,
+    last_synced      timestamp(6) with time zone
+);
+
+CREATE TABLE IF NOT EXISTS score_change_log (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   varchar(100)                NOT NULL,
+    old_score  double precision,
+    new_score  double precision            NOT NULL,
+    changed_at timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS rank_history (
+    username    varchar(100)                NOT NULL,
+    recorded_at timestamp(6) with time zone NOT NULL,
+    global_rank integer,
+    nexus_score double precision            NOT NULL,
+    PRIMARY KEY (username, recorded_at)
+);
+
+CREATE TABLE IF NOT EXISTS leaderboard_segment (
+    segment     varchar(120)     NOT NULL,
+    username    varchar(100)     NOT NULL,
+    nexus_score double precision NOT NULL,
+    PRIMARY KEY (segment, username)
+);
+
+CREATE INDEX IF NOT EXISTS idx_segment_score ON leaderboard_segment (segment, nexus_score DESC, username);
+CREATE INDEX IF NOT EXISTS idx_segment_user ON leaderboard_segment (username);
+
+CREATE TABLE IF NOT EXISTS contribution_day (
+    username           varchar(100) NOT NULL,
+    day                date         NOT NULL,
+    contribution_count integer      NOT NULL,
+    PRIMARY KEY (username, day)
+);
@@ -0,0 +1,13 @@
+-- Index-backed access to quick_summary ->> 'current_status' (findUsersOpenToWork).
+
+-- A stored generated column rather than an expression index: the planner keeps real statistics
+-- for it, and queries filter on a plain column instead of repeating the JSON path.
+-- Adding a stored column rewrites user_stats once under an exclusive lock.
+ALTER TABLE user_stats
+    ADD COLUMN IF NOT EXISTS current_status text
+        GENERATED ALWAYS AS (quick_summary ->> 'current_status') STORED;
+
+-- Partial: only users that actually set a status are indexed
+CREATE INDEX IF NOT EXISTS idx_user_stats_current_status
+    ON user_stats (current_status, username)
+    WHERE current_status IS NOT NULL;
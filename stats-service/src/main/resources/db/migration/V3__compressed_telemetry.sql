@@ -0,0 +1,10 @@
+-- Optional compressed storage for the raw provider payloads (nexus.storage.compress-telemetry).
+-- With it on, syncs write the deflated payload to *_packed and clear the jsonb column, so rows
+-- move over on their next sync; with it off they move back the same way.
+
+ALTER TABLE github_stats ADD COLUMN IF NOT EXISTS telemetry_packed bytea;
+ALTER TABLE leetcode_stats ADD COLUMN IF NOT EXISTS advanced_metrics_packed bytea;
+
+-- Already deflated: skip pglz, which would only burn CPU, but still move large values out of line
+ALTER TABLE github_stats ALTER COLUMN telemetry_packed SET STORAGE EXTERNAL;
+ALTER TABLE leetcode_stats ALTER COLUMN advanced_metrics_packed SET STORAGE EXTERNAL;
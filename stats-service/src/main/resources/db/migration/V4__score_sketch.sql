@@ -0,0 +1,7 @@
+-- Shared checkpoint of the score percentile sketch (ScoreSketch): user count per log-scale slot.
+-- Instances add their deltas to it and read it back; stats-service fills it from user_stats
+-- on startup when it is empty, so truncating it forces a rebuild.
+CREATE TABLE IF NOT EXISTS score_sketch_bucket (
+    bucket     integer NOT NULL PRIMARY KEY,
+    user_count bigint  NOT NULL
+);
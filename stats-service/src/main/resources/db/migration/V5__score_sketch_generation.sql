@@ -0,0 +1,9 @@
+-- Rebuild generation of score_sketch_bucket. Every rebuild bumps it in the rebuild's transaction,
+-- and a checkpoint only adds deltas collected under the generation its instance last saw: deltas
+-- that a rebuild on another instance already counted from user_stats are dropped, not added twice.
+CREATE TABLE IF NOT EXISTS score_sketch_generation (
+    id         smallint NOT NULL PRIMARY KEY CHECK (id = 1),
+    generation bigint   NOT NULL
+);
+
+INSERT INTO score_sketch_generation (id, generation) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,11 @@
+-- Retry backoff for the background refresher. last_sync_all only moves on a complete sync, so a
+-- user whose handle keeps failing would otherwise stay at the head of the stale scan every tick.
+-- A failed refresh counts up refresh_failures and parks the user until refresh_retry_at
+-- (exponential, capped); a complete sync clears both.
+ALTER TABLE user_stats ADD COLUMN IF NOT EXISTS refresh_failures integer NOT NULL DEFAULT 0;
+ALTER TABLE user_stats ADD COLUMN IF NOT EXISTS refresh_retry_at timestamp(6) with time zone;
+
+-- The refresher's retry phase walks due users in retry order; only failing users are indexed
+CREATE INDEX IF NOT EXISTS idx_user_stats_refresh_retry
+    ON user_stats (refresh_retry_at, username)
+    WHERE refresh_retry_at IS NOT NULL;
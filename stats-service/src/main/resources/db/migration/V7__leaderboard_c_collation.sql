@@ -0,0 +1,6 @@
+-- Leaderboard ties break on username COLLATE "C" everywhere (Java String order, as the in-memory
+-- index sorts). The keyset queries compare and sort with that collation, so the covering index
+-- must be built with it too or they fall back to a sort over the whole tie group.
+DROP INDEX IF EXISTS idx_user_stats_score;
+CREATE INDEX IF NOT EXISTS idx_user_stats_score
+    ON user_stats (nexus_score DESC, username COLLATE "C", global_rank);
@@ -0,0 +1,205 @@
+package com.rathaur.nexus.statsservice.client;
+
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions.ExternalProviderThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderRateLimiterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final TestTime time = new TestTime();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void burstIsServedAtOnceThenPermitsRefillAtTheConfiguredRate() {
+        // 60/min = one permit per second, five at once
+        ProviderRateLimiter limiter = limiter(60, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.reserve(1, NO_DEADLINE));
+        }
+        // The bucket goes negative: the sixth caller is queued one refill behind, the seventh two
+        assertEquals(SECOND, limiter.reserve(1, NO_DEADLINE));
+        assertEquals(2 * SECOND, limiter.reserve(1, NO_DEADLINE));
+
+        // Four seconds later the two queued permits are paid back and two more have refilled
+        time.advance(Duration.ofSeconds(4));
+        assertEquals(0, limiter.reserve(1, NO_DEADLINE));
+        assertEquals(0, limiter.reserve(1, NO_DEADLINE));
+        assertEquals(SECOND, limiter.reserve(1, NO_DEADLINE));
+    }
+
+    @Test
+    void refillNeverExceedsTheBurst() {
+        ProviderRateLimiter limiter = limiter(60, 3);
+
+        time.advance(Duration.ofHours(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.reserve(1, NO_DEADLINE));
+        }
+        assertEquals(SECOND, limiter.reserve(1, NO_DEADLINE));
+    }
+
+    @Test
+    void permitDueAfterTheDeadlineFailsFastAndReservesNothing() {
+        ProviderRateLimiter limiter = limiter(60, 1);
+        assertEquals(0, limiter.reserve(1, NO_DEADLINE));
+
+        // The next permit is a second away
+        assertThrows(ExternalProviderThrottledException.class,
+                () -> limiter.acquire(1, Duration.ofMillis(500)).block());
+        assertEquals(1.0, meterRegistry.get("nexus.ratelimit.rejected").counter().count());
+
+        // The rejected call did not push later callers back
+        assertEquals(SECOND, limiter.reserve(1, Duration.ofSeconds(2).toNanos()));
+    }
+
+    @Test
+    void exhaustedQuotaPausesUntilTheReset() {
+        ProviderRateLimiter limiter = limiter(6_000, 10);
+
+        limiter.onResponse(HttpStatus.OK, quota(0, time.epochSecond() + 120));
+
+        // Paused for the whole window, plus one refill interval for the permit itself (100/s)
+        long wait = limiter.reserve(1, NO_DEADLINE);
+        assertEquals(120 * SECOND + SECOND / 100, wait, SECOND / 1000);
+        assertThrows(ExternalProviderThrottledException.class,
+                () -> limiter.acquire(1, Duration.ofSeconds(60)).block());
+
+        time.advance(Duration.ofSeconds(121));
+        assertEquals(0, limiter.reserve(1, NO_DEADLINE));
+    }
+
+    @Test
+    void remainingQuotaIsSpreadEvenlyUntilTheReset() {
+        ProviderRateLimiter limiter = limiter(6_000, 1);
+
+        // 60 calls left for the next 600 s: one every 10 s, well under the configured 100/s
+        limiter.onResponse(HttpStatus.OK, quota(60, time.epochSecond() + 600));
+
+        assertEquals(0, limiter.reserve(1, NO_DEADLINE));
+        assertEquals(10 * SECOND, limiter.reserve(1, NO_DEADLINE), SECOND / 1000);
+    }
+
+    @Test
+    void consecutiveThrottlesGrowTheBackoffUntilASuccessResetsIt() {
+        Duration base = Duration.ofSeconds(2);
+        // A fast refill so the measured wait is the pause alone
+        ProviderRateLimiter limiter = limiter(6_000_000, 10, base, Duration.ofMinutes(5));
+
+        long[] pauses = new long[6];
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            limiter.onResponse(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders());
+            long pause = limiter.reserve(1, NO_DEADLINE);
+
+            // base * 2^(attempt-1), with jitter in [50%, 150%)
+            long nominal = base.toNanos() << (attempt - 1);
+            assertTrue(pause >= nominal / 2 && pause < nominal * 3 / 2 + SECOND / 1000,
+                    "attempt " + attempt + " paused " + pause);
+            pauses[attempt] = pause;
+
+            time.advance(Duration.ofNanos(pause + SECOND));
+        }
+        // Two doublings outgrow the jitter: attempt n+2 always waits longer than attempt n
+        assertTrue(pauses[3] > pauses[1], "backoff did not grow: " + pauses[1] + " -> " + pauses[3]);
+        assertTrue(pauses[5] > pauses[3], "backoff did not grow: " + pauses[3] + " -> " + pauses[5]);
+
+        // A success resets the backoff: the next 429 starts from the base again
+        limiter.onResponse(HttpStatus.OK, new HttpHeaders());
+        limiter.onResponse(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders());
+        long pause = limiter.reserve(1, NO_DEADLINE);
+        assertTrue(pause < base.toNanos() * 3 / 2 + SECOND / 1000, "paused " + pause);
+    }
+
+    @Test
+    void backoffIsCappedAtTheMaximum() {
+        Duration max = Duration.ofSeconds(30);
+        ProviderRateLimiter limiter = limiter(6_000_000, 10, Duration.ofSeconds(2), max);
+
+        long pause = 0;
+        for (int attempt = 1; attempt <= 12; attempt++) {
+            limiter.onResponse(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders());
+            pause = limiter.reserve(1, NO_DEADLINE);
+            time.advance(Duration.ofNanos(pause + SECOND));
+        }
+
+        assertTrue(pause < max.toNanos() * 3 / 2 + SECOND / 1000, "paused " + pause);
+    }
+
+    @Test
+    void retryAfterHeaderWinsOverTheComputedBackoff() {
+        ProviderRateLimiter limiter = limiter(6_000_000, 10, Duration.ofSeconds(2), Duration.ofMinutes(5));
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Retry-After", "42");
+
+        limiter.onResponse(HttpStatus.TOO_MANY_REQUESTS, headers);
+
+        assertEquals(42 * SECOND, limiter.reserve(1, NO_DEADLINE), SECOND / 1000);
+    }
+
+    private ProviderRateLimiter limiter(int requestsPerMinute, int burst) {
+        return limiter(requestsPerMinute, burst, Duration.ofSeconds(2), Duration.ofMinutes(5));
+    }
+
+    private ProviderRateLimiter limiter(int requestsPerMinute, int burst, Duration baseBackoff, Duration maxBackoff) {
+        return new ProviderRateLimiter("test", requestsPerMinute, burst, baseBackoff, maxBackoff,
+                meterRegistry, time::nanoTime, time);
+    }
+
+    private static HttpHeaders quota(long remaining, long resetEpochSecond) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.add("X-RateLimit-Reset", String.valueOf(resetEpochSecond));
+        return headers;
+    }
+
+    /** Monotonic and wall time moving together, only when the test says so. */
+    private static final class TestTime extends Clock {
+
+        private long nanos = 1_000 * SECOND;
+        private Instant now = Instant.parse("2026-03-01T12:00:00Z");
+
+        long nanoTime() {
+            return nanos;
+        }
+
+        long epochSecond() {
+            return now.getEpochSecond();
+        }
+
+        void advance(Duration d) {
+            nanos += d.toNanos();
+            now = now.plus(d);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
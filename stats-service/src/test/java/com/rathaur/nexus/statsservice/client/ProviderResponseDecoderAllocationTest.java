@@ -0,0 +1,74 @@
+package com.rathaur.nexus.statsservice.client;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocation benchmark: bytes allocated per GitHub sync decode, Map tree (previous path)
+ * versus the streaming decoder. Not part of the regular build; run with
+ * {@code mvn test -Pbenchmark} and read the NEXUS-BENCH line. What the decoder extracts is
+ * covered by {@link ProviderResponseDecoderTest}.
+ */
+@Tag("benchmark")
+class ProviderResponseDecoderAllocationTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private final ProviderResponseDecoder decoder = new ProviderResponseDecoder(mapper);
+
+    @Test
+    void streamingDecoderAllocatesLessThanTheMapTree() throws Exception {
+        byte[] body;
+        try (InputStream in = getClass().getResourceAsStream("/github/user-response.json")) {
+            body = in.readAllBytes();
+        }
+
+        long treeBytes = allocatedPerOp(() -> mapTreeDecode(body));
+        long streamingBytes = allocatedPerOp(() -> decoder.decodeGitHub(body, Set.of("user")));
+
+        System.out.printf("NEXUS-BENCH: payload=%d B, map-tree=%d B/sync, streaming=%d B/sync (%.1fx less)%n",
+                body.length, treeBytes, streamingBytes, (double) treeBytes / Math.max(1, streamingBytes));
+        assertTrue(streamingBytes < treeBytes, "streaming decode should allocate less than the Map tree");
+    }
+
+    /** The pre-streaming path: full Map tree, then walk it for the three scoring inputs. */
+    @SuppressWarnings("unchecked")
+    private int[] mapTreeDecode(byte[] body) {
+        Map<String, Object> response = mapper.readValue(body, Map.class);
+        Map<String, Object> user = (Map<String, Object>) ((Map<String, Object>) response.get("data")).get("user");
+        int repos = ((Number) ((Map<String, Object>) user.get("allRepos")).get("totalCount")).intValue();
+        int stars = 0;
+        for (Object node : (Iterable<Object>) ((Map<String, Object>) user.get("recentRepos")).get("nodes")) {
+            stars += ((Number) ((Map<String, Object>) node).get("stargazerCount")).intValue();
+        }
+        Map<String, Object> calendar = (Map<String, Object>) ((Map<String, Object>) user.get("contributionsCollection"))
+                .get("contributionCalendar");
+        int contributions = ((Number) calendar.get("totalContributions")).intValue();
+        return new int[]{repos, stars, contributions};
+    }
+
+    private long allocatedPerOp(Supplier<?> op) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) sink = op.get();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) sink = op.get();
+        long after = threads.getCurrentThreadAllocatedBytes();
+
+        assertTrue(sink != null);
+        return (after - before) / ITERATIONS;
+    }
+}
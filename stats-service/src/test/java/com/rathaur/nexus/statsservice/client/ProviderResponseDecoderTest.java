@@ -0,0 +1,165 @@
+package com.rathaur.nexus.statsservice.client;
+
+import com.rathaur.nexus.statsservice.client.model.ContributionDay;
+import com.rathaur.nexus.statsservice.client.model.GitHubUserSnapshot;
+import com.rathaur.nexus.statsservice.client.model.LeetCodeUserSnapshot;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderResponseDecoderTest {
+
+    private final ProviderResponseDecoder decoder = new ProviderResponseDecoder(JsonMapper.builder().build());
+
+    @Test
+    void decodesScoringFieldsOfASingleGitHubUser() throws Exception {
+        byte[] body;
+        try (InputStream in = getClass().getResourceAsStream("/github/user-response.json")) {
+            body = in.readAllBytes();
+        }
+
+        ProviderResponseDecoder.GitHubResponse response = decoder.decodeGitHub(body, Set.of("user"));
+        GitHubUserSnapshot user = response.usersByAlias().get("user");
+
+        assertEquals(16, user.totalRepos());
+        assertEquals(110, user.recentStars());
+        // Scoring total from the 7-day window, day cells from the year-long calendar alias
+        assertEquals(59, user.totalContributions());
+        assertEquals("Bengaluru, India", user.location());
+        // Most frequent first; ties keep the most recently pushed language first
+        assertEquals(List.of("Java", "TypeScript", "Go", "Python"), user.languages());
+        assertEquals(371, user.contributionDays().size());
+        assertEquals(new ContributionDay(LocalDate.of(2025, 10, 19), 5), user.contributionDays().get(0));
+        assertEquals(2186, user.contributionDays().stream().mapToInt(ContributionDay::count).sum());
+        assertNull(user.rawTelemetry());
+        assertEquals(1, response.cost());
+        assertTrue(response.errorsByAlias().isEmpty());
+    }
+
+    @Test
+    void keepsBatchErrorsOnTheirOwnAlias() {
+        String body = """
+            {
+              "data": {
+                "u0": { "allRepos": { "totalCount": 3 }, "location": "Pune",
+                        "recentRepos": { "nodes": [ { "stargazerCount": 4, "primaryLanguage": { "name": "Java" } } ] } },
+                "u1": null,
+                "u2": null,
+                "rateLimit": { "cost": 2 }
+              },
+              "errors": [
+                { "type": "NOT_FOUND", "path": ["u1"], "message": "Could not resolve to a User with the login of 'ghost'." },
+                { "path": ["u1", "allRepos"], "message": "second error for the same alias" },
+                { "message": "Something went wrong" }
+              ]
+            }
+            """;
+
+        ProviderResponseDecoder.GitHubResponse response = decoder.decodeGitHub(bytes(body), Set.of("u0", "u1", "u2"));
+
+        assertEquals(Set.of("u0"), response.usersByAlias().keySet());
+        GitHubUserSnapshot u0 = response.usersByAlias().get("u0");
+        assertEquals(3, u0.totalRepos());
+        assertEquals(4, u0.recentStars());
+        assertEquals(0, u0.totalContributions());
+        assertEquals(List.of("Java"), u0.languages());
+        assertEquals(List.of(), u0.contributionDays());
+
+        // First error per alias wins; errors without a path belong to the whole document
+        assertEquals(Map.of("u1", "Could not resolve to a User with the login of 'ghost'."), response.errorsByAlias());
+        assertEquals("Something went wrong", response.documentError());
+        assertEquals(2, response.cost());
+    }
+
+    @Test
+    void ignoresAliasesThatWereNotRequested() {
+        String body = """
+            { "data": { "u0": { "allRepos": { "totalCount": 1 } }, "u9": { "allRepos": { "totalCount": 9 } } } }
+            """;
+
+        ProviderResponseDecoder.GitHubResponse response = decoder.decodeGitHub(bytes(body), Set.of("u0"));
+
+        assertEquals(Set.of("u0"), response.usersByAlias().keySet());
+    }
+
+    @Test
+    void rejectsMalformedGitHubResponses() {
+        assertThrows(StatsDomainExceptions.DataParsingException.class,
+                () -> decoder.decodeGitHub(bytes("[1, 2]"), Set.of("user")));
+        assertThrows(StatsDomainExceptions.DataParsingException.class,
+                () -> decoder.decodeGitHub(bytes("{\"data\": {\"user\": {"), Set.of("user")));
+    }
+
+    @Test
+    void mapsLeetCodeSubmissionCountsByDifficultyName() {
+        String body = """
+            {
+              "data": {
+                "matchedUser": {
+                  "username": "tanuj",
+                  "profile": { "ranking": 123456, "reputation": 7 },
+                  "submitStats": {
+                    "acSubmissionNum": [
+                      { "difficulty": "Hard", "count": 12, "submissions": 30 },
+                      { "difficulty": "Easy", "count": 150, "submissions": 200 },
+                      { "difficulty": "Insane", "count": 99 },
+                      { "difficulty": "All", "count": 402, "submissions": 600 },
+                      { "difficulty": "Medium", "count": 240, "submissions": 370 }
+                    ]
+                  }
+                }
+              }
+            }
+            """;
+
+        LeetCodeUserSnapshot user = decoder.decodeLeetCode(bytes(body), "tanuj");
+
+        assertEquals(Integer.valueOf(123456), user.ranking());
+        assertEquals(402, user.totalSolved());
+        assertEquals(150, user.easySolved());
+        assertEquals(240, user.mediumSolved());
+        assertEquals(12, user.hardSolved());
+        assertNull(user.rawMetrics());
+    }
+
+    @Test
+    void leavesMissingLeetCodeFieldsEmpty() {
+        String body = """
+            { "data": { "matchedUser": { "profile": { "ranking": null }, "submitStats": { "acSubmissionNum": [] } } } }
+            """;
+
+        LeetCodeUserSnapshot user = decoder.decodeLeetCode(bytes(body), "newbie");
+
+        assertEquals(0, user.totalSolved());
+        assertEquals(0, user.easySolved());
+        assertEquals(0, user.mediumSolved());
+        assertEquals(0, user.hardSolved());
+    }
+
+    @Test
+    void reportsAnUnknownLeetCodeUser() {
+        String body = """
+            { "data": { "matchedUser": null }, "errors": [ { "message": "That user does not exist." } ] }
+            """;
+
+        StatsDomainExceptions.DataParsingException e = assertThrows(StatsDomainExceptions.DataParsingException.class,
+                () -> decoder.decodeLeetCode(bytes(body), "ghost"));
+        assertTrue(e.getMessage().contains("ghost"));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
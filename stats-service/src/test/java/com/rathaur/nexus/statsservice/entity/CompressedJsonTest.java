@@ -0,0 +1,86 @@
+package com.rathaur.nexus.statsservice.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedJsonTest {
+
+    private static final String JSON = """
+        {"login":"tanuj","repos":16,"languages":["Java","Go"],"nested":{"stars":110,"bio":"名前 — dev"}}""";
+
+    @Test
+    void inflateReturnsTheExactBytesThatWereDeflated() {
+        byte[] json = bytes(JSON);
+
+        CompressedJson packed = CompressedJson.deflate(json);
+
+        assertArrayEquals(json, packed.inflate());
+    }
+
+    @Test
+    void toMapReadsTheDocumentBack() {
+        Map<String, Object> map = CompressedJson.deflate(bytes(JSON)).toMap();
+
+        assertEquals("tanuj", map.get("login"));
+        assertEquals(16, map.get("repos"));
+        assertEquals(List.of("Java", "Go"), map.get("languages"));
+        assertEquals(Map.of("stars", 110, "bio", "名前 — dev"), map.get("nested"));
+    }
+
+    @Test
+    void storedBytesRoundTripThroughWrap() {
+        CompressedJson packed = CompressedJson.deflate(bytes(JSON));
+
+        // What the converter and the R2DBC mapping do with the column value
+        CompressedJson loaded = CompressedJson.wrap(packed.bytes().clone());
+
+        assertEquals(packed, loaded);
+        assertEquals(packed.hashCode(), loaded.hashCode());
+        assertEquals(JSON, new String(loaded.inflate(), StandardCharsets.UTF_8));
+        assertNull(CompressedJson.wrap(null));
+    }
+
+    @Test
+    void repetitiveTelemetryShrinks() {
+        String repeated = "{\"weeks\":[" + String.join(",", Collections.nCopies(500,
+                "{\"date\":\"2026-01-01\",\"contributionCount\":3}")) + "]}";
+
+        CompressedJson packed = CompressedJson.deflate(bytes(repeated));
+
+        assertTrue(packed.bytes().length * 10 < repeated.length(), packed.toString());
+        assertEquals(repeated, new String(packed.inflate(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyDocumentRoundTrips() {
+        assertArrayEquals(new byte[0], CompressedJson.deflate(new byte[0]).inflate());
+        assertEquals(Map.of(), CompressedJson.deflate(bytes("{}")).toMap());
+    }
+
+    @Test
+    void corruptBytesAreAnIllegalState() {
+        byte[] packed = CompressedJson.deflate(bytes(JSON)).bytes();
+
+        // Not deflate at all: plain JSON that was never compressed
+        assertThrows(IllegalStateException.class, () -> CompressedJson.wrap(bytes(JSON)).inflate());
+        // Cut off mid-stream
+        assertThrows(IllegalStateException.class,
+                () -> CompressedJson.wrap(Arrays.copyOf(packed, packed.length / 2)).inflate());
+        assertThrows(IllegalStateException.class, () -> CompressedJson.wrap(new byte[0]).toMap());
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
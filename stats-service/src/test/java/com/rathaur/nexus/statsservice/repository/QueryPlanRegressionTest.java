@@ -0,0 +1,199 @@
+package com.rathaur.nexus.statsservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query-plan regression test: the JSONB-backed lookups must stay on their indexes.
+ * Migrates a throwaway schema with the real Flyway scripts, loads enough rows for the planner
+ * to prefer an index, and inspects EXPLAIN output of the repositories' own SQL (the constants
+ * their {@code @Query} annotations use, so the text cannot drift). Needs a local Postgres:
+ * {@code NEXUS_PLAN_TEST_DB_URL=jdbc:postgresql://localhost:5432/nexus_stats mvn test -Dtest=QueryPlanRegressionTest}
+ * (credentials from NEXUS_PLAN_TEST_DB_USER / NEXUS_PLAN_TEST_DB_PASSWORD, default nexus/root).
+ * <p>
+ * Also upgrades a schema shaped like the one {@code ddl-auto=update} created before Flyway,
+ * the way production databases are migrated (baseline-on-migrate at version 0).
+ */
+@EnabledIfEnvironmentVariable(named = "NEXUS_PLAN_TEST_DB_URL", matches = ".+")
+class QueryPlanRegressionTest {
+
+    private static final int USERS = 20_000;
+
+    private static final String SCHEMA = "plan_test_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+
+    private static final String LEGACY_SCHEMA = SCHEMA + "_legacy";
+
+    // What Hibernate's ddl-auto=update created for the entities before the schema moved to Flyway
+    private static final String LEGACY_DDL = """
+        CREATE TABLE %1$s.user_stats (
+            username varchar(100) NOT NULL PRIMARY KEY, version bigint NOT NULL,
+            nexus_score float(53) NOT NULL, global_rank integer, quick_summary jsonb,
+            created_at timestamp(6) with time zone, last_sync_all timestamp(6) with time zone);
+        CREATE TABLE %1$s.github_stats (
+            username varchar(100) NOT NULL PRIMARY KEY REFERENCES %1$s.user_stats (username),
+            total_stars integer NOT NULL, public_repos integer NOT NULL, total_commits_yearly integer NOT NULL,
+            telemetry jsonb, last_synced timestamp(6) with time zone);
+        CREATE TABLE %1$s.leetcode_stats (
+            username varchar(100) NOT NULL PRIMARY KEY REFERENCES %1$s.user_stats (username),
+            global_ranking integer, total_solved integer, easy_solved integer, medium_solved integer,
+            hard_solved integer, advanced_metrics jsonb, last_synced timestamp(6) with time zone);
+        INSERT INTO %1$s.user_stats (username, version, nexus_score) VALUES ('legacy', 3, 42.0);
+        """;
+
+    private static Connection conn;
+
+    @BeforeAll
+    static void migrateAndLoad() throws SQLException {
+        String url = System.getenv("NEXUS_PLAN_TEST_DB_URL");
+        String user = envOr("NEXUS_PLAN_TEST_DB_USER", "nexus");
+        String password = envOr("NEXUS_PLAN_TEST_DB_PASSWORD", "root");
+
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(SCHEMA)
+                .createSchemas(true)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        conn = DriverManager.getConnection(url, user, password);
+        try (Statement st = conn.createStatement()) {
+            st.execute("SET search_path TO " + SCHEMA);
+            // About 1% open to work, the rest with another status or none at all
+            st.execute("""
+                INSERT INTO user_stats (username, version, nexus_score, quick_summary)
+                SELECT 'user' || i, 0, i % 997,
+                       CASE WHEN i % 100 = 0 THEN '{"current_status": "OPEN_TO_WORK"}'::jsonb
+                            WHEN i % 3 = 0 THEN '{"current_status": "EMPLOYED"}'::jsonb
+                            ELSE '{"headline": "hello"}'::jsonb END
+                FROM generate_series(1, %d) i
+                """.formatted(USERS));
+            st.execute("""
+                INSERT INTO github_stats (username, total_stars, public_repos, total_commits_yearly)
+                SELECT username, 0, 0, 0 FROM user_stats
+                """);
+            st.execute("""
+                INSERT INTO leaderboard_segment (segment, username, nexus_score)
+                SELECT CASE WHEN i % 50 = 0 THEN 'lang:java' ELSE 'lang:other' || (i % 40) END,
+                       'user' || i, i % 997
+                FROM generate_series(1, %d) i
+                """.formatted(USERS));
+            st.execute("ANALYZE user_stats");
+            st.execute("ANALYZE github_stats");
+            st.execute("ANALYZE leaderboard_segment");
+        }
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (conn == null) return;
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("DROP SCHEMA IF EXISTS " + LEGACY_SCHEMA + " CASCADE");
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    void openToWorkUsesGeneratedColumnIndex() throws SQLException {
+        String plan = explain(UserStatsRepository.OPEN_TO_WORK_SQL);
+        assertTrue(plan.contains("idx_user_stats_current_status"), plan);
+        assertFalse(plan.contains("Seq Scan on user_stats"), plan);
+    }
+
+    @Test
+    void javaExpertsUseSegmentIndex() throws SQLException {
+        String plan = explain(GitHubStatsRepository.JAVA_EXPERTS_SQL);
+        assertTrue(plan.contains("idx_segment_score"), plan);
+        assertFalse(plan.contains("Seq Scan on leaderboard_segment"), plan);
+    }
+
+    @Test
+    void leaderboardPageAfterStaysOnTheCollatedScoreIndex() throws SQLException {
+        String plan = explain(UserStatsRepository.LEADERBOARD_PAGE_AFTER_SQL
+                .replace(":afterScore", "500")
+                .replace(":afterUsername", "'user5000'")
+                .replace(":limit", "21"));
+        assertTrue(plan.contains("idx_user_stats_score"), plan);
+        assertFalse(plan.contains("Seq Scan on user_stats"), plan);
+    }
+
+    @Test
+    void migratesADatabaseCreatedByDdlAuto() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE SCHEMA " + LEGACY_SCHEMA);
+            st.execute(LEGACY_DDL.formatted(LEGACY_SCHEMA));
+        }
+
+        Flyway.configure()
+                .dataSource(System.getenv("NEXUS_PLAN_TEST_DB_URL"), envOr("NEXUS_PLAN_TEST_DB_USER", "nexus"),
+                        envOr("NEXUS_PLAN_TEST_DB_PASSWORD", "root"))
+                .schemas(LEGACY_SCHEMA)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        Set<String> columns = new HashSet<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("""
+                 SELECT table_name || '.' || column_name FROM information_schema.columns
+                 WHERE table_schema = '%s'
+                 """.formatted(LEGACY_SCHEMA))) {
+            while (rs.next()) {
+                columns.add(rs.getString(1));
+            }
+        }
+        for (String column : Set.of("user_stats.score_version", "user_stats.github_handle",
+                "user_stats.leetcode_handle", "user_stats.current_status", "user_stats.refresh_retry_at",
+                "github_stats.telemetry_packed", "leetcode_stats.advanced_metrics_packed",
+                "score_change_log.new_score", "contribution_day.contribution_count")) {
+            assertTrue(columns.contains(column), column + " missing after upgrade: " + columns);
+        }
+
+        // Existing rows survive and take the new columns as null
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, score_version, github_handle FROM "
+                     + LEGACY_SCHEMA + ".user_stats WHERE username = 'legacy'")) {
+            assertTrue(rs.next());
+            assertEquals(3, rs.getLong(1));
+            assertNull(rs.getString(2));
+            assertNull(rs.getString(3));
+        }
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String envOr(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : fallback;
+    }
+}
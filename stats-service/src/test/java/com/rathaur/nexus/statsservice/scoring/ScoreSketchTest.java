@@ -0,0 +1,94 @@
+package com.rathaur.nexus.statsservice.scoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreSketchTest {
+
+    private static final int LAST = ScoreSketch.SLOTS - 1;
+
+    @ParameterizedTest
+    @ValueSource(doubles = {ScoreSketch.MIN_SCORE, 0.0, -0.0, -1.0, -1e12, Double.NEGATIVE_INFINITY, Double.NaN})
+    void scoresAtOrBelowTheMinimumShareTheZeroSlot(double score) {
+        assertEquals(0, ScoreSketch.slot(score));
+    }
+
+    @Test
+    void firstScoreAboveTheMinimumTakesSlotOne() {
+        assertEquals(1, ScoreSketch.slot(Math.nextUp(ScoreSketch.MIN_SCORE)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {ScoreSketch.MAX_SCORE, 1e10, Double.MAX_VALUE, Double.POSITIVE_INFINITY})
+    void scoresAtOrAboveTheMaximumShareTheLastSlot(double score) {
+        assertEquals(LAST, ScoreSketch.slot(score));
+    }
+
+    @Test
+    void justBelowTheMaximumIsStillInRange() {
+        int slot = ScoreSketch.slot(Math.nextDown(ScoreSketch.MAX_SCORE));
+        assertTrue(slot > 0 && slot <= LAST, String.valueOf(slot));
+    }
+
+    @Test
+    void slotsAreMonotonicAndWithinTheRelativeAccuracy() {
+        double gamma = (1 + ScoreSketch.RELATIVE_ACCURACY) / (1 - ScoreSketch.RELATIVE_ACCURACY);
+        int previous = 0;
+        for (double score = 0.02; score < ScoreSketch.MAX_SCORE / 2; score *= 1.37) {
+            int slot = ScoreSketch.slot(score);
+            assertTrue(slot >= previous, "slot went down at " + score);
+            // Scores further apart than one bucket width never share a slot
+            assertNotEquals(slot, ScoreSketch.slot(score * gamma * 1.0001), String.valueOf(score));
+            previous = slot;
+        }
+    }
+
+    @Test
+    void aboveCountsOnlyHigherSlots() {
+        ScoreSketch sketch = sketchOf(-3.0, 0.0, ScoreSketch.MIN_SCORE, 50.0, 50.2, ScoreSketch.MAX_SCORE, 5e9);
+
+        assertEquals(7, sketch.total());
+        assertEquals(3, sketch.count(0));
+        assertEquals(2, sketch.count(LAST));
+
+        assertEquals(4, sketch.above(-1.0));
+        assertEquals(4, sketch.above(0.0));
+        assertEquals(4, sketch.above(ScoreSketch.MIN_SCORE));
+        // 50.0 and 50.2 are within 1% of each other: same slot, so neither is above the other
+        assertEquals(ScoreSketch.slot(50.0), ScoreSketch.slot(50.2));
+        assertEquals(2, sketch.above(50.0));
+        assertEquals(0, sketch.above(ScoreSketch.MAX_SCORE));
+        assertEquals(0, sketch.above(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void negativeSlotCountsFromDriftCountAsEmpty() {
+        long[] counts = new long[ScoreSketch.SLOTS];
+        counts[ScoreSketch.slot(10.0)] = -2;
+        counts[ScoreSketch.slot(20.0)] = 3;
+        ScoreSketch sketch = new ScoreSketch(counts);
+
+        assertEquals(3, sketch.total());
+        assertEquals(0, sketch.count(ScoreSketch.slot(10.0)));
+        assertEquals(3, sketch.above(10.0));
+        assertEquals(0, sketch.above(20.0));
+    }
+
+    @Test
+    void emptySketchHasNobodyAbove() {
+        assertEquals(0, ScoreSketch.EMPTY.total());
+        assertEquals(0, ScoreSketch.EMPTY.above(0.0));
+        assertEquals(0, ScoreSketch.EMPTY.above(ScoreSketch.MAX_SCORE));
+    }
+
+    private static ScoreSketch sketchOf(double... scores) {
+        long[] counts = new long[ScoreSketch.SLOTS];
+        for (double score : scores) counts[ScoreSketch.slot(score)]++;
+        return new ScoreSketch(counts);
+    }
+}
@@ -0,0 +1,224 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.dto.LeaderboardEntry;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository.ScoreRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardIndexTest {
+
+    // Stand-in for user_stats; a rebuild reads whatever is committed when it starts streaming
+    private final Map<String, Double> table = new ConcurrentHashMap<>();
+    private final UserStatsRepository userStatsRepo = mock(UserStatsRepository.class);
+    private final LeaderboardIndex index = new LeaderboardIndex(userStatsRepo, mock(PlatformTransactionManager.class));
+
+    // Runs while a rebuild is reading the table, after it took its copy
+    private Consumer<Integer> duringRead = readNo -> { };
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger concurrentReads = new AtomicInteger();
+    private final AtomicInteger maxConcurrentReads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(userStatsRepo.streamAllScores()).thenAnswer(invocation -> {
+            int readNo = reads.incrementAndGet();
+            maxConcurrentReads.accumulateAndGet(concurrentReads.incrementAndGet(), Math::max);
+            try {
+                List<ScoreRow> rows = table.entrySet().stream()
+                        .map(e -> row(e.getKey(), e.getValue()))
+                        .sorted((a, b) -> LeaderboardIndex.compare(a.getNexusScore(), a.getUsername(),
+                                b.getNexusScore(), b.getUsername()))
+                        .toList();
+                duringRead.accept(readNo);
+                return rows.stream();
+            } finally {
+                concurrentReads.decrementAndGet();
+            }
+        });
+
+        table.put("alice", 50.0);
+        table.put("bob", 80.0);
+        table.put("carol", 80.0);
+        table.put("dave", 10.0);
+        index.rebuild();
+    }
+
+    @Test
+    void ordersByScoreThenUsernameAndSharesRanksOnTies() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(
+                new LeaderboardEntry(1, "bob", 80.0),
+                new LeaderboardEntry(1, "carol", 80.0),
+                new LeaderboardEntry(3, "alice", 50.0),
+                new LeaderboardEntry(4, "dave", 10.0)), index.top(10));
+
+        assertEquals(Optional.of(1), index.rankOf("carol"));
+        assertEquals(Optional.of(2), index.positionOf("carol"));
+        assertEquals(Optional.of(3), index.rankOf("alice"));
+        assertEquals(Optional.empty(), index.rankOf("nobody"));
+        assertEquals(Optional.empty(), index.positionOf("nobody"));
+    }
+
+    @Test
+    void rangeStartingInsideATieKeepsTheSharedRank() {
+        assertEquals(List.of(new LeaderboardEntry(1, "carol", 80.0), new LeaderboardEntry(3, "alice", 50.0)),
+                index.range(2, 3));
+        assertEquals(List.of(new LeaderboardEntry(1, "bob", 80.0)), index.top(1));
+        assertEquals(List.of(), index.range(5, 10));
+    }
+
+    @Test
+    void scoreMovingUpTakesItsNewSlot() {
+        index.update("dave", 90.0);
+
+        assertEquals(4, index.size());
+        assertEquals(Optional.of(1), index.rankOf("dave"));
+        assertEquals(Optional.of(2), index.rankOf("bob"));
+        assertEquals(Optional.of(2), index.rankOf("carol"));
+        assertEquals(Optional.of(4), index.rankOf("alice"));
+        assertEquals(Optional.of(90.0), index.scoreOf("dave"));
+    }
+
+    @Test
+    void scoreMovingDownLeavesNoStaleSlot() {
+        index.update("bob", 5.0);
+
+        assertEquals(List.of("carol", "alice", "dave", "bob"), usernames(index.top(10)));
+        assertEquals(Optional.of(1), index.rankOf("carol"));
+        assertEquals(Optional.of(4), index.rankOf("bob"));
+    }
+
+    @Test
+    void movingIntoATieSortsByUsername() {
+        index.update("alice", 80.0);
+
+        assertEquals(List.of("alice", "bob", "carol", "dave"), usernames(index.top(10)));
+        assertEquals(Optional.of(1), index.rankOf("alice"));
+        assertEquals(Optional.of(4), index.rankOf("dave"));
+
+        // Same score again: nothing moves
+        index.update("alice", 80.0);
+        assertEquals(4, index.size());
+        assertEquals(Optional.of(1), index.positionOf("alice"));
+    }
+
+    @Test
+    void updateForAnUnknownUserInsertsIt() {
+        index.update("erin", 50.0);
+
+        assertEquals(5, index.size());
+        assertEquals(Optional.of(3), index.rankOf("erin"));
+        assertEquals(Optional.of(4), index.positionOf("erin"));
+        assertEquals(Optional.of(3), index.rankOf("alice"));
+    }
+
+    @Test
+    void rebuildDropsUsersThatLeftTheTable() {
+        table.remove("bob");
+        index.rebuild();
+
+        assertEquals(3, index.size());
+        assertEquals(Optional.empty(), index.rankOf("bob"));
+        assertEquals(List.of("carol", "alice", "dave"), usernames(index.top(10)));
+    }
+
+    @Test
+    void updatesCommittedWhileARebuildReadsAreReplayed() {
+        duringRead = readNo -> commit("dave", 95.0);
+
+        index.rebuild();
+
+        // The rebuild read dave at 10.0; the replay wins
+        assertEquals(Optional.of(1), index.rankOf("dave"));
+        assertEquals(Optional.of(95.0), index.scoreOf("dave"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void overlappingRebuildsRunOneAfterTheOther() throws Exception {
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        int before = reads.get();
+        duringRead = readNo -> {
+            if (readNo == before + 1) {
+                firstReading.countDown();
+                await(releaseFirst);
+            }
+        };
+
+        Thread first = Thread.ofPlatform().start(index::rebuild);
+        assertTrue(firstReading.await(5, TimeUnit.SECONDS));
+
+        Thread second = Thread.ofPlatform().start(index::rebuild);
+        awaitParked(second);
+        // Committed while the first rebuild reads and the second waits: must survive both
+        commit("alice", 99.0);
+        releaseFirst.countDown();
+
+        first.join(5_000);
+        second.join(5_000);
+        assertFalse(first.isAlive() || second.isAlive());
+        assertEquals(1, maxConcurrentReads.get());
+        assertEquals(before + 2, reads.get());
+        assertEquals(Optional.of(1), index.rankOf("alice"));
+        assertEquals(Optional.of(99.0), index.scoreOf("alice"));
+    }
+
+    /** What StatsPersistenceService does: commit the row, then update the index after commit. */
+    private void commit(String username, double score) {
+        table.put(username, score);
+        index.update(username, score);
+    }
+
+    private static List<String> usernames(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::username).toList();
+    }
+
+    private static ScoreRow row(String username, Double score) {
+        return new ScoreRow() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public Double getNexusScore() {
+                return score;
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+}
@@ -0,0 +1,134 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.common.dto.ApiResponse;
+import com.rathaur.nexus.statsservice.dto.LeaderboardPage;
+import com.rathaur.nexus.statsservice.exception.StatsDomainExceptions.InvalidLeaderboardQueryException;
+import com.rathaur.nexus.statsservice.exception.StatsExceptionHandler;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository;
+import com.rathaur.nexus.statsservice.repository.UserStatsRepository.LeaderboardRow;
+import com.rathaur.nexus.statsservice.service.LeaderboardQueryService.Cursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardQueryServiceTest {
+
+    private final UserStatsRepository userStatsRepo = mock(UserStatsRepository.class);
+    private final LeaderboardQueryService service = new LeaderboardQueryService(userStatsRepo);
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, 1.0, 1234.5678, 1e-9, 9.87654321e8, 0.1 + 0.2})
+    void cursorRoundTripsTheExactScore(double score) {
+        Cursor cursor = new Cursor(score, "tanuj");
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void cursorRoundTripsAnyUsername() {
+        for (String username : List.of("a", "dev_42", "jörg", "名前", "pipe|in|name", "with space")) {
+            Cursor cursor = new Cursor(42.5, username);
+            String token = cursor.encode();
+
+            assertEquals(cursor, Cursor.decode(token));
+            // Safe in a query string as-is
+            assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        }
+    }
+
+    @Test
+    void nextCursorResumesAfterTheLastEntryOfThePage() {
+        when(userStatsRepo.findLeaderboardFirstPage(3)).thenReturn(List.of(
+                row("alice", 90.0, 1), row("bob", 80.0, 2), row("carol", 80.0, 2)));
+
+        LeaderboardPage first = service.page(null, 2);
+
+        assertEquals(2, first.entries().size());
+        Cursor next = Cursor.decode(first.nextCursor());
+        assertEquals(new Cursor(80.0, "bob"), next);
+
+        when(userStatsRepo.findLeaderboardPageAfter(80.0, "bob", 3)).thenReturn(List.of(row("carol", 80.0, 2)));
+        LeaderboardPage second = service.page(first.nextCursor(), 2);
+
+        assertEquals("carol", second.entries().getFirst().username());
+        assertNull(second.nextCursor());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "not base64 at all!",      // outside the url-safe alphabet
+            "YWJj=x",                  // padding in the middle
+            "ODAuMA",                  // "80.0": no separator
+            "fGJvYg",                  // "|bob": no score
+            "ODAuMHw",                 // "80.0|": no username
+            "ZWlnaHR5fGJvYg",          // "eighty|bob"
+            "TmFOfGJvYg",              // "NaN|bob"
+            "SW5maW5pdHl8Ym9i",        // "Infinity|bob"
+    })
+    void rejectsMalformedCursors(String token) {
+        assertThrows(InvalidLeaderboardQueryException.class, () -> service.page(token, 10));
+        verify(userStatsRepo, never()).findLeaderboardPageAfter(anyDouble(), anyString(), anyInt());
+    }
+
+    @Test
+    void tamperedCursorIsABadRequest() {
+        String token = new Cursor(80.0, "bob").encode();
+        String tampered = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("8O.0|bob".getBytes(StandardCharsets.UTF_8));
+
+        InvalidLeaderboardQueryException e = assertThrows(InvalidLeaderboardQueryException.class,
+                () -> service.page(tampered, 10));
+        ResponseEntity<ApiResponse<Void>> response = new StatsExceptionHandler().handleBadLeaderboardQuery(e);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("INVALID_LEADERBOARD_QUERY", response.getBody().getError().getCode());
+        assertEquals(new Cursor(80.0, "bob"), Cursor.decode(token));
+    }
+
+    @Test
+    void blankCursorStartsAtTheTop() {
+        when(userStatsRepo.findLeaderboardFirstPage(11)).thenReturn(List.of(row("alice", 90.0, 1)));
+
+        LeaderboardPage page = service.page("  ", 10);
+
+        assertEquals(1, page.entries().size());
+        assertNull(page.nextCursor());
+    }
+
+    private static LeaderboardRow row(String username, double score, Integer rank) {
+        return new LeaderboardRow() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public Double getNexusScore() {
+                return score;
+            }
+
+            @Override
+            public Integer getGlobalRank() {
+                return rank;
+            }
+        };
+    }
+}
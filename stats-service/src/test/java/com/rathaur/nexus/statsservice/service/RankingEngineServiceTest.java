@@ -0,0 +1,68 @@
+package com.rathaur.nexus.statsservice.service;
+
+import com.rathaur.nexus.statsservice.repository.ScoreChangeLogRepository.ScoreBand;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankingEngineServiceTest {
+
+    @Test
+    void mergesOverlappingBands() {
+        assertEquals(List.of(List.of(10.0, 40.0)),
+                merge(band(10, 30), band(20, 40)));
+    }
+
+    @Test
+    void mergesBandsContainedInAnEarlierOne() {
+        assertEquals(List.of(List.of(10.0, 50.0)),
+                merge(band(10, 50), band(15, 20), band(30, 45)));
+    }
+
+    @Test
+    void mergesBandsThatOnlyTouch() {
+        // A user at exactly 30.0 is in both bands; re-ranking it twice would be wasted work
+        assertEquals(List.of(List.of(10.0, 40.0)),
+                merge(band(10, 30), band(30, 40)));
+    }
+
+    @Test
+    void keepsDisjointBandsApart() {
+        assertEquals(List.of(List.of(10.0, 20.0), List.of(30.0, 40.0), List.of(55.5, 55.5)),
+                merge(band(10, 20), band(30, 40), band(55.5, 55.5)));
+    }
+
+    @Test
+    void mergesAChainIntoOneBandAndStartsAFreshOneAfterAGap() {
+        assertEquals(List.of(List.of(0.0, 25.0), List.of(70.0, 90.0)),
+                merge(band(0, 0), band(0, 10), band(5, 20), band(20, 25), band(70, 80), band(75, 90)));
+    }
+
+    @Test
+    void noBandsMergeToNone() {
+        assertEquals(List.of(), merge());
+    }
+
+    private static List<List<Double>> merge(ScoreBand... sorted) {
+        return RankingEngineService.mergeBands(Arrays.asList(sorted)).stream()
+                .map(b -> List.of(b.getLo(), b.getHi()))
+                .toList();
+    }
+
+    private static ScoreBand band(double lo, double hi) {
+        return new ScoreBand() {
+            @Override
+            public Double getLo() {
+                return lo;
+            }
+
+            @Override
+            public Double getHi() {
+                return hi;
+            }
+        };
+    }
+}